@@ -79,6 +79,7 @@ import com.oracle.truffle.r.runtime.ThreadTimings;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.Utils.DebugExitException;
 import com.oracle.truffle.r.runtime.context.Engine;
+import com.oracle.truffle.r.runtime.context.ParseCache;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributable;
@@ -281,14 +282,25 @@ final class REngine implements Engine, Engine.Timings {
 
     @Override
     public ParsedExpression parse(Source source, boolean keepSource) throws ParseException {
-        RParserFactory.Parser parser = RParserFactory.getParser();
-        RASTBuilder builder = new RASTBuilder(true);
-        List<RSyntaxNode> script = parser.script(source, builder, context.getLanguage());
+        ParseCache parseCache = context.getLanguage().getParseCache();
+        ParseCache.Parsed cached = parseCache.get(source);
+        List<RSyntaxNode> script;
+        ParserMetadata parseData;
+        if (cached != null) {
+            script = cached.getStatements();
+            parseData = cached.getParseData();
+        } else {
+            RParserFactory.Parser parser = RParserFactory.getParser();
+            RASTBuilder builder = new RASTBuilder(true);
+            script = parser.script(source, builder, context.getLanguage());
+            parseData = builder.getParseData();
+            parseCache.put(source, script, parseData);
+        }
         Object[] data = new Object[script.size()];
         for (int i = 0; i < script.size(); i++) {
             data[i] = RASTUtils.createLanguageElement(script.get(i));
         }
-        return new ParsedExpression(RDataFactory.createExpression(data), builder.getParseData());
+        return new ParsedExpression(RDataFactory.createExpression(data), parseData);
     }
 
     @Override
@@ -41,6 +41,7 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.ffi.impl.nodes.RfAllocVectorNode;
 import com.oracle.truffle.r.ffi.impl.upcalls.UpCallsRFFI;
 import com.oracle.truffle.r.ffi.processor.RFFICstring;
 import com.oracle.truffle.r.nodes.RASTUtils;
@@ -362,9 +363,8 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     }
 
     @Override
-    @TruffleBoundary
     public Object Rf_install(String name) {
-        return RDataFactory.createSymbolInterned(name);
+        throw implementedAsNode();
     }
 
     @Override
@@ -492,9 +492,16 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
         int[] dims = new int[]{nrow, ncol};
         switch (type) {
             case INTSXP:
-                return RDataFactory.createIntVector(new int[nrow * ncol], RDataFactory.COMPLETE_VECTOR, dims);
             case REALSXP:
-                return RDataFactory.createDoubleVector(new double[nrow * ncol], RDataFactory.COMPLETE_VECTOR, dims);
+                if (nrow * ncol >= RDataFactory.NATIVE_ALLOCATION_THRESHOLD) {
+                    RAbstractVector result = (RAbstractVector) RfAllocVectorNode.allocateInNative(type, nrow * ncol);
+                    setDims(dims, result);
+                    return result;
+                } else if (type == SEXPTYPE.INTSXP) {
+                    return RDataFactory.createIntVector(new int[nrow * ncol], RDataFactory.COMPLETE_VECTOR, dims);
+                } else {
+                    return RDataFactory.createDoubleVector(new double[nrow * ncol], RDataFactory.COMPLETE_VECTOR, dims);
+                }
             case LGLSXP:
                 return RDataFactory.createLogicalVector(new byte[nrow * ncol], RDataFactory.COMPLETE_VECTOR, dims);
             case STRSXP:
@@ -566,18 +573,12 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
 
     @Override
     public void SET_STRING_ELT(Object x, long i, Object v) {
-        RStringVector vector = guaranteeInstanceOf(x, RStringVector.class);
-        CharSXPWrapper element = guaranteeInstanceOf(v, CharSXPWrapper.class);
-        if (RRuntime.isNA(element.getContents())) {
-            vector.setComplete(false);
-        }
-        vector.setElement((int) i, element);
+        throw implementedAsNode();
     }
 
     @Override
     public void SET_VECTOR_ELT(Object x, long i, Object v) {
-        RList list = guaranteeInstanceOf(x, RList.class);
-        list.setElement((int) i, v);
+        throw implementedAsNode();
     }
 
     @Override
@@ -1409,7 +1410,7 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     public REnvironment R_NewHashedEnv(Object parent, Object initialSize) {
         // We know this is an RIntVector from use site in gramRd.c
         REnvironment env = RDataFactory.createNewEnv(REnvironment.UNNAMED, true, ((RIntVector) initialSize).getDataAt(0));
-        RArguments.initializeEnclosingFrame(env.getFrame(), guaranteeInstanceOf(parent, REnvironment.class).getFrame());
+        env.initializeParent(guaranteeInstanceOf(parent, REnvironment.class));
         return env;
     }
 
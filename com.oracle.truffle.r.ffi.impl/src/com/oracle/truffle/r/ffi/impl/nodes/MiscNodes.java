@@ -22,6 +22,8 @@
  */
 package com.oracle.truffle.r.ffi.impl.nodes;
 
+import static com.oracle.truffle.r.ffi.impl.common.RFFIUtils.guaranteeInstanceOf;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -31,6 +33,7 @@ import com.oracle.truffle.api.dsl.ReportPolymorphism;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.GetFunctionBodyNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.GetFunctionEnvironmentNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.GetFunctionFormalsNodeGen;
@@ -40,8 +43,11 @@ import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.RDoNewObjectNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.RDoSlotAssignNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.RDoSlotNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.RHasSlotNodeGen;
+import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.RfInstallNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.RfPrintValueNodeGen;
+import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.SET_STRING_ELTNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.SET_TRUELENGTHNodeGen;
+import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.SET_VECTOR_ELTNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.SetFunctionBodyNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.SetFunctionEnvironmentNodeGen;
 import com.oracle.truffle.r.ffi.impl.nodes.MiscNodesFactory.SetFunctionFormalsNodeGen;
@@ -65,12 +71,15 @@ import com.oracle.truffle.r.nodes.unary.CastNode;
 import com.oracle.truffle.r.nodes.unary.SizeToOctalRawNode;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.CharSXPWrapper;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RIntVector;
@@ -160,6 +169,80 @@ public final class MiscNodes {
         }
     }
 
+    @GenerateUncached
+    public abstract static class SET_STRING_ELTNode extends FFIUpCallNode.Arg3 {
+
+        @Specialization
+        protected RNull setStringElt(RStringVector vector, long index, CharSXPWrapper element,
+                        @Cached("createBinaryProfile()") ConditionProfile naProfile) {
+            if (naProfile.profile(RRuntime.isNA(element.getContents()))) {
+                vector.setComplete(false);
+            }
+            vector.setElement((int) index, element);
+            return RNull.instance;
+        }
+
+        @Fallback
+        protected RNull setStringElt(Object vector, @SuppressWarnings("unused") Object index, Object element) {
+            guaranteeInstanceOf(vector, RStringVector.class);
+            guaranteeInstanceOf(element, CharSXPWrapper.class);
+            throw RInternalError.shouldNotReachHere();
+        }
+
+        public static SET_STRING_ELTNode create() {
+            return SET_STRING_ELTNodeGen.create();
+        }
+    }
+
+    @GenerateUncached
+    public abstract static class SET_VECTOR_ELTNode extends FFIUpCallNode.Arg3 {
+
+        @Specialization
+        protected RNull setVectorElt(RList list, long index, Object element) {
+            list.setElement((int) index, element);
+            return RNull.instance;
+        }
+
+        @Fallback
+        protected RNull setVectorElt(Object list, @SuppressWarnings("unused") Object index, @SuppressWarnings("unused") Object element) {
+            guaranteeInstanceOf(list, RList.class);
+            throw RInternalError.shouldNotReachHere();
+        }
+
+        public static SET_VECTOR_ELTNode create() {
+            return SET_VECTOR_ELTNodeGen.create();
+        }
+    }
+
+    /**
+     * Native code typically installs the same few symbols over and over again (often in loops), so
+     * the symbols are cached per call site instead of always going through the global symbol table.
+     */
+    @GenerateUncached
+    public abstract static class RfInstallNode extends FFIUpCallNode.Arg1 {
+
+        @Specialization(guards = "cachedName.equals(name)", limit = "4")
+        protected RSymbol installCached(@SuppressWarnings("unused") String name,
+                        @SuppressWarnings("unused") @Cached("name") String cachedName,
+                        @Cached("install(name)") RSymbol symbol) {
+            return symbol;
+        }
+
+        @Specialization(replaces = "installCached")
+        protected RSymbol installGeneric(String name) {
+            return install(name);
+        }
+
+        @TruffleBoundary
+        protected static RSymbol install(String name) {
+            return RDataFactory.createSymbolInterned(name);
+        }
+
+        public static RfInstallNode create() {
+            return RfInstallNodeGen.create();
+        }
+    }
+
     @TypeSystemReference(RTypes.class)
     @GenerateUncached
     public abstract static class TRUELENGTHNode extends FFIUpCallNode.Arg1 {
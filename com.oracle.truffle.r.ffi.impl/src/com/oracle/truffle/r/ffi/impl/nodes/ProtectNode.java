@@ -23,11 +23,11 @@
 package com.oracle.truffle.r.ffi.impl.nodes;
 
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.library.CachedLibrary;
-import com.oracle.truffle.r.runtime.Collections.StackLibrary;
+import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
@@ -45,10 +45,10 @@ public abstract class ProtectNode extends FFIUpCallNode.Arg1 {
 
     @Specialization
     Object protect(RBaseObject x,
-                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef,
-                    @CachedLibrary(limit = "1") StackLibrary stacks) {
+                    @Cached BranchProfile slowPathProfile,
+                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
         RContext ctx = ctxRef.get();
-        stacks.push(ctx.getStateRFFI().rffiContextState.protectStack, x);
+        ctx.getStateRFFI().rffiContextState.protectStack.push(x, slowPathProfile);
         return x;
     }
 }
@@ -23,10 +23,11 @@
 package com.oracle.truffle.r.ffi.impl.nodes;
 
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.r.runtime.Collections;
+import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
@@ -45,10 +46,9 @@ public abstract class ProtectWithIndexNode extends FFIUpCallNode.Arg1 {
 
     @Specialization
     int protect(RBaseObject x,
+                    @Cached BranchProfile slowPathProfile,
                     @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
         RFFIContext ctx = ctxRef.get().getStateRFFI();
-        Collections.ArrayListObj<RBaseObject> stack = ctx.rffiContextState.protectStack;
-        stack.add(x);
-        return stack.size() - 1;
+        return ctx.rffiContextState.protectStack.push(x, slowPathProfile);
     }
 }
@@ -26,10 +26,10 @@ import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.r.runtime.Collections;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.ffi.ProtectStack;
 import com.oracle.truffle.r.runtime.ffi.RFFIContext;
 
 @GenerateUncached
@@ -47,7 +47,7 @@ public abstract class ReprotectNode extends FFIUpCallNode.Arg2 {
     Object protect(RBaseObject x, int y,
                     @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
         RFFIContext ctx = ctxRef.get().getStateRFFI();
-        Collections.ArrayListObj<RBaseObject> stack = ctx.rffiContextState.protectStack;
+        ProtectStack stack = ctx.rffiContextState.protectStack;
         stack.set(y, x);
         return null;
     }
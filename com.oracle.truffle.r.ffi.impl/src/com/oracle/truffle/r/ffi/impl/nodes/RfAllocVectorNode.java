@@ -24,12 +24,14 @@ package com.oracle.truffle.r.ffi.impl.nodes;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ReportPolymorphism;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
@@ -74,8 +76,14 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
     private static Object allocate(@Cached(value = "getType(mode)", allowUncached = true) SEXPTYPE type, int ni) {
         switch (type) {
             case INTSXP:
+                if (ni >= RDataFactory.NATIVE_ALLOCATION_THRESHOLD) {
+                    return allocateInNative(type, ni);
+                }
                 return RDataFactory.createIntVector(new int[ni], RDataFactory.COMPLETE_VECTOR);
             case REALSXP:
+                if (ni >= RDataFactory.NATIVE_ALLOCATION_THRESHOLD) {
+                    return allocateInNative(type, ni);
+                }
                 return RDataFactory.createDoubleVector(new double[ni], RDataFactory.COMPLETE_VECTOR);
             case LGLSXP:
                 return RDataFactory.createLogicalVector(new byte[ni], RDataFactory.COMPLETE_VECTOR);
@@ -99,4 +107,21 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
                 throw unimplemented("unexpected SEXPTYPE " + type);
         }
     }
+
+    /**
+     * Large numeric vectors allocated by native code are almost always accessed through
+     * {@code REAL}/{@code INTEGER} right away, so they are created directly in native memory
+     * instead of copying a zeroed Java array there.
+     */
+    @TruffleBoundary
+    public static Object allocateInNative(SEXPTYPE type, int ni) {
+        switch (type) {
+            case INTSXP:
+                return RDataFactory.createIntVectorInNative(ni);
+            case REALSXP:
+                return RDataFactory.createDoubleVectorInNative(ni);
+            default:
+                throw RInternalError.shouldNotReachHere(type.toString());
+        }
+    }
 }
@@ -23,20 +23,16 @@
 package com.oracle.truffle.r.ffi.impl.nodes;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
-import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.library.CachedLibrary;
-import com.oracle.truffle.api.nodes.ExplodeLoop;
-import com.oracle.truffle.api.profiles.BranchProfile;
-import com.oracle.truffle.r.runtime.Collections.StackLibrary;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.RNull;
-import com.oracle.truffle.r.runtime.ffi.RFFIContext;
+import com.oracle.truffle.r.runtime.ffi.ProtectStack;
 import com.oracle.truffle.r.runtime.ffi.RFFILog;
 
 @GenerateUncached
@@ -55,64 +51,27 @@ public abstract class UnprotectNode extends FFIUpCallNode.Arg1 {
         return RNull.instance;
     }
 
-    @Specialization(guards = "n == 1")
-    Object unprotectSingle(@SuppressWarnings("unused") int n,
-                    @Cached BranchProfile registerNativeRefProfile,
-                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef,
-                    @CachedLibrary(limit = "1") StackLibrary stacks) {
-        RContext ctx = ctxRef.get();
-        RFFIContext rffiCtx = ctx.getRFFI();
-        try {
-            popProtectedObject(ctx, rffiCtx, stacks, registerNativeRefProfile);
-        } catch (IndexOutOfBoundsException e) {
-            debugWarning("mismatched protect/unprotect (unprotect with empty protect stack)");
-        }
-        return RNull.instance;
-    }
-
-    @Specialization(guards = {"n > 1", "n == nCached"}, limit = "5")
-    @ExplodeLoop
-    Object unprotectMultipleCached(@SuppressWarnings("unused") int n,
-                    @Cached("n") int nCached,
-                    @Cached BranchProfile registerNativeRefProfile,
-                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef,
-                    @CachedLibrary(limit = "1") StackLibrary stacks) {
-        RContext ctx = ctxRef.get();
-        RFFIContext rffiCtx = ctx.getRFFI();
-        try {
-            for (int i = 0; i < nCached; i++) {
-                popProtectedObject(ctx, rffiCtx, stacks, registerNativeRefProfile);
-            }
-        } catch (IndexOutOfBoundsException e) {
-            debugWarning("mismatched protect/unprotect (unprotect with empty protect stack)");
+    /**
+     * The unprotected objects stay in the {@link ProtectStack} until the next GNU-R compatible GC
+     * cycle, so unprotecting any number of objects is just lowering the stack top.
+     */
+    @Specialization(guards = "n > 0")
+    Object unprotect(int n,
+                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
+        ProtectStack stack = ctxRef.get().getStateRFFI().rffiContextState.protectStack;
+        if (RFFILog.logEnabled()) {
+            logUnprotected(stack, n);
         }
-        return RNull.instance;
-    }
-
-    @Specialization(guards = "n > 1", replaces = "unprotectMultipleCached")
-    Object unprotectMultipleUnchached(int n,
-                    @Cached BranchProfile registerNativeRefProfile,
-                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef,
-                    @CachedLibrary(limit = "1") StackLibrary stacks) {
-        RContext ctx = ctxRef.get();
-        RFFIContext rffiCtx = ctx.getRFFI();
-        try {
-            for (int i = 0; i < n; i++) {
-                popProtectedObject(ctx, rffiCtx, stacks, registerNativeRefProfile);
-            }
-        } catch (IndexOutOfBoundsException e) {
+        if (!stack.pop(n)) {
             debugWarning("mismatched protect/unprotect (unprotect with empty protect stack)");
         }
         return RNull.instance;
     }
 
-    private static void popProtectedObject(RContext ctx, RFFIContext rffiCtx, StackLibrary stacks, BranchProfile registerNativeRefProfile) {
-        Object removed = stacks.pop(ctx.getStateRFFI().rffiContextState.protectStack);
-        // Developers expect the "unprotected" references to be still alive until next GNU-R
-        // compatible GC cycle
-        rffiCtx.registerReferenceUsedInNative(removed, registerNativeRefProfile);
-        if (RFFILog.logEnabled()) {
-            RFFILog.logRObject("Unprotected: ", removed);
+    @TruffleBoundary
+    private static void logUnprotected(ProtectStack stack, int n) {
+        for (int i = 0; i < n && i < stack.size(); i++) {
+            RFFILog.logRObject("Unprotected: ", stack.peek(i));
         }
     }
 
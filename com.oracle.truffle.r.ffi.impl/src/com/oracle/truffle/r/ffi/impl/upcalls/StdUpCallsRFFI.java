@@ -235,6 +235,7 @@ public interface StdUpCallsRFFI {
 
     int Rf_inherits(Object x, @RFFICstring String clazz);
 
+    @RFFIUpCallNode(MiscNodes.RfInstallNode.class)
     Object Rf_install(@RFFICstring String name);
 
     Object Rf_installChar(Object name);
@@ -278,6 +279,7 @@ public interface StdUpCallsRFFI {
     @RFFIUpCallNode(LENGTHNode.class)
     int LENGTH(Object x);
 
+    @RFFIUpCallNode(MiscNodes.SET_STRING_ELTNode.class)
     void SET_STRING_ELT(Object x, long i, Object v);
 
     void SETLENGTH(Object x, int l);
@@ -292,6 +294,7 @@ public interface StdUpCallsRFFI {
 
     void SETLEVELS(Object x, int gpbits);
 
+    @RFFIUpCallNode(MiscNodes.SET_VECTOR_ELTNode.class)
     void SET_VECTOR_ELT(Object x, long i, Object v);
 
     @RFFIUpCallNode(SetAttribNode.class)
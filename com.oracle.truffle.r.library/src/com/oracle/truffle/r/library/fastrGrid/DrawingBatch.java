@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.fastrGrid;
+
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
+import com.oracle.truffle.r.library.fastrGrid.device.GridDevice;
+import com.oracle.truffle.r.runtime.RInternalError;
+
+/**
+ * Collects consecutive primitives of one kind that share the same {@link DrawingContext} and passes
+ * them to the device at once using the batched drawing methods, e.g.
+ * {@link GridDevice#drawRects(DrawingContext, double[], double[], double[], double[], double, int)}.
+ * The collected primitives are drawn whenever the drawing context or the rotation changes, so the
+ * drawing order is preserved. The user must call {@link #flush()} after the last primitive and
+ * before drawing anything else directly through the device.
+ */
+final class DrawingBatch {
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private enum Kind {
+        RECTS,
+        CIRCLES,
+        SEGMENTS,
+        STRINGS
+    }
+
+    private final Kind kind;
+    private final GridDevice dev;
+    private final double[] x;
+    private final double[] y;
+    private final double[] w;
+    private final double[] h;
+    private final String[] text;
+    private int count;
+    private DrawingContext ctx;
+    private double rotation;
+
+    private DrawingBatch(Kind kind, GridDevice dev, int length) {
+        this.kind = kind;
+        this.dev = dev;
+        int capacity = Math.max(1, Math.min(length, MAX_BATCH_SIZE));
+        x = new double[capacity];
+        y = new double[capacity];
+        w = kind == Kind.STRINGS ? null : new double[capacity];
+        h = kind == Kind.RECTS || kind == Kind.SEGMENTS ? new double[capacity] : null;
+        text = kind == Kind.STRINGS ? new String[capacity] : null;
+    }
+
+    /**
+     * @param length the expected number of primitives, used only to size the buffers.
+     */
+    static DrawingBatch rects(GridDevice dev, int length) {
+        return new DrawingBatch(Kind.RECTS, dev, length);
+    }
+
+    static DrawingBatch circles(GridDevice dev, int length) {
+        return new DrawingBatch(Kind.CIRCLES, dev, length);
+    }
+
+    static DrawingBatch segments(GridDevice dev, int length) {
+        return new DrawingBatch(Kind.SEGMENTS, dev, length);
+    }
+
+    static DrawingBatch strings(GridDevice dev, int length) {
+        return new DrawingBatch(Kind.STRINGS, dev, length);
+    }
+
+    void addRect(DrawingContext drawingCtx, double leftX, double bottomY, double width, double height, double rotationAnticlockWise) {
+        assert kind == Kind.RECTS;
+        int i = next(drawingCtx, rotationAnticlockWise);
+        x[i] = leftX;
+        y[i] = bottomY;
+        w[i] = width;
+        h[i] = height;
+    }
+
+    void addCircle(DrawingContext drawingCtx, double centerX, double centerY, double radius) {
+        assert kind == Kind.CIRCLES;
+        int i = next(drawingCtx, 0);
+        x[i] = centerX;
+        y[i] = centerY;
+        w[i] = radius;
+    }
+
+    void addSegment(DrawingContext drawingCtx, double x0, double y0, double x1, double y1) {
+        assert kind == Kind.SEGMENTS;
+        int i = next(drawingCtx, 0);
+        x[i] = x0;
+        y[i] = y0;
+        w[i] = x1;
+        h[i] = y1;
+    }
+
+    void addString(DrawingContext drawingCtx, double leftX, double bottomY, double rotationAnticlockWise, String str) {
+        assert kind == Kind.STRINGS;
+        int i = next(drawingCtx, rotationAnticlockWise);
+        x[i] = leftX;
+        y[i] = bottomY;
+        text[i] = str;
+    }
+
+    /**
+     * Draws the collected primitives.
+     */
+    void flush() {
+        if (count == 0) {
+            return;
+        }
+        switch (kind) {
+            case RECTS:
+                dev.drawRects(ctx, x, y, w, h, rotation, count);
+                break;
+            case CIRCLES:
+                dev.drawCircles(ctx, x, y, w, count);
+                break;
+            case SEGMENTS:
+                dev.drawSegments(ctx, x, y, w, h, count);
+                break;
+            case STRINGS:
+                dev.drawStrings(ctx, x, y, rotation, text, count);
+                break;
+            default:
+                throw RInternalError.shouldNotReachHere("unexpected value of DrawingBatch.Kind enum");
+        }
+        count = 0;
+    }
+
+    private int next(DrawingContext drawingCtx, double newRotation) {
+        if (count > 0 && (drawingCtx != ctx || newRotation != rotation || count == x.length)) {
+            flush();
+        }
+        ctx = drawingCtx;
+        rotation = newRotation;
+        return count++;
+    }
+}
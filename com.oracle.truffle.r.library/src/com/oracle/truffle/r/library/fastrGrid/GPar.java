@@ -112,17 +112,25 @@ public final class GPar {
                     "fontface"
     };
     private static final RStringVector NAMES_VECTOR = (RStringVector) RDataFactory.createStringVector(NAMES, RDataFactory.COMPLETE_VECTOR).makeSharedPermanent();
+    /**
+     * Drawing contexts are cached for gpars whose values repeat with at most this period.
+     */
+    private static final int MAX_CACHED_PERIOD = 256;
+
     private final RList gpar;
     // majority of gpar instances contains only scalar values, for those we make sure we do not
-    // create a new drawing context instance for every index.
-    private final boolean singleDrawingCtx;
-    private final DrawingContext indexZeroDrawingCtx;
+    // create a new drawing context instance for every index. Vector values repeat with the period
+    // given by the least common multiple of their lengths, if the period is short, we cache the
+    // contexts too, so that consecutive primitives with the same parameters share the instance.
+    private final int period;
+    private final DrawingContext[] drawingCtxs;
 
-    public GPar(RList gpar, boolean singleDrawingCtx) {
+    public GPar(RList gpar, int period) {
         this.gpar = gpar;
         this.gpar.makeSharedPermanent();
-        this.singleDrawingCtx = singleDrawingCtx;
-        indexZeroDrawingCtx = new GParDrawingContext(gpar, 0);
+        this.period = period;
+        drawingCtxs = new DrawingContext[period <= MAX_CACHED_PERIOD ? period : 1];
+        drawingCtxs[0] = new GParDrawingContext(gpar, 0);
     }
 
     public static double getCex(RList gpar) {
@@ -130,21 +138,37 @@ public final class GPar {
     }
 
     public static GPar create(RList gpar) {
-        boolean singleDrawingCtx = true;
+        long period = 1;
         for (int i = 0; i < gpar.getLength(); i++) {
             Object item = gpar.getDataAt(i);
             if (item instanceof RAbstractVector) {
-                singleDrawingCtx &= ((RAbstractVector) item).getLength() == 1;
+                int length = ((RAbstractVector) item).getLength();
+                if (length > 1 && period <= MAX_CACHED_PERIOD) {
+                    period = period / gcd(period, length) * length;
+                }
             }
         }
-        return new GPar(gpar, singleDrawingCtx);
+        return new GPar(gpar, (int) Math.min(period, Integer.MAX_VALUE));
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
     }
 
     public DrawingContext getDrawingContext(int cyclicIndex) {
-        if (singleDrawingCtx || cyclicIndex == 0) {
-            return indexZeroDrawingCtx;
+        if (period == 1 || cyclicIndex == 0) {
+            return drawingCtxs[0];
         }
-        return new GParDrawingContext(gpar, cyclicIndex);
+        if (period > MAX_CACHED_PERIOD) {
+            return new GParDrawingContext(gpar, cyclicIndex);
+        }
+        int index = cyclicIndex % period;
+        DrawingContext result = drawingCtxs[index];
+        if (result == null) {
+            result = new GParDrawingContext(gpar, index);
+            drawingCtxs[index] = result;
+        }
+        return result;
     }
 
     public static RList createNew(GridDevice device) {
@@ -178,6 +202,9 @@ public final class GPar {
     private static final class GParDrawingContext implements DrawingContext {
         private final RList data;
         private final int index;
+        // the colors are the most expensive to convert and devices ask for them for every primitive
+        private GridColor color;
+        private GridColor fillColor;
 
         private GParDrawingContext(RList list, int index) {
             data = list;
@@ -215,7 +242,10 @@ public final class GPar {
 
         @Override
         public GridColor getColor() {
-            return getGridColor(GP_COL);
+            if (color == null) {
+                color = getGridColor(GP_COL);
+            }
+            return color;
         }
 
         @Override
@@ -240,7 +270,10 @@ public final class GPar {
 
         @Override
         public GridColor getFillColor() {
-            return getGridColor(GP_FILL);
+            if (fillColor == null) {
+                fillColor = getGridColor(GP_FILL);
+            }
+            return fillColor;
         }
 
         /**
@@ -128,6 +128,7 @@ public final class GridTextNode extends RBaseNode {
         if (checkOverlap || !draw) {
             bounds = new EdgeDetection.Rectangle[length];
         }
+        DrawingBatch batch = draw ? DrawingBatch.strings(dev, length) : null;
 
         for (int i = 0; i < length; i++) {
             Point loc = Point.fromUnits(x, y, i, conversionCtx);
@@ -159,7 +160,7 @@ public final class GridTextNode extends RBaseNode {
 
             // actual drawing
             if (draw && doDraw) {
-                text(loc.x, loc.y, text, hjust, vjust, rotation + vpTransform.rotationAngle, gpar.getDrawingContext(i), dev);
+                text(loc.x, loc.y, text, hjust, vjust, rotation + vpTransform.rotationAngle, gpar.getDrawingContext(i), dev, batch);
             }
 
             // or bounds checking
@@ -182,6 +183,10 @@ public final class GridTextNode extends RBaseNode {
             }
         }
 
+        if (batch != null) {
+            batch.flush();
+        }
+
         if (!draw && ntxt > 0) {
             // If there is more than one text, just produce edge based on bounding rect of all text
             if (ntxt > 1) {
@@ -224,7 +229,7 @@ public final class GridTextNode extends RBaseNode {
 
     // transcribed from engine.c
 
-    private static void text(double x, double y, String text, double xadjIn, double yadj, double rotationDegrees, DrawingContext drawingCtx, GridDevice device) {
+    private static void text(double x, double y, String text, double xadjIn, double yadj, double rotationDegrees, DrawingContext drawingCtx, GridDevice device, DrawingBatch batch) {
         if (!Double.isFinite(yadj)) {
             throw RInternalError.unimplemented("'exact' vertical centering, see engine.c:1700");
         }
@@ -262,7 +267,7 @@ public final class GridTextNode extends RBaseNode {
                 ybottom = yoff - (xadj) * width * sinRot - yadj * height * cosRot;
             }
 
-            device.drawString(drawingCtx, xleft, ybottom, radRotation, lines[lineIdx]);
+            batch.addString(drawingCtx, xleft, ybottom, radRotation, lines[lineIdx]);
         }
     }
 }
@@ -61,13 +61,15 @@ public abstract class LCircle extends RExternalBuiltinNode.Arg3 {
         UnitConversionContext conversionCtx = new UnitConversionContext(vpTransform.size, vpContext, dev, gpar);
 
         int length = GridUtils.maxLength(xVec, yVec, radiusVec);
+        DrawingBatch batch = DrawingBatch.circles(dev, length);
         for (int i = 0; i < length; i++) {
             Size radiusSizes = Size.fromUnits(radiusVec, radiusVec, i, conversionCtx);
             double radius = RMath.fmin2(radiusSizes.getWidth(), radiusSizes.getHeight());
             Point origLoc = Point.fromUnits(xVec, yVec, i, conversionCtx);
             Point loc = TransformMatrix.transLocation(origLoc, vpTransform.transform);
-            dev.drawCircle(gpar.getDrawingContext(i), loc.x, loc.y, radius);
+            batch.addCircle(gpar.getDrawingContext(i), loc.x, loc.y, radius);
         }
+        batch.flush();
         return RNull.instance;
     }
 }
@@ -77,17 +77,56 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         // Note: unlike in other drawing primitives, we only consider length of x
         int length = Unit.getLength(xVec);
         ContextCache contextCache = new ContextCache(null);
+        PointBatches batches = new PointBatches(dev, length);
         for (int i = 0; i < length; i++) {
             Point loc = TransformMatrix.transLocation(Point.fromUnits(xVec, yVec, i, conversionCtx), vpTransform.transform);
             double size = Unit.convertWidth(sizeVec, i, conversionCtx);
             if (loc.isFinite() && Double.isFinite(size)) {
                 contextCache = contextCache.from(gpar.getDrawingContext(i));
-                drawSymbol(contextCache, dev, pchVec.getDataAt(i % pchVec.getLength()), size * SIZE_FACTOR, loc.x, loc.y);
+                int pch = pchVec.getDataAt(i % pchVec.getLength());
+                if (!addSymbol(contextCache, batches, pch, size * SIZE_FACTOR, loc.x, loc.y)) {
+                    batches.flush();
+                    drawSymbol(contextCache, dev, pch, size * SIZE_FACTOR, loc.x, loc.y);
+                }
             }
         }
+        batches.flush();
         return RNull.instance;
     }
 
+    /**
+     * Adds the symbols that consist of a single square or circle to the batches. Returns
+     * {@code false} if the symbol has to be drawn by {@link #drawSymbol}.
+     */
+    private static boolean addSymbol(ContextCache ctxCache, PointBatches batches, int pch, double halfSize, double x, double y) {
+        double fullSize = halfSize * 2;
+        switch (pch) {
+            case 0:
+                batches.addRect(ctxCache.getTransparentFill(), x - halfSize, y - halfSize, fullSize, fullSize);
+                return true;
+            case 1:
+                batches.addCircle(ctxCache.getTransparentFill(), x, y, halfSize);
+                return true;
+            case 15:
+            case 22:
+                batches.addRect(ctxCache.getFilled(), x - halfSize, y - halfSize, fullSize, fullSize);
+                return true;
+            case 16:
+            case 19:
+            case 21:
+                batches.addCircle(ctxCache.getFilled(), x, y, halfSize);
+                return true;
+            case 20:
+                batches.addCircle(ctxCache.getFilled(), x, y, halfSize * .6);
+                return true;
+            case 46:
+                batches.addRect(ctxCache.getFilled(), x - PIXEL_SIZE / 2, y - PIXEL_SIZE / 2, PIXEL_SIZE, PIXEL_SIZE);
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private static void drawSymbol(ContextCache ctxCache, GridDevice dev, int pch, double halfSize, double x, double y) {
         // pch 0 - 25 are interpreted as geometrical shapes, pch from ascii code of ' ' are
         // interpreted as corresponding ascii character, which should be drawn
@@ -238,6 +277,35 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         dev.drawPolyLines(ctx, new double[]{x1, x2}, new double[]{y1, y2}, 0, 2);
     }
 
+    /**
+     * Batches for squares and circles, only one of them may contain pending symbols at a time, so
+     * that the symbols are drawn in the original order.
+     */
+    private static final class PointBatches {
+        private final DrawingBatch rects;
+        private final DrawingBatch circles;
+
+        PointBatches(GridDevice dev, int length) {
+            rects = DrawingBatch.rects(dev, length);
+            circles = DrawingBatch.circles(dev, length);
+        }
+
+        void addRect(DrawingContext ctx, double leftX, double bottomY, double width, double height) {
+            circles.flush();
+            rects.addRect(ctx, leftX, bottomY, width, height, 0);
+        }
+
+        void addCircle(DrawingContext ctx, double x, double y, double radius) {
+            rects.flush();
+            circles.addCircle(ctx, x, y, radius);
+        }
+
+        void flush() {
+            rects.flush();
+            circles.flush();
+        }
+    }
+
     private static final class ContextCache {
         public final DrawingContext original;
         private DrawingContext filled;
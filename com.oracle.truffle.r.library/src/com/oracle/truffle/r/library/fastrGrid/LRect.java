@@ -66,13 +66,15 @@ public abstract class LRect extends RExternalBuiltinNode.Arg6 {
         UnitConversionContext conversionCtx = new UnitConversionContext(vpTransform.size, vpContext, dev, gpar);
 
         int length = GridUtils.maxLength(xVec, yVec, wVec, hVec);
+        DrawingBatch batch = DrawingBatch.rects(dev, length);
         for (int i = 0; i < length; i++) {
             Size size = Size.fromUnits(wVec, hVec, i, conversionCtx);
             Point origLoc = Point.fromUnits(xVec, yVec, i, conversionCtx);
             Point transLoc = TransformMatrix.transLocation(origLoc, vpTransform.transform);
             Point loc = transLoc.justify(size, getDataAtMod(hjust, i), getDataAtMod(vjust, i));
-            dev.drawRect(gpar.getDrawingContext(i), loc.x, loc.y, size.getWidth(), size.getHeight(), Math.toRadians(vpTransform.rotationAngle));
+            batch.addRect(gpar.getDrawingContext(i), loc.x, loc.y, size.getWidth(), size.getHeight(), Math.toRadians(vpTransform.rotationAngle));
         }
+        batch.flush();
         return RNull.instance;
     }
 }
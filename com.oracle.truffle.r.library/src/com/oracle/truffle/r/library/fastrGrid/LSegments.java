@@ -66,6 +66,19 @@ public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
         UnitConversionContext conversionCtx = new UnitConversionContext(vpTransform.size, vpContext, dev, gpar);
 
         int length = GridUtils.maxLength(x0, y0, x1, y1);
+        if (arrow == null) {
+            // without arrows, the segments can be drawn in batches
+            DrawingBatch batch = DrawingBatch.segments(dev, length);
+            for (int i = 0; i < length; i++) {
+                Point loc1 = TransformMatrix.transLocation(Point.fromUnits(x0, y0, i, conversionCtx), vpTransform.transform);
+                Point loc2 = TransformMatrix.transLocation(Point.fromUnits(x1, y1, i, conversionCtx), vpTransform.transform);
+                if (loc1.isFinite() && loc2.isFinite()) {
+                    batch.addSegment(gpar.getDrawingContext(i), loc1.x, loc1.y, loc2.x, loc2.y);
+                }
+            }
+            batch.flush();
+            return RNull.instance;
+        }
         double[] xx = new double[2];
         double[] yy = new double[2];
         for (int i = 0; i < length; i++) {
@@ -79,9 +92,7 @@ public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
             yy[0] = loc1.y;
             yy[1] = loc2.y;
             dev.drawPolyLines(gpar.getDrawingContext(i), xx, yy, 0, 2);
-            if (arrow != null) {
-                Arrows.drawArrows(xx, yy, 0, 2, i, arrow, true, true, conversionCtx);
-            }
+            Arrows.drawArrows(xx, yy, 0, 2, i, arrow, true, true, conversionCtx);
         }
         return RNull.instance;
     }
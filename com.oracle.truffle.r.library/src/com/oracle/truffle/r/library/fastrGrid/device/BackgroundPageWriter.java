@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.fastrGrid.device;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.oracle.truffle.r.library.fastrGrid.device.GridDevice.DeviceCloseException;
+
+/**
+ * Saves the finished pages of a file device in a background thread, so that the R code can continue
+ * drawing the next page, or the next plot into another device, while the previous pages are being
+ * encoded and written. Each device has its own instance and the pages of one device are written one
+ * after another in the order of submission, because they may go to the same file, e.g. for
+ * {@code png("out.png")} without {@code %d} in the file name. The pages of different devices are
+ * written concurrently.
+ *
+ * Errors are reported from the next {@link #submit(PageWrite)} or from {@link #waitForAll()}, which
+ * the device must call when it is closed. This means that the failure to write a page is reported
+ * by a later {@code grid.newpage()} as "Cannot save the image" or when the device is closed.
+ */
+public final class BackgroundPageWriter {
+
+    /**
+     * Writes one page. Invoked in a worker thread, so it must not access the R context.
+     */
+    public interface PageWrite {
+        void write() throws IOException;
+    }
+
+    /**
+     * Maximum number of pages of one device waiting to be written, this limits the memory held by
+     * the pending pages, e.g. the images.
+     */
+    private static final int MAX_PENDING = 4;
+
+    private final ArrayDeque<Future<?>> pending = new ArrayDeque<>();
+
+    /**
+     * Single thread executor of this device, the thread is only kept alive while there are pages to
+     * write.
+     */
+    private ThreadPoolExecutor executor;
+
+    private ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "FastR grid page writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    public void submit(PageWrite page) throws DeviceCloseException {
+        while (!pending.isEmpty() && (pending.size() >= MAX_PENDING || pending.peek().isDone())) {
+            waitFor(pending.poll());
+        }
+        pending.add(getExecutor().submit(() -> {
+            page.write();
+            return null;
+        }));
+    }
+
+    /**
+     * Waits until all the pages submitted so far are written. If any of them failed, the first
+     * error is reported once all of them are finished.
+     */
+    public void waitForAll() throws DeviceCloseException {
+        DeviceCloseException error = null;
+        while (!pending.isEmpty()) {
+            try {
+                waitFor(pending.poll());
+            } catch (DeviceCloseException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static void waitFor(Future<?> future) throws DeviceCloseException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw new DeviceCloseException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeviceCloseException(e);
+        }
+    }
+}
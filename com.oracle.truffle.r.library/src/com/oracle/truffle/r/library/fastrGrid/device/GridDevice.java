@@ -108,6 +108,54 @@ public interface GridDevice {
      */
     void drawString(DrawingContext ctx, double leftX, double bottomY, double rotationAnticlockWise, String text);
 
+    /**
+     * Draws {@code count} rectangles that share the same drawing context and rotation, the i-th
+     * rectangle is given by the i-th elements of the arrays. Devices that can set up the graphics
+     * state only once for the whole batch should override this. The rectangles must be drawn in the
+     * order given by the arrays.
+     */
+    default void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] width, double[] height, double rotationAnticlockWise, int count) {
+        for (int i = 0; i < count; i++) {
+            drawRect(ctx, leftX[i], bottomY[i], width[i], height[i], rotationAnticlockWise);
+        }
+    }
+
+    /**
+     * Batched version of {@link #drawCircle(DrawingContext, double, double, double)}, see
+     * {@link #drawRects(DrawingContext, double[], double[], double[], double[], double, int)}.
+     */
+    default void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        for (int i = 0; i < count; i++) {
+            drawCircle(ctx, centerX[i], centerY[i], radius[i]);
+        }
+    }
+
+    /**
+     * Draws {@code count} straight lines that share the same drawing context, the i-th line goes
+     * from {@code [x0[i], y0[i]]} to {@code [x1[i], y1[i]]}.
+     */
+    default void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int count) {
+        double[] xx = new double[2];
+        double[] yy = new double[2];
+        for (int i = 0; i < count; i++) {
+            xx[0] = x0[i];
+            xx[1] = x1[i];
+            yy[0] = y0[i];
+            yy[1] = y1[i];
+            drawPolyLines(ctx, xx, yy, 0, 2);
+        }
+    }
+
+    /**
+     * Batched version of {@link #drawString(DrawingContext, double, double, double, String)}, all
+     * the strings share the same rotation.
+     */
+    default void drawStrings(DrawingContext ctx, double[] leftX, double[] bottomY, double rotationAnticlockWise, String[] text, int count) {
+        for (int i = 0; i < count; i++) {
+            drawString(ctx, leftX[i], bottomY[i], rotationAnticlockWise, text[i]);
+        }
+    }
+
     /**
      * @return The width of the device in inches.
      */
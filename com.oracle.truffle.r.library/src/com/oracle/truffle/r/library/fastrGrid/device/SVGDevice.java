@@ -26,7 +26,6 @@ import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GRID_
 import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.INCH_TO_POINTS_FACTOR;
 import static java.lang.Math.round;
 
-import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
@@ -51,6 +50,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     private final double height;
 
     private DrawingContext cachedCtx;
+    private final BackgroundPageWriter writer = new BackgroundPageWriter();
 
     public SVGDevice(String filename, double width, double height) {
         this.filename = filename;
@@ -91,21 +91,32 @@ public class SVGDevice implements GridDevice, FileGridDevice {
 
     @Override
     public void close() throws DeviceCloseException {
-        saveFile();
+        try {
+            saveFile();
+        } finally {
+            writer.waitForAll();
+        }
     }
 
     @Override
     public void drawRect(DrawingContext ctx, double leftX, double bottomY, double newWidth, double newHeight, double rotationAnticlockWise) {
         appendStyle(ctx);
-        data.append("<rect x='").append(trRound(leftX)).append("' y='").append(trRound(transY(bottomY + newHeight))).append("' width='").append(trRound(newWidth)).append("' height='").append(
-                        trRound(newHeight)).append('\'');
-        if (rotationAnticlockWise != 0) {
-            appendTransform((int) round(toDegrees(rotationAnticlockWise)), trRound(leftX + newWidth / 2.), trRound(transY(bottomY + newHeight / 2.)));
-        }
+        appendRect(leftX, bottomY, newWidth, newHeight, rotationAnticlockWise);
         appendColorStyle(ctx);
         data.append("/>\n"); // end of 'rect' tag
     }
 
+    @Override
+    public void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] newWidth, double[] newHeight, double rotationAnticlockWise, int count) {
+        appendStyle(ctx);
+        String colorStyle = null;
+        for (int i = 0; i < count; i++) {
+            appendRect(leftX[i], bottomY[i], newWidth[i], newHeight[i], rotationAnticlockWise);
+            colorStyle = appendColorStyle(ctx, false, colorStyle);
+            data.append("/>\n");
+        }
+    }
+
     @Override
     public void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int startIndex, int length) {
         drawPoly(ctx, x, y, startIndex, length, true);
@@ -119,11 +130,34 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     @Override
     public void drawCircle(DrawingContext ctx, double centerX, double centerY, double radius) {
         appendStyle(ctx);
-        data.append("<circle cx='").append(trRound(centerX)).append("' cy='").append(trRound(transY(centerY))).append("' r='").append(trRound(radius)).append('\'');
+        appendCircle(centerX, centerY, radius);
         appendColorStyle(ctx);
         data.append("/>\n");
     }
 
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        appendStyle(ctx);
+        String colorStyle = null;
+        for (int i = 0; i < count; i++) {
+            appendCircle(centerX[i], centerY[i], radius[i]);
+            colorStyle = appendColorStyle(ctx, false, colorStyle);
+            data.append("/>\n");
+        }
+    }
+
+    @Override
+    public void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int count) {
+        appendStyle(ctx);
+        String colorStyle = null;
+        for (int i = 0; i < count; i++) {
+            data.append("<polyline points='").append(trRound(x0[i])).append(',').append(trRound(transY(y0[i])));
+            data.append(' ').append(trRound(x1[i])).append(',').append(trRound(transY(y1[i]))).append('\'');
+            colorStyle = appendColorStyle(ctx, true, colorStyle);
+            data.append("/>\n");
+        }
+    }
+
     @Override
     public void drawRaster(double leftX, double bottomY, double w, double h, int[] pixels, int pixelsColumnsCount, ImageInterpolation interpolation) {
         byte[] bitmap = Bitmap.create(pixels, pixelsColumnsCount);
@@ -136,15 +170,16 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     @Override
     public void drawString(DrawingContext ctx, double leftX, double bottomY, double rotationAnticlockWise, String text) {
         closeStyle();
-        data.append("<text x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY)));
-        data.append("' lengthAdjust='spacingAndGlyphs' textLength='").append(round(getStringWidth(ctx, text) * COORD_FACTOR)).append("px'");
-        appendFontStyle(ctx);
-        if (rotationAnticlockWise != 0) {
-            appendTransform((int) round(toDegrees(rotationAnticlockWise)), trRound(leftX), trRound(transY(bottomY)));
+        appendText(ctx, leftX, bottomY, rotationAnticlockWise, text, null);
+    }
+
+    @Override
+    public void drawStrings(DrawingContext ctx, double[] leftX, double[] bottomY, double rotationAnticlockWise, String[] text, int count) {
+        closeStyle();
+        String fontStyle = null;
+        for (int i = 0; i < count; i++) {
+            fontStyle = appendText(ctx, leftX[i], bottomY[i], rotationAnticlockWise, text[i], fontStyle);
         }
-        data.append('>');
-        xmlEncodeAppend(data, text);
-        data.append("</text>\n");
     }
 
     @Override
@@ -198,6 +233,43 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         return 0.7 * (ctx.getFontSize() / INCH_TO_POINTS_FACTOR);
     }
 
+    private void appendRect(double leftX, double bottomY, double newWidth, double newHeight, double rotationAnticlockWise) {
+        data.append("<rect x='").append(trRound(leftX)).append("' y='").append(trRound(transY(bottomY + newHeight))).append("' width='").append(trRound(newWidth)).append("' height='").append(
+                        trRound(newHeight)).append('\'');
+        if (rotationAnticlockWise != 0) {
+            appendTransform((int) round(toDegrees(rotationAnticlockWise)), trRound(leftX + newWidth / 2.), trRound(transY(bottomY + newHeight / 2.)));
+        }
+    }
+
+    private void appendCircle(double centerX, double centerY, double radius) {
+        data.append("<circle cx='").append(trRound(centerX)).append("' cy='").append(trRound(transY(centerY))).append("' r='").append(trRound(radius)).append('\'');
+    }
+
+    /**
+     * Appends the whole 'text' tag. The font style depends only on the drawing context, so when
+     * drawing more strings with the same context, the caller can pass in the style returned by the
+     * previous invocation to avoid computing it again.
+     */
+    private String appendText(DrawingContext ctx, double leftX, double bottomY, double rotationAnticlockWise, String text, String fontStyle) {
+        data.append("<text x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY)));
+        data.append("' lengthAdjust='spacingAndGlyphs' textLength='").append(round(getStringWidth(ctx, text) * COORD_FACTOR)).append("px'");
+        String result = fontStyle;
+        if (result == null) {
+            int start = data.length();
+            appendFontStyle(ctx);
+            result = data.substring(start);
+        } else {
+            data.append(result);
+        }
+        if (rotationAnticlockWise != 0) {
+            appendTransform((int) round(toDegrees(rotationAnticlockWise)), trRound(leftX), trRound(transY(bottomY)));
+        }
+        data.append('>');
+        xmlEncodeAppend(data, text);
+        data.append("</text>\n");
+        return result;
+    }
+
     private void drawPoly(DrawingContext ctx, double[] x, double[] y, int startIndex, int length, boolean noFill) {
         appendStyle(ctx);
         data.append("<polyline points='");
@@ -216,17 +288,16 @@ public class SVGDevice implements GridDevice, FileGridDevice {
 
     private void saveFile() throws DeviceCloseException {
         closeSVGDocument(data);
-        try {
-            TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
-            if (FileGridDevice.isDevNull(file)) {
-                return;
-            }
+        TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
+        if (FileGridDevice.isDevNull(file)) {
+            return;
+        }
+        String contents = data.toString();
+        writer.submit(() -> {
             try (OutputStream stream = file.newOutputStream()) {
-                stream.write(data.toString().getBytes(StandardCharsets.UTF_8));
+                stream.write(contents.getBytes(StandardCharsets.UTF_8));
             }
-        } catch (IOException e) {
-            throw new DeviceCloseException(e);
-        }
+        });
     }
 
     private void closeSVGDocument(StringBuilder sb) {
@@ -299,6 +370,22 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('\'');
     }
 
+    /**
+     * Appends the color style unless it was already computed by a previous invocation for the same
+     * drawing context, in which case the {@code colorStyle} is simply appended.
+     *
+     * @return the appended color style
+     */
+    private String appendColorStyle(DrawingContext ctx, boolean noFill, String colorStyle) {
+        if (colorStyle != null) {
+            data.append(colorStyle);
+            return colorStyle;
+        }
+        int start = data.length();
+        appendColorStyle(ctx, noFill);
+        return data.substring(start);
+    }
+
     private void appendFontStyle(DrawingContext ctx) {
         // Note: SVG interprets the "fill" as the color of the text
         data.append(" style='font-size:").append(ctx.getFontSize()).append("px;");
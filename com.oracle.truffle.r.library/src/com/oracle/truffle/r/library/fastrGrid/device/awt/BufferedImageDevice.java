@@ -28,19 +28,26 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.FileNotFoundException;
-import java.io.IOException;
+import java.io.OutputStream;
 
 import javax.imageio.ImageIO;
 
 import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.r.library.fastrGrid.device.BackgroundPageWriter;
 import com.oracle.truffle.r.library.fastrGrid.device.FileGridDevice;
 import com.oracle.truffle.r.library.fastrGrid.device.NotSupportedImageFormatException;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Draws into an off-screen image and saves it into a file. The images are encoded and written by
+ * {@link BackgroundPageWriter}, for every new page a new image is created, so that the drawing can
+ * continue while the previous page is being saved.
+ */
 public final class BufferedImageDevice extends Graphics2DDevice implements FileGridDevice {
-    private final BufferedImage image;
+    private BufferedImage image;
     private final String fileType;
     private String filename;
+    private final BackgroundPageWriter writer = new BackgroundPageWriter();
 
     private BufferedImageDevice(String fileType, BufferedImage image, Graphics2D graphics, int width, int height, String filename) {
         super(graphics, width, height, true);
@@ -63,36 +70,56 @@ public final class BufferedImageDevice extends Graphics2DDevice implements FileG
 
     @Override
     public void openNewPage(String newFilename) throws DeviceCloseException {
-        saveImage();
+        if (saveImage()) {
+            // the image is still being written, continue with a new one
+            getGraphics2D().dispose();
+            image = new BufferedImage(getWidthAwt(), getHeightAwt(), TYPE_INT_RGB);
+            Graphics2D graphics = (Graphics2D) image.getGraphics();
+            defaultInitGraphics(graphics);
+            setGraphics2D(graphics);
+        }
         filename = newFilename;
         openNewPage();
     }
 
     @Override
     public void close() throws DeviceCloseException {
-        saveImage();
+        try {
+            saveImage();
+        } finally {
+            writer.waitForAll();
+            getGraphics2D().dispose();
+        }
     }
 
-    private void saveImage() throws DeviceCloseException {
-        try {
-            TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
-            TruffleFile parent = file.getParent();
-            if (FileGridDevice.isDevNull(file)) {
-                return;
-            }
-            if (parent != null && !parent.exists()) {
-                // Bug in JDK? when the path contains directory that does not exist, the code throws
-                // NPE and prints out to the standard output (!) stack trace of
-                // FileNotFoundException. We still catch the exception, because this check and
-                // following Image.write are not atomic.
-                throw new DeviceCloseException(new FileNotFoundException("Path " + filename + " does not exist"));
-            }
-            ImageIO.write(image, fileType, file.newOutputStream());
-        } catch (IOException e) {
-            throw new DeviceCloseException(e);
-        } catch (NullPointerException npe) {
-            throw new DeviceCloseException(new FileNotFoundException("Path " + filename + " does not exist"));
+    /**
+     * Submits the current image to be written into the current file.
+     *
+     * @return {@code true} if the image was submitted and must not be drawn into anymore.
+     */
+    private boolean saveImage() throws DeviceCloseException {
+        TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
+        TruffleFile parent = file.getParent();
+        if (FileGridDevice.isDevNull(file)) {
+            return false;
         }
+        String path = filename;
+        if (parent != null && !parent.exists()) {
+            // Bug in JDK? when the path contains directory that does not exist, the code throws
+            // NPE and prints out to the standard output (!) stack trace of
+            // FileNotFoundException. We still catch the exception, because this check and
+            // following Image.write are not atomic.
+            throw new DeviceCloseException(new FileNotFoundException("Path " + path + " does not exist"));
+        }
+        BufferedImage finishedImage = image;
+        writer.submit(() -> {
+            try (OutputStream stream = file.newOutputStream()) {
+                ImageIO.write(finishedImage, fileType, stream);
+            } catch (NullPointerException npe) {
+                throw new FileNotFoundException("Path " + path + " does not exist");
+            }
+        });
+        return true;
     }
 
     private static boolean isSupportedFormat(String formatName) {
@@ -179,6 +179,77 @@ public class Graphics2DDevice implements GridDevice {
         transformed(leftX, bottomY, rotationAnticlockWise, () -> graphics.drawString(text, 0, 0));
     }
 
+    @Override
+    public void drawRects(DrawingContext ctx, double[] leftXIn, double[] bottomYIn, double[] widthIn, double[] heightIn, double rotationAnticlockWise, int count) {
+        if (rotationAnticlockWise != 0.) {
+            GridDevice.super.drawRects(ctx, leftXIn, bottomYIn, widthIn, heightIn, rotationAnticlockWise, count);
+            return;
+        }
+        setStroke(ctx);
+        Color fillColor = getFillColor(ctx);
+        Color lineColor = getLineColor(ctx);
+        Rectangle shape = new Rectangle();
+        for (int i = 0; i < count; i++) {
+            double leftXReal = transX(leftXIn[i]);
+            double topYReal = transY(bottomYIn[i] + heightIn[i]);
+            shape.setBounds(iround(leftXReal), iround(topYReal), transDim(widthIn[i], leftXReal), transDim(heightIn[i], topYReal));
+            if (fillColor != null) {
+                setColor(fillColor);
+                graphics.fill(shape);
+            }
+            if (lineColor != null) {
+                setColor(lineColor);
+                graphics.draw(shape);
+            }
+        }
+    }
+
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerXIn, double[] centerYIn, double[] radiusIn, int count) {
+        setStroke(ctx);
+        Color fillColor = getFillColor(ctx);
+        Color lineColor = getLineColor(ctx);
+        for (int i = 0; i < count; i++) {
+            double xRel = transX(centerXIn[i] - radiusIn[i]);
+            double yRel = transY(centerYIn[i] + radiusIn[i]);
+            int diameter = transDim(radiusIn[i] * 2d, Math.max(xRel % 1, yRel % 1));
+            int xi = iround(xRel);
+            int yi = iround(yRel);
+            if (fillColor != null) {
+                setColor(fillColor);
+                graphics.fillOval(xi, yi, diameter, diameter);
+            }
+            if (lineColor != null) {
+                setColor(lineColor);
+                graphics.drawOval(xi, yi, diameter, diameter);
+            }
+        }
+    }
+
+    @Override
+    public void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int count) {
+        setStroke(ctx);
+        setColor(fromGridColor(ctx.getColor()));
+        for (int i = 0; i < count; i++) {
+            graphics.drawLine(iround(transX(x0[i])), iround(transY(y0[i])), iround(transX(x1[i])), iround(transY(y1[i])));
+        }
+    }
+
+    @Override
+    public void drawStrings(DrawingContext ctx, double[] leftXIn, double[] bottomYIn, double rotationAnticlockWise, String[] text, int count) {
+        setStrokeAndFont(ctx);
+        int descent = graphics.getFontMetrics(graphics.getFont()).getDescent();
+        AffineTransform oldTransform = graphics.getTransform();
+        for (int i = 0; i < count; i++) {
+            AffineTransform newTr = new AffineTransform(oldTransform);
+            newTr.translate(iround(transX(leftXIn[i])), iround(transY(bottomYIn[i])) - descent);
+            newTr.rotate(-rotationAnticlockWise);
+            graphics.setTransform(newTr);
+            graphics.drawString(text[i], 0, 0);
+        }
+        graphics.setTransform(oldTransform);
+    }
+
     @Override
     public double getWidth() {
         return getWidthAwt() / AWT_POINTS_IN_INCH;
@@ -282,7 +353,10 @@ public class Graphics2DDevice implements GridDevice {
     }
 
     private void setColor(GridColor color) {
-        Color awtColor = fromGridColor(color);
+        setColor(fromGridColor(color));
+    }
+
+    private void setColor(Color awtColor) {
         Paint paint = graphics.getPaint();
         // Note: setting different color intance (even if equal to the original) causes graphical
         // pipeline invalidation in Graphics2D implementation
@@ -291,6 +365,24 @@ public class Graphics2DDevice implements GridDevice {
         }
     }
 
+    /**
+     * Returns the color that shapes drawn with given context should be filled with or {@code null}
+     * if they should not be filled.
+     */
+    private static Color getFillColor(DrawingContext ctx) {
+        GridColor fillColor = ctx.getFillColor();
+        return fillColor.equals(GridColor.TRANSPARENT) ? null : fromGridColor(fillColor);
+    }
+
+    /**
+     * Returns the color of the outline of shapes drawn with given context or {@code null} if the
+     * outline should not be drawn.
+     */
+    private static Color getLineColor(DrawingContext ctx) {
+        GridColor fillColor = ctx.getFillColor();
+        return fillColor.equals(ctx.getColor()) ? null : fromGridColor(ctx.getColor());
+    }
+
     private void setStroke(DrawingContext ctx) {
         if (graphicsIsExclusive && cachedContext == ctx) {
             return;
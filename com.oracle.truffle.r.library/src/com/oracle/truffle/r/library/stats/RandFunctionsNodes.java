@@ -35,6 +35,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
 import com.oracle.truffle.r.library.stats.RandFunctionsNodesFactory.ConvertToLengthNodeGen;
 import com.oracle.truffle.r.library.stats.RandFunctionsNodesFactory.RandFunction1NodeGen;
@@ -59,6 +60,7 @@ import com.oracle.truffle.r.runtime.data.nodes.VectorAccess.SequentialIterator;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunction1_Double;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunction2_Double;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunction3_DoubleBase;
+import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunctionBulk;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandomNumberProvider;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 import com.oracle.truffle.r.runtime.nodes.RBaseNodeWithWarnings;
@@ -68,6 +70,8 @@ import com.oracle.truffle.r.runtime.rng.RRNG;
  * Contains infrastructure for R external functions implementing generation of a random value from
  * given random value distribution. To implement such external function, implement one of:
  * {@link RandFunction3_DoubleBase}, {@link RandFunction2_Double} or {@link RandFunction1_Double}.
+ * Functions that also implement {@link RandFunctionBulk} generate the whole result at once when all
+ * the parameters are scalars.
  */
 public final class RandFunctionsNodes {
     private static final RDouble DUMMY_VECTOR = RDouble.valueOf(1);
@@ -239,6 +243,8 @@ public final class RandFunctionsNodes {
 
     protected abstract static class RandFunctionDoubleExecutorNode extends RandFunctionIterator {
 
+        private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
+
         protected RandFunctionDoubleExecutorNode(Supplier<? extends RandFunction3_DoubleBase> functionFactory) {
             super(functionFactory);
         }
@@ -258,6 +264,14 @@ public final class RandFunctionsNodes {
                     return RDataFactory.createDoubleVector(nansResult, false);
                 }
 
+                if (function instanceof RandFunctionBulk && aAccess.getLength(aIter) == 1 && bAccess.getLength(bIter) == 1 && cAccess.getLength(cIter) == 1) {
+                    double[] result = new double[length];
+                    if (bulkProfile.profile(((RandFunctionBulk) function).executeBulk(a.getDataAt(0), b.getDataAt(0), c.getDataAt(0), result, randProvider))) {
+                        putRNGState();
+                        return RDataFactory.createDoubleVector(result, RDataFactory.COMPLETE_VECTOR);
+                    }
+                }
+
                 boolean nans = false;
                 double[] result = new double[length];
                 loopConditionProfile.profileCounted(length);
@@ -74,6 +74,8 @@ public final class StatsFunctionsNodes {
         final ConditionProfile copyAttrsFromB = ConditionProfile.createBinaryProfile();
         final ConditionProfile copyAttrsFromC = ConditionProfile.createBinaryProfile();
         final ConditionProfile copyAttrsFromD = ConditionProfile.createBinaryProfile();
+        final ConditionProfile scalarParameters = ConditionProfile.createBinaryProfile();
+        final ConditionProfile validParameters = ConditionProfile.createBinaryProfile();
         final VectorLengthProfile resultVectorLengthProfile = VectorLengthProfile.create();
         final LoopConditionProfile loopConditionProfile = LoopConditionProfile.createCountingProfile();
 
@@ -102,28 +104,58 @@ public final class StatsFunctionsNodes {
         profiles.cCheck.enable(c);
         profiles.dCheck.enable(d);
         profiles.loopConditionProfile.profileCounted(length);
-        for (int i = 0; profiles.loopConditionProfile.inject(i < length); i++) {
-            double aValue = a.getDataAt(i % aLength);
-            double bValue = b.getDataAt(i % bLength);
-            double cValue = c.getDataAt(i % cLength);
-            double dValue = d.getDataAt(i % dLength);
-            double value;
-            if (Double.isNaN(aValue) || Double.isNaN(bValue) || Double.isNaN(cValue) || Double.isNaN(dValue)) {
-                profiles.nan.enter();
-                if (profiles.aCheck.check(aValue) || profiles.bCheck.check(bValue) || profiles.cCheck.check(cValue) || profiles.cCheck.check(dValue)) {
-                    value = RRuntime.DOUBLE_NA;
-                    complete = false;
+        if (profiles.scalarParameters.profile(bLength == 1 && cLength == 1 && dLength == 1 && !Double.isNaN(b.getDataAt(0)) && !Double.isNaN(c.getDataAt(0)) && !Double.isNaN(d.getDataAt(0)))) {
+            // the common case of a vector of quantiles/probabilities and scalar distribution
+            // parameters: the parameters are read and checked once, the loop has no recycling
+            double bValue = b.getDataAt(0);
+            double cValue = c.getDataAt(0);
+            double dValue = d.getDataAt(0);
+            boolean valid = profiles.validParameters.profile(function.validParameters(bValue, cValue, dValue, x, y));
+            for (int i = 0; profiles.loopConditionProfile.inject(i < length); i++) {
+                double aValue = a.getDataAt(i);
+                double value;
+                if (Double.isNaN(aValue)) {
+                    profiles.nan.enter();
+                    if (profiles.aCheck.check(aValue)) {
+                        value = RRuntime.DOUBLE_NA;
+                        complete = false;
+                    } else {
+                        value = Double.NaN;
+                    }
                 } else {
-                    value = Double.NaN;
+                    // the function validates the parameters itself unless they were found valid
+                    value = valid ? function.evaluateValid(aValue, bValue, cValue, dValue, x, y) : function.evaluate(aValue, bValue, cValue, dValue, x, y);
+                    if (Double.isNaN(value)) {
+                        profiles.nan.enter();
+                        nans = true;
+                    }
                 }
-            } else {
-                value = function.evaluate(aValue, bValue, cValue, dValue, x, y);
-                if (Double.isNaN(value)) {
+                result[i] = value;
+            }
+        } else {
+            for (int i = 0; profiles.loopConditionProfile.inject(i < length); i++) {
+                double aValue = a.getDataAt(i % aLength);
+                double bValue = b.getDataAt(i % bLength);
+                double cValue = c.getDataAt(i % cLength);
+                double dValue = d.getDataAt(i % dLength);
+                double value;
+                if (Double.isNaN(aValue) || Double.isNaN(bValue) || Double.isNaN(cValue) || Double.isNaN(dValue)) {
                     profiles.nan.enter();
-                    nans = true;
+                    if (profiles.aCheck.check(aValue) || profiles.bCheck.check(bValue) || profiles.cCheck.check(cValue) || profiles.dCheck.check(dValue)) {
+                        value = RRuntime.DOUBLE_NA;
+                        complete = false;
+                    } else {
+                        value = Double.NaN;
+                    }
+                } else {
+                    value = function.evaluate(aValue, bValue, cValue, dValue, x, y);
+                    if (Double.isNaN(value)) {
+                        profiles.nan.enter();
+                        nans = true;
+                    }
                 }
+                result[i] = value;
             }
-            result[i] = value;
         }
         if (nans) {
             RError.warning(RError.SHOW_CALLER, RError.Message.NAN_PRODUCED);
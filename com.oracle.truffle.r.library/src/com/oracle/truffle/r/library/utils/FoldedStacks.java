@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.utils;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates {@code Rprof} samples into the "folded stacks" format understood by flame graph
+ * tools: one line per distinct stack with the frames separated by {@code ;} from the outermost
+ * function, followed by a space and the number of samples. Samples that were not spent executing R
+ * code end with the frame of their {@link ProfileTicks.Kind}.
+ */
+public final class FoldedStacks {
+
+    static final String TOPLEVEL = "<toplevel>";
+
+    private final Map<String, long[]> stacks = new LinkedHashMap<>();
+
+    /**
+     * @param functions names of the functions on the stack, the innermost first.
+     */
+    public void add(List<String> functions, ProfileTicks.Kind kind, long count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = functions.size() - 1; i >= 0; i--) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            // ';' and ' ' separate frames and counts in the folded format
+            sb.append(functions.get(i).replace(';', ':').replace(' ', '_'));
+        }
+        if (sb.length() == 0) {
+            sb.append(TOPLEVEL);
+        }
+        if (kind.getFrame() != null) {
+            sb.append(';').append(kind.getFrame());
+        }
+        stacks.computeIfAbsent(sb.toString(), k -> new long[1])[0] += count;
+    }
+
+    public void write(PrintStream out) {
+        for (Map.Entry<String, long[]> entry : stacks.entrySet()) {
+            out.printf("%s %d\n", entry.getKey(), entry.getValue()[0]);
+        }
+    }
+}
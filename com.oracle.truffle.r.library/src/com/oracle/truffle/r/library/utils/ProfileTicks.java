@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.utils;
+
+/**
+ * The timer of {@code Rprof}: decides how many samples are due at each wake-up of the timer thread
+ * and what the profiled thread was doing meanwhile.
+ *
+ * If the CPU time of the profiled thread is available, a tick elapses with each interval of its
+ * CPU time, like with the profiling timer of GNU R, otherwise with each interval of the wall clock.
+ * Ticks that were missed because the timer thread itself did not get to run are dropped rather than
+ * made up for at once, so that a long pause does not produce a burst of samples of whatever stack
+ * happens to be active afterwards.
+ */
+public final class ProfileTicks {
+
+    /**
+     * What the profiled thread was doing when a tick of the timer elapsed.
+     */
+    public enum Kind {
+        R(null),
+        NATIVE("[native]"),
+        GC("[gc]");
+
+        private final String frame;
+
+        Kind(String frame) {
+            this.frame = frame;
+        }
+
+        /**
+         * The leaf frame that marks the samples of this kind in the folded output, {@code null} for
+         * R code.
+         */
+        public String getFrame() {
+            return frame;
+        }
+    }
+
+    private final long intervalInNanos;
+    private long nextWakeup;
+    private long cpuTime;
+    private long gcTime;
+    private long unsampledCPUTime;
+    private boolean gcAdvanced;
+
+    /**
+     * @param cpuTime CPU time of the profiled thread or a negative value if it is not available.
+     */
+    public ProfileTicks(long intervalInNanos, long now, long cpuTime, long gcTime) {
+        this.intervalInNanos = intervalInNanos;
+        this.nextWakeup = now + intervalInNanos;
+        this.cpuTime = cpuTime;
+        this.gcTime = gcTime;
+    }
+
+    public long getNextWakeup() {
+        return nextWakeup;
+    }
+
+    /**
+     * Called at each wake-up of the timer thread at or after {@link #getNextWakeup()}, returns the
+     * number of ticks that elapsed since the previous wake-up, which is at most one.
+     */
+    public int advance(long now, long newCPUTime, long newGCTime) {
+        nextWakeup += intervalInNanos;
+        if (nextWakeup <= now) {
+            nextWakeup = now + intervalInNanos;
+        }
+        gcAdvanced = newGCTime != gcTime;
+        gcTime = newGCTime;
+        if (newCPUTime < 0) {
+            return 1;
+        }
+        unsampledCPUTime += newCPUTime - cpuTime;
+        cpuTime = newCPUTime;
+        if (gcAdvanced) {
+            // the profiled thread does not use CPU while it is stopped for GC
+            return 1;
+        }
+        if (unsampledCPUTime < intervalInNanos) {
+            return 0;
+        }
+        unsampledCPUTime = (unsampledCPUTime - intervalInNanos) % intervalInNanos;
+        return 1;
+    }
+
+    /**
+     * Classifies the ticks returned by the last {@link #advance(long, long, long)}.
+     *
+     * @param nativeCallDepth the number of active RFFI down-calls of the profiled thread.
+     */
+    public Kind getKind(int nativeCallDepth) {
+        if (gcAdvanced) {
+            return Kind.GC;
+        } else if (nativeCallDepth > 0) {
+            return Kind.NATIVE;
+        } else {
+            return Kind.R;
+        }
+    }
+}
@@ -27,10 +27,17 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElemen
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -40,6 +47,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
 import com.oracle.truffle.api.instrumentation.EventContext;
 import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
 import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
@@ -64,10 +72,10 @@ import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RObjectSize;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ffi.RFFIContext;
 import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
-import java.nio.file.StandardOpenOption;
 
 /**
  * Implements the {@code Rprof} external.
@@ -82,11 +90,32 @@ import java.nio.file.StandardOpenOption;
  * </pre>
  *
  * and then the {@code N} is used in line number references of the form {@code N#L},which precede
- * the function name.
+ * the function name. If GC profiling is enabled, samples taken while the JVM was collecting garbage
+ * start with {@code "<GC>"}.
+ *
+ * If the file name ends with {@value #FOLDED_SUFFIX}, the samples are instead aggregated by
+ * {@link FoldedStacks} into the "folded stacks" format understood by flame graph tools. The pprof
+ * format is not supported, it would need a protobuf encoder that FastR does not have.
  *
+ * The timer runs in a separate thread, see {@link ProfileTicks}. The R stack can only be walked by
+ * the thread that executes R code and this version of Truffle offers no way to interrupt it at a
+ * safepoint, so the stack is collected at the next entry to or exit from an R function, weighted by
+ * the number of ticks since the previous sample. Only function entries and exits are instrumented,
+ * not statements, so the overhead is proportional to the number of R function calls. The ticks that
+ * elapse until a function is entered are attributed to its caller and those until it returns to the
+ * function itself, time spent in builtins is attributed to the R function that called them. With
+ * line profiling, the line of the innermost function is the line of the call it is making or, when
+ * it returns, the line where it starts.
  */
 public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryCopyTracer.Listener {
 
+    static final String FOLDED_SUFFIX = ".folded";
+
+    /**
+     * Intervals below this would make the timer thread compete with the profiled code.
+     */
+    private static final long MIN_INTERVAL_NANOS = 100_000;
+
     static {
         Casts casts = new Casts(Rprof.class);
         casts.arg(0, "filename").mustBe(stringValue()).asStringVector().mustBe(singleElement()).findFirst();
@@ -117,22 +146,21 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 endProfiling();
             }
             try {
+                RContext context = ctxRef.get();
                 PrintStream out = new PrintStream(
-                                ctxRef.get().getSafeTruffleFile(filename).newOutputStream(append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING));
-                if (gcProfiling) {
-                    warning(RError.Message.GENERIC, "Rprof: gc profiling not supported");
-                }
+                                new BufferedOutputStream(context.getSafeTruffleFile(filename).newOutputStream(append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)));
                 if (memProfiling) {
                     RDataFactory.addListener(LISTENER);
                     MemoryCopyTracer.addListener(this);
-                    MemoryCopyTracer.setTracingState(true);
+                    MemoryCopyTracer.setTracingState(profState, true);
                 }
-                // interval is in seconds, we convert to millis
-                long intervalInMillis = (long) (1E3 * intervalD);
-                StatementListener statementListener = new StatementListener();
-                ProfileThread profileThread = new ProfileThread(intervalInMillis, statementListener);
+                // interval is in seconds, we convert to nanos
+                long intervalInNanos = Math.max(MIN_INTERVAL_NANOS, (long) (1E9 * intervalD));
+                SampleListener sampleListener = new SampleListener();
+                ProfileThread profileThread = new ProfileThread(intervalInNanos, sampleListener, context.getStateRFFI(), Thread.currentThread().getId());
                 profileThread.setDaemon(true);
-                profState.initialize(out, profileThread, statementListener, intervalInMillis, lineProfiling, memProfiling);
+                profState.initialize(out, profileThread, sampleListener, intervalInNanos, lineProfiling, memProfiling, gcProfiling, filename.endsWith(FOLDED_SUFFIX));
+                sampleListener.attach();
                 profileThread.start();
             } catch (IOException ex) {
                 throw error(RError.Message.GENERIC, String.format("Rprof: cannot open profile file '%s'", filename));
@@ -181,68 +209,133 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
         return RSource.getPath(source);
     }
 
+    private static final ProfileTicks.Kind[] TICK_KINDS = ProfileTicks.Kind.values();
+
     private static final class ProfileThread extends Thread {
-        private final long interval;
-        private final StatementListener statementListener;
+        private final long intervalInNanos;
+        private final SampleListener sampleListener;
+        private final RFFIContext stateRFFI;
+        private final long profiledThreadId;
+        private final ThreadMXBean threadBean;
         private volatile boolean running = true;
 
-        private ProfileThread(long interval, StatementListener statementListener) {
-            this.interval = interval;
-            this.statementListener = statementListener;
+        private ProfileThread(long intervalInNanos, SampleListener sampleListener, RFFIContext stateRFFI, long profiledThreadId) {
+            super("Rprof");
+            this.intervalInNanos = intervalInNanos;
+            this.sampleListener = sampleListener;
+            this.stateRFFI = stateRFFI;
+            this.profiledThreadId = profiledThreadId;
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            this.threadBean = bean.isThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled() ? bean : null;
         }
 
         @Override
         public void run() {
+            ProfileTicks ticks = new ProfileTicks(intervalInNanos, System.nanoTime(), getCPUTime(), getGCTime());
             while (running) {
-                try {
-                    Thread.sleep(interval);
-                    statementListener.intervalElapsed();
-                } catch (InterruptedException ex) {
-
+                long now = System.nanoTime();
+                if (now < ticks.getNextWakeup()) {
+                    LockSupport.parkNanos(ticks.getNextWakeup() - now);
+                    continue;
+                }
+                int count = ticks.advance(now, getCPUTime(), getGCTime());
+                if (count > 0) {
+                    sampleListener.tick(ticks.getKind(stateRFFI.getCallDepth()), count);
                 }
             }
         }
+
+        /**
+         * CPU time of the profiled thread or {@code -1} if it is not available, in which case the
+         * ticks are driven by the wall clock.
+         */
+        private long getCPUTime() {
+            return threadBean == null ? -1 : threadBean.getThreadCpuTime(profiledThreadId);
+        }
+
+        private void stopProfiling() {
+            running = false;
+            LockSupport.unpark(this);
+        }
+
+        private static long getGCTime() {
+            long result = 0;
+            for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                result += Math.max(0, gcBean.getCollectionTime());
+            }
+            return result;
+        }
     }
 
     /**
-     * Emulates a sampling timer by checking when the sample interval rolls over and at that point
-     * collects the stack of functions.
+     * Collects the stack of functions at the first entry to or exit from an R function after a tick
+     * of the timer.
      */
-    private final class StatementListener implements ExecutionEventListener {
-        private final ArrayList<ArrayList<RSyntaxElement>> intervalStacks = new ArrayList<>();
-        private final ArrayList<RprofState.MemoryQuad> intervalMemory = new ArrayList<>();
-        private volatile boolean newInterval;
+    private final class SampleListener implements ExecutionEventListener {
+        private final int[] pendingTicks = new int[TICK_KINDS.length];
+        private volatile boolean pending;
+        private EventBinding<SampleListener> binding;
 
-        private StatementListener() {
+        private void attach() {
             SourceSectionFilter.Builder builder = SourceSectionFilter.newBuilder();
-            builder.tagIs(StandardTags.StatementTag.class);
+            builder.tagIs(StandardTags.RootTag.class);
             SourceSectionFilter filter = builder.build();
-            RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
+            binding = RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
+        }
+
+        private void detach() {
+            if (binding != null) {
+                binding.dispose();
+                binding = null;
+            }
         }
 
-        private void intervalElapsed() {
-            newInterval = true;
+        private synchronized void tick(ProfileTicks.Kind kind, int count) {
+            pendingTicks[kind.ordinal()] += count;
+            pending = true;
+        }
+
+        private synchronized int[] takeTicks() {
+            int[] result = pendingTicks.clone();
+            Arrays.fill(pendingTicks, 0);
+            pending = false;
+            return result;
         }
 
         @Override
         public void onEnter(EventContext context, VirtualFrame frame) {
-            if (newInterval) {
-                onEnter(context);
-                newInterval = false;
+            if (pending) {
+                // the ticks elapsed in the caller
+                sample(null);
+            }
+        }
+
+        @Override
+        public void onReturnValue(EventContext context, VirtualFrame frame, Object result) {
+            if (pending) {
+                sample(context);
+            }
+        }
+
+        @Override
+        public void onReturnExceptional(EventContext context, VirtualFrame frame, Throwable exception) {
+            if (pending) {
+                sample(context);
             }
         }
 
         @TruffleBoundary
-        private void onEnter(EventContext context) {
-            /* context tells here we are now, frame provides callers. */
+        private void sample(EventContext returning) {
             ArrayList<RSyntaxElement> stack = new ArrayList<>();
-            stack.add((RSyntaxElement) context.getInstrumentedNode());
+            if (returning != null) {
+                RootNode rootNode = returning.getInstrumentedNode().getRootNode();
+                if (rootNode instanceof FunctionDefinitionNode) {
+                    stack.add((FunctionDefinitionNode) rootNode);
+                }
+            }
             collectStack(stack);
-            intervalStacks.add(stack);
             RprofState profState = RprofState.get();
-            if (profState.memoryProfiling) {
-                intervalMemory.add(profState.memoryQuad.copyAndClear());
-            }
+            profState.writeSample(stack, takeTicks());
         }
 
         @TruffleBoundary
@@ -260,14 +353,6 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 }
             });
         }
-
-        @Override
-        public void onReturnValue(EventContext context, VirtualFrame frame, Object result) {
-        }
-
-        @Override
-        public void onReturnExceptional(EventContext context, VirtualFrame frame, Throwable exception) {
-        }
     }
 
     /**
@@ -276,11 +361,15 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
      */
     private static final class RprofState extends InstrumentationState.RprofState {
         private ProfileThread profileThread;
-        private StatementListener statementListener;
-        private long intervalInMillis;
+        private SampleListener sampleListener;
+        private long intervalInNanos;
         private boolean lineProfiling;
         private boolean memoryProfiling;
+        private boolean gcProfiling;
+        private boolean folded;
         private MemoryQuad memoryQuad;
+        private HashMap<String, Integer> fileMap;
+        private FoldedStacks foldedStacks;
 
         public static final class MemoryQuad {
             public long smallV;
@@ -311,70 +400,117 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             return state;
         }
 
-        public void initialize(PrintStream outA, ProfileThread profileThreadA, StatementListener statementListenerA, long intervalInMillisA,
-                        boolean lineProfilingA, boolean memoryProfilingA) {
+        public void initialize(PrintStream outA, ProfileThread profileThreadA, SampleListener sampleListenerA, long intervalInNanosA,
+                        boolean lineProfilingA, boolean memoryProfilingA, boolean gcProfilingA, boolean foldedA) {
             setOut(outA);
             this.profileThread = profileThreadA;
-            this.statementListener = statementListenerA;
-            this.intervalInMillis = intervalInMillisA;
+            this.sampleListener = sampleListenerA;
+            this.intervalInNanos = intervalInNanosA;
             this.lineProfiling = lineProfilingA;
             this.memoryProfiling = memoryProfilingA;
+            this.gcProfiling = gcProfilingA;
+            this.folded = foldedA;
             this.memoryQuad = memoryProfilingA ? new MemoryQuad() : null;
+            this.fileMap = lineProfilingA ? new HashMap<>() : null;
+            this.foldedStacks = foldedA ? new FoldedStacks() : null;
+            if (!folded) {
+                if (this.memoryProfiling) {
+                    outA.print("memory profiling: ");
+                }
+                if (this.gcProfiling) {
+                    outA.print("GC profiling: ");
+                }
+                if (this.lineProfiling) {
+                    outA.print("line profiling: ");
+                }
+                outA.printf("sample.interval=%d\n", this.intervalInNanos / 1000);
+            }
         }
 
-        @Override
-        public void cleanup(int status) {
-            profileThread.running = false;
-            HashMap<String, Integer> fileMap = null;
+        /**
+         * Records one stack, weighted by the ticks of each kind that elapsed since the previous
+         * sample. Samples are written as they are taken, so that a long running session does not
+         * keep them in memory.
+         */
+        private void writeSample(ArrayList<RSyntaxElement> stack, int[] ticks) {
             PrintStream out = this.out();
-            if (this.memoryProfiling) {
-                out.print("memory profiling: ");
-            }
-            if (this.lineProfiling) {
-                out.print("line profiling: ");
+            if (out == null) {
+                return;
             }
-            out.printf("sample.interval=%d\n", this.intervalInMillis * 1000);
-            if (this.lineProfiling) {
-                // scan stacks to find files
-                fileMap = new HashMap<>();
-                int fileIndex = 0;
-                for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                    for (RSyntaxElement node : intervalStack) {
-                        String path = getPath(node);
-                        if (path != null && fileMap.get(path) == null) {
-                            fileMap.put(path, ++fileIndex);
-                            out.printf("#File %d: %s\n", fileIndex, path);
-                        }
+            if (folded) {
+                ArrayList<String> functions = new ArrayList<>();
+                for (RSyntaxElement node : stack) {
+                    RootNode rootNode = getRootNode(node);
+                    if (rootNode instanceof FunctionDefinitionNode) {
+                        functions.add(rootNode.getName());
                     }
                 }
+                for (ProfileTicks.Kind kind : TICK_KINDS) {
+                    int count = ticks[kind.ordinal()];
+                    if (count > 0) {
+                        foldedStacks.add(functions, kind, count);
+                    }
+                }
+                return;
             }
-            int index = 0;
-            for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                if (this.memoryProfiling) {
-                    RprofState.MemoryQuad mq = statementListener.intervalMemory.get(index);
-                    out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
+            String line = rprofLine(out, stack);
+            MemoryQuad mq = this.memoryProfiling ? memoryQuad.copyAndClear() : null;
+            for (ProfileTicks.Kind kind : TICK_KINDS) {
+                for (int i = 0; i < ticks[kind.ordinal()]; i++) {
+                    if (mq != null) {
+                        out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
+                        mq = new MemoryQuad();
+                    }
+                    if (kind == ProfileTicks.Kind.GC && this.gcProfiling) {
+                        out.print("\"<GC>\" ");
+                    }
+                    out.println(line);
                 }
-                for (RSyntaxElement node : intervalStack) {
-                    RootNode rootNode = ((RSyntaxNode) node).asRNode().getRootNode();
-                    if (rootNode instanceof FunctionDefinitionNode) {
-                        String name = rootNode.getName();
-                        if (this.lineProfiling) {
-                            Integer fileIndex = fileMap.get(getPath(node));
-                            if (fileIndex != null) {
-                                out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
+            }
+        }
+
+        private String rprofLine(PrintStream out, ArrayList<RSyntaxElement> stack) {
+            StringBuilder sb = new StringBuilder();
+            for (RSyntaxElement node : stack) {
+                RootNode rootNode = getRootNode(node);
+                if (rootNode instanceof FunctionDefinitionNode) {
+                    String name = rootNode.getName();
+                    if (this.lineProfiling) {
+                        String path = getPath(node);
+                        if (path != null) {
+                            Integer fileIndex = fileMap.get(path);
+                            if (fileIndex == null) {
+                                fileIndex = fileMap.size() + 1;
+                                fileMap.put(path, fileIndex);
+                                out.printf("#File %d: %s\n", fileIndex, path);
                             }
+                            sb.append(fileIndex).append('#').append(node.getSourceSection().getStartLine()).append(' ');
                         }
-                        out.printf("\"%s\" ", name);
                     }
+                    sb.append('"').append(name).append("\" ");
                 }
-                out.println();
-                index++;
+            }
+            return sb.toString();
+        }
+
+        private static RootNode getRootNode(RSyntaxElement node) {
+            return node instanceof RootNode ? (RootNode) node : ((RSyntaxNode) node).asRNode().getRootNode();
+        }
+
+        @Override
+        public void cleanup(int status) {
+            profileThread.stopProfiling();
+            sampleListener.detach();
+            PrintStream out = this.out();
+            if (folded) {
+                foldedStacks.write(out);
+                foldedStacks = null;
             }
             out.close();
             this.setOut(null);
             if (this.memoryProfiling) {
                 RDataFactory.removeListener(LISTENER);
-                MemoryCopyTracer.setTracingState(false);
+                MemoryCopyTracer.setTracingState(this, false);
             }
         }
     }
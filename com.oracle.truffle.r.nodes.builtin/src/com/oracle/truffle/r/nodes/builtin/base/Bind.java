@@ -626,6 +626,12 @@ public abstract class Bind extends RBaseNodeWithWarnings {
         protected Object bind(VirtualFrame frame, int deparseLevel, RArgsValuesAndNames args) {
             RFunction dispatchFunction = createDispatchFunction(frame, args.getArguments(), deparseLevel);
             if (hasDispatchFunction.profile(dispatchFunction != null)) {
+                if (type == BindType.rbind && args.getSignature().getNonNullCount() == 0 && isBaseRbindDataFrame(dispatchFunction)) {
+                    RList result = BindDataFrames.rbind(args.getArguments());
+                    if (result != null) {
+                        return result;
+                    }
+                }
                 if (dispatchCallNode == null) {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
                     dispatchCallNode = insert(RExplicitCallNode.create());
@@ -645,6 +651,11 @@ public abstract class Bind extends RBaseNodeWithWarnings {
             }
         }
 
+        @TruffleBoundary
+        private static boolean isBaseRbindDataFrame(RFunction function) {
+            return REnvironment.baseNamespaceEnv().get("rbind.data.frame") == function;
+        }
+
         protected int precedence(Object[] args) {
             int precedence = -1;
             if (precedenceNode == null) {
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Columnar fast path for {@code rbind} of many plain data frames, typically
+ * {@code do.call(rbind, records)}. The R level {@code rbind.data.frame} grows the result one
+ * argument at a time, which makes binding a long list of small data frames very slow. When all the
+ * arguments are data frames with the same column names and the same column types, automatic row
+ * names and no other attributes, the result is simply the concatenation of the columns. In that
+ * case the first pass checks the arguments and sums up the row counts and the second pass fills one
+ * preallocated vector per column. Anything else, e.g., factors, list columns, named arguments or
+ * differing column types, is left to {@code rbind.data.frame}.
+ */
+final class BindDataFrames {
+
+    private BindDataFrames() {
+        // no instances
+    }
+
+    /**
+     * Returns the bound data frame or {@code null} if the fast path does not apply to the given
+     * arguments.
+     */
+    @TruffleBoundary
+    static RList rbind(Object[] args) {
+        if (args.length < 2) {
+            return null;
+        }
+        // first pass: validate the arguments and compute the result size
+        RAbstractListVector first = asPlainDataFrame(args[0]);
+        if (first == null) {
+            return null;
+        }
+        RStringVector names = first.getNames();
+        int columns = first.getLength();
+        if (names == null || columns == 0) {
+            return null;
+        }
+        RType[] types = new RType[columns];
+        for (int col = 0; col < columns; col++) {
+            types[col] = columnType(first.getDataAt(col));
+            if (types[col] == null) {
+                return null;
+            }
+        }
+        long totalRows = 0;
+        boolean complete = true;
+        for (Object arg : args) {
+            RAbstractListVector df = asPlainDataFrame(arg);
+            if (df == null || df.getLength() != columns || !sameNames(names, df.getNames())) {
+                return null;
+            }
+            int rows = ((RAbstractVector) df.getDataAt(0)).getLength();
+            for (int col = 0; col < columns; col++) {
+                Object column = df.getDataAt(col);
+                if (columnType(column) != types[col] || ((RAbstractVector) column).getLength() != rows) {
+                    return null;
+                }
+                complete &= ((RAbstractVector) column).isComplete();
+            }
+            if (!hasAutomaticRowNames(df, rows)) {
+                return null;
+            }
+            totalRows += rows;
+        }
+        if (totalRows > Integer.MAX_VALUE) {
+            return null;
+        }
+        int resultRows = (int) totalRows;
+
+        // second pass: fill the preallocated columns
+        Object[] resultColumns = new Object[columns];
+        for (int col = 0; col < columns; col++) {
+            RAbstractVector target = ((RAbstractVector) first.getDataAt(col)).createEmptySameType(resultRows, complete);
+            int index = 0;
+            for (Object arg : args) {
+                RAbstractVector column = (RAbstractVector) ((RAbstractListVector) arg).getDataAt(col);
+                int length = column.getLength();
+                for (int i = 0; i < length; i++) {
+                    target.transferElementSameType(index++, column, i);
+                }
+            }
+            resultColumns[col] = target;
+        }
+        RList result = RDataFactory.createList(resultColumns, (RStringVector) names.copy());
+        result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+        result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, -resultRows}, false));
+        return result;
+    }
+
+    /**
+     * Returns {@code value} as a list if it has exactly the class {@code data.frame} and no other
+     * attributes than names, class and row names.
+     */
+    private static RAbstractListVector asPlainDataFrame(Object value) {
+        if (!(value instanceof RAbstractListVector)) {
+            return null;
+        }
+        RAbstractListVector list = (RAbstractListVector) value;
+        DynamicObject attributes = list.getAttributes();
+        if (attributes == null || attributes.getShape().getPropertyCount() != 3) {
+            return null;
+        }
+        RStringVector clazz = list.getClassAttr();
+        if (clazz == null || clazz.getLength() != 1 || !RRuntime.CLASS_DATA_FRAME.equals(clazz.getDataAt(0))) {
+            return null;
+        }
+        return list.getNames() != null && list.getLength() > 0 ? list : null;
+    }
+
+    /**
+     * Only attribute free atomic columns are supported, the others, e.g., factors or dates, need
+     * the {@code rbind} method of their class.
+     */
+    private static RType columnType(Object column) {
+        if (!(column instanceof RAbstractVector) || column instanceof RAbstractListVector || ((RAbstractVector) column).getAttributes() != null) {
+            return null;
+        }
+        RType type = ((RAbstractVector) column).getRType();
+        switch (type) {
+            case Logical:
+            case Integer:
+            case Double:
+            case Complex:
+            case Character:
+            case Raw:
+                return type;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean sameNames(RStringVector expected, RStringVector names) {
+        if (names == expected) {
+            return true;
+        }
+        if (names == null || names.getLength() != expected.getLength()) {
+            return false;
+        }
+        for (int i = 0; i < expected.getLength(); i++) {
+            if (!expected.getDataAt(i).equals(names.getDataAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Automatic row names are stored in the compact form {@code c(NA, -n)}, data frames without
+     * rows may also have an empty integer vector.
+     */
+    private static boolean hasAutomaticRowNames(RAbstractListVector df, int rows) {
+        Object rowNames = df.getAttr(RRuntime.ROWNAMES_ATTR_KEY);
+        if (!(rowNames instanceof RAbstractIntVector)) {
+            return false;
+        }
+        RAbstractIntVector rn = (RAbstractIntVector) rowNames;
+        if (rn.getLength() == 0) {
+            return rows == 0;
+        }
+        return rn.getLength() == 2 && RRuntime.isNA(rn.getDataAt(0)) && rn.getDataAt(1) == -rows;
+    }
+}
@@ -27,6 +27,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
 import java.io.IOException;
+import java.io.Writer;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -52,12 +53,40 @@ public abstract class DPut extends RBuiltinNode.Arg3 {
     @Specialization
     @TruffleBoundary
     protected Object dput(Object x, int file, int opts) {
-        String string = RDeparse.deparse(x, RDeparse.DEFAULT_CUTOFF, true, opts, -1);
         try (RConnection openConn = RConnection.fromIndex(file).forceOpen("wt")) {
-            openConn.writeString(string, true);
+            // large objects are written as they are deparsed, see RDeparse#deparse(..., Writer)
+            RDeparse.deparse(x, RDeparse.DEFAULT_CUTOFF, true, opts, -1, new ConnectionWriter(openConn));
+            openConn.writeString("", true);
         } catch (IOException ex) {
             throw error(RError.Message.GENERIC, ex.getMessage());
         }
         return x;
     }
+
+    private static final class ConnectionWriter extends Writer {
+
+        private final RConnection conn;
+
+        ConnectionWriter(RConnection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            conn.writeString(str.substring(off, off + len), false);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            conn.writeString(new String(cbuf, off, len), false);
+        }
+
+        @Override
+        public void flush() throws IOException {
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
 }
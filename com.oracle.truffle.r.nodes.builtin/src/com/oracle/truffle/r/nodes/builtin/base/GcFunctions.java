@@ -28,6 +28,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import java.io.IOException;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -35,11 +36,14 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.conn.StdConnections;
 import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.GCTortureState;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 
@@ -72,6 +76,9 @@ public final class GcFunctions {
                 doRunGCProfile.enter();
                 doRunGC();
             }
+            if (verbose) {
+                printNativeMemory();
+            }
             // produce at-least similarly shaped data:
             double[] data = new double[14];
             Arrays.fill(data, RRuntime.DOUBLE_NA);
@@ -82,6 +89,22 @@ public final class GcFunctions {
         private static void doRunGC() {
             System.gc();
         }
+
+        /**
+         * The native memory held by vectors that were handed over to native code is not part of
+         * the Java heap, it is reported separately (see also {@code .fastr.nativememory}).
+         */
+        @TruffleBoundary
+        private static void printNativeMemory() {
+            double mb = 1024 * 1024;
+            String msg = String.format("%.1f Mbytes of native memory used by vectors (max %.1f Mbytes, next gc at %.1f Mbytes)",
+                            NativeDataAccess.getNativeMemoryInUse() / mb, NativeDataAccess.getNativeMemoryMaxUsed() / mb, NativeDataAccess.getNativeMemoryGCTrigger() / mb);
+            try {
+                StdConnections.getStderr().writeString(msg, true);
+            } catch (IOException e) {
+                throw new RInternalError(e, "error while printing gc info");
+            }
+        }
     }
 
     @RBuiltin(name = "gctorture", visibility = OFF, kind = INTERNAL, parameterNames = "on", behavior = PURE)
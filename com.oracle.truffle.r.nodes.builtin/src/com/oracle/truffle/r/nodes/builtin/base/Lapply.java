@@ -27,6 +27,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.Frame;
@@ -35,7 +36,9 @@ import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.LoopNode;
-import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.nodes.access.variables.ReadVariableNode;
@@ -61,6 +64,7 @@ import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RDataFactory.VectorFactory;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
+import com.oracle.truffle.r.runtime.env.frame.RFrameSlot;
 import com.oracle.truffle.r.runtime.nodes.InternalRSyntaxNodeChildren;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 import com.oracle.truffle.r.runtime.nodes.RNode;
@@ -71,9 +75,10 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
 
 /**
- * The {@code lapply} builtin. {@code lapply} is an important implicit iterator in R. This
- * implementation handles the general case, but there are opportunities for "specializations" that
- * rewrite simple uses directly down to, e.g. explicit loops using, for example, a {@link LoopNode}.
+ * The {@code lapply} builtin. {@code lapply} is an important implicit iterator in R. The
+ * iterations are executed by a {@link LoopNode}, so that long running calls can be compiled via
+ * OSR. The calls to {@code FUN} go through a cached {@link RCallNode}, which resolves the function
+ * and matches the arguments only once for each function seen at the call site.
  *
  * See the comment in {@link VApply} regarding "...".
  */
@@ -161,31 +166,43 @@ public abstract class Lapply extends RBuiltinNode.Arg2 {
             return FrameSlotChangeMonitor.findOrAddFrameSlot(frame.getFrameDescriptor(), VECTOR_NAME, FrameSlotKind.Object);
         }
 
+        protected static FrameSlot createStateSlot(Frame frame) {
+            return FrameSlotChangeMonitor.findOrAddFrameSlot(frame.getFrameDescriptor(), RFrameSlot.LapplyState, FrameSlotKind.Object);
+        }
+
         @Specialization
         protected Object[] cachedLApply(VirtualFrame frame, Object vector, RFunction function,
                         @Cached("createIndexSlot(frame)") FrameSlot indexSlot,
                         @Cached("createVectorSlot(frame)") FrameSlot vectorSlot,
+                        @Cached("createStateSlot(frame)") FrameSlot stateSlot,
                         @Cached("create()") RLengthNode lengthNode,
-                        @Cached("createCountingProfile()") LoopConditionProfile loop,
                         @Cached("createCallNode(vectorSlot, indexSlot)") RCallBaseNode firstCallNode,
-                        @Cached("createCallNode(vectorSlot, indexSlot)") RCallBaseNode callNode) {
+                        @Cached("createLoopNode(vectorSlot, indexSlot, stateSlot)") LoopNode loop) {
             // TODO: R switches to double if x.getLength() is greater than 2^31-1
             FrameSlotChangeMonitor.setObject(frame, vectorSlot, vector);
             int length = lengthNode.executeInteger(vector);
             Object[] result = new Object[length];
             if (length > 0) {
-                reportWork(this, length);
-                loop.profileCounted(length);
                 frame.setInt(indexSlot, 1);
                 result[0] = firstCallNode.execute(frame, function);
-                for (int i = 2; loop.inject(i <= length); i++) {
-                    frame.setInt(indexSlot, i);
-                    result[i - 1] = callNode.execute(frame, function);
+                if (length > 1) {
+                    // the remaining iterations run in a LoopNode, so that long running apply calls
+                    // get compiled via OSR
+                    FrameSlotChangeMonitor.setObject(frame, stateSlot, new LapplyState(function, result));
+                    try {
+                        loop.execute(frame);
+                    } finally {
+                        FrameSlotChangeMonitor.setObject(frame, stateSlot, null);
+                    }
                 }
             }
             return result;
         }
 
+        protected LoopNode createLoopNode(FrameSlot vectorSlot, FrameSlot indexSlot, FrameSlot stateSlot) {
+            return Truffle.getRuntime().createLoopNode(new LapplyRepeatingNode(createCallNode(vectorSlot, indexSlot), indexSlot, stateSlot));
+        }
+
         /**
          * Creates the {@link RCallNode} for this target and {@code varArgs}.
          */
@@ -200,6 +217,57 @@ public abstract class Lapply extends RBuiltinNode.Arg2 {
         }
     }
 
+    /**
+     * The state of one {@code lapply} iteration, the index is kept here rather than read back from
+     * the frame, because {@code FUN} may modify the variable {@code i} in its parent frame.
+     */
+    private static final class LapplyState {
+        private final RFunction function;
+        private final Object[] result;
+        private int index = 2;
+
+        LapplyState(RFunction function, Object[] result) {
+            this.function = function;
+            this.result = result;
+        }
+    }
+
+    private static final class LapplyRepeatingNode extends Node implements RepeatingNode {
+
+        private final ConditionProfile conditionProfile = ConditionProfile.createCountingProfile();
+        private final FrameSlot indexSlot;
+        private final FrameSlot stateSlot;
+
+        @Child private RCallBaseNode callNode;
+
+        LapplyRepeatingNode(RCallBaseNode callNode, FrameSlot indexSlot, FrameSlot stateSlot) {
+            this.callNode = callNode;
+            this.indexSlot = indexSlot;
+            this.stateSlot = stateSlot;
+            // pre-initialize the profile so that loop exits do not deoptimize
+            conditionProfile.profile(false);
+        }
+
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            LapplyState state;
+            try {
+                state = (LapplyState) FrameSlotChangeMonitor.getObject(stateSlot, frame);
+            } catch (FrameSlotTypeException e) {
+                CompilerDirectives.transferToInterpreter();
+                throw RInternalError.shouldNotReachHere("frame type mismatch in lapply");
+            }
+            int i = state.index;
+            if (conditionProfile.profile(i <= state.result.length)) {
+                frame.setInt(indexSlot, i);
+                state.result[i - 1] = callNode.execute(frame, state.function);
+                state.index = i + 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
     static SourceSection createCallSourceSection() {
         return CALL_SOURCE.createSection(0, CALL_SOURCE.getLength());
     }
@@ -161,6 +161,26 @@ public class LogFunctions {
             return logb(x, base, divNode, naBase);
         }
 
+        /**
+         * A temporary double vector (e.g. the result of {@code x * y}) is not referenced from
+         * anywhere else, so the result can be written into its data array, which also keeps all
+         * its attributes. Expressions like {@code log(x * y + 1)} then allocate only a single
+         * vector.
+         */
+        @Specialization(guards = "isReusableTemporary(vector)")
+        protected RDoubleVector logInPlace(RDoubleVector vector, double base,
+                        @Cached("create()") NACheck xNACheck,
+                        @Cached("create()") NACheck baseNACheck) {
+            double[] data = vector.getInternalStore();
+            boolean complete = logInto(vector, data, base, xNACheck, baseNACheck);
+            vector.setComplete(complete);
+            return vector;
+        }
+
+        protected static boolean isReusableTemporary(RDoubleVector vector) {
+            return vector.isTemporary() && vector.getInternalStore() != null;
+        }
+
         @Specialization(guards = "!isRAbstractComplexVector(vector)")
         protected RDoubleVector log(RAbstractVector vector, double base,
                         @Cached("createClassProfile()") ValueProfile vectorProfile,
@@ -199,8 +219,17 @@ public class LogFunctions {
 
         private RDoubleVector logInternal(RAbstractDoubleVector vector, double base, CopyOfRegAttributesNode copyAttrsNode, InitDimsNamesDimNamesNode initDimsNamesDimNames,
                         NACheck xNACheck, NACheck baseNACheck) {
-            baseNACheck.enable(base);
             double[] resultVector = new double[vector.getLength()];
+            boolean complete = logInto(vector, resultVector, base, xNACheck, baseNACheck);
+            return createResult(vector, resultVector, complete, copyAttrsNode, initDimsNamesDimNames);
+        }
+
+        /**
+         * Computes the logarithms of the elements of {@code vector} into {@code resultVector}, which
+         * may be the vector's own data array. Returns whether the result is complete.
+         */
+        private boolean logInto(RAbstractDoubleVector vector, double[] resultVector, double base, NACheck xNACheck, NACheck baseNACheck) {
+            baseNACheck.enable(base);
             if (baseNACheck.check(base)) {
                 Arrays.fill(resultVector, 0, resultVector.length, base);
             } else if (Double.isNaN(base)) {
@@ -226,8 +255,7 @@ public class LogFunctions {
                     RError.warning(showWarning.context, showWarning.message);
                 }
             }
-            boolean complete = xNACheck.neverSeenNA() && baseNACheck.neverSeenNA();
-            return createResult(vector, resultVector, complete, copyAttrsNode, initDimsNamesDimNames);
+            return xNACheck.neverSeenNA() && baseNACheck.neverSeenNA();
         }
 
         private double logb(double x, double base, NAProfile naBase) {
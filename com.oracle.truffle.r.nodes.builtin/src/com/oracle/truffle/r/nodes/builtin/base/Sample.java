@@ -43,11 +43,14 @@ import static com.oracle.truffle.r.runtime.RError.Message.VECTOR_SIZE_TOO_LARGE;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.MODIFIES_STATE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapInt;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
@@ -59,8 +62,16 @@ import com.oracle.truffle.r.runtime.rng.RRNG;
 
 @RBuiltin(name = "sample", kind = INTERNAL, parameterNames = {"x", "size", "replace", "prob"}, behavior = MODIFIES_STATE)
 public abstract class Sample extends RBuiltinNode.Arg4 {
+    /**
+     * Sampling without replacement stores only the permuted positions if the population is at
+     * least this many times larger than the sample.
+     */
+    private static final int SPARSE_PERMUTATION_RATIO = 16;
+
     private final ConditionProfile sampleSizeProfile = ConditionProfile.createBinaryProfile();
 
+    private ReplacementTable replacementTable;
+
     static {
         Casts casts = new Casts(Sample.class);
         casts.arg("x").defaultError(INVALID_FIRST_ARGUMENT).mustBe(integerValue().or(doubleValue())).mustNotBeNA(VECTOR_SIZE_NA_NAN).mapIf(doubleValue(),
@@ -109,22 +120,24 @@ public abstract class Sample extends RBuiltinNode.Arg4 {
     @Specialization(guards = {"!invalidProb(x, prob)", "!largerPopulation(x, size, isRepeatable)", "isRepeatable"})
     @TruffleBoundary
     protected RIntVector doSampleWithReplacement(final int x, final int size, final boolean isRepeatable, final RAbstractDoubleVector prob) {
-        // The following code is transcribed from GNU R src/main/random.c lines 493-501 in
-        // function do_sample.
-        double[] probArray = prob.materialize().getDataCopy();
-        fixupProbability(probArray, x, size, isRepeatable);
-        int nc = 0;
-        for (double aProb : probArray) {
-            if (x * aProb > 0.1) {
-                nc++;
+        double[] rawProb = prob.materialize().getReadonlyData();
+        ReplacementTable table = replacementTable;
+        if (table == null || !Arrays.equals(table.rawProb, rawProb)) {
+            // The following code is transcribed from GNU R src/main/random.c lines 493-501 in
+            // function do_sample.
+            double[] probArray = Arrays.copyOf(rawProb, rawProb.length);
+            fixupProbability(probArray, x, size, isRepeatable);
+            int nc = 0;
+            for (double aProb : probArray) {
+                if (x * aProb > 0.1) {
+                    nc++;
+                }
             }
+            table = nc > 200 ? createWalkerTable(x, probArray) : createCumulativeTable(x, probArray);
+            table.rawProb = Arrays.copyOf(rawProb, rawProb.length);
+            replacementTable = table;
         }
-        if (nc > 200) {
-            // TODO implement walker
-            throw new UnsupportedOperationException("walker_ProbSampleReplace is not yet implemented");
-        } else {
-            return RDataFactory.createIntVector(probSampleReplace(x, probArray, size), RDataFactory.COMPLETE_VECTOR);
-        }
+        return RDataFactory.createIntVector(table.sample(size), RDataFactory.COMPLETE_VECTOR);
     }
 
     @Specialization(guards = {"!invalidProb(x, prob)", "!largerPopulation(x, size, isRepeatable)", "!isRepeatable"})
@@ -147,6 +160,19 @@ public abstract class Sample extends RBuiltinNode.Arg4 {
             for (int i = 0; i < size; i++) {
                 result[i] = (int) (RRNG.unifIndex(x) + 1);
             }
+        } else if (size <= x / SPARSE_PERMUTATION_RATIO) {
+            // Same draws as below, but only the permuted positions are stored, so that taking a
+            // few samples out of a huge population does not need O(x) time and memory.
+            int n = x;
+            NonRecursiveHashMapInt ix = new NonRecursiveHashMapInt(size);
+            for (int i = 0; i < size; i++) {
+                int j = (int) RRNG.unifIndex(n);
+                int value = ix.get(j);
+                result[i] = (value < 0 ? j : value) + 1;
+                n--;
+                int last = ix.get(n);
+                ix.put(j, last < 0 ? n : last);
+            }
         } else {
             int n = x;
             int[] ix = new int[n];
@@ -187,12 +213,76 @@ public abstract class Sample extends RBuiltinNode.Arg4 {
         }
     }
 
-    @TruffleBoundary
-    private int[] probSampleReplace(int n, double[] probArray, int resultSize) {
+    /**
+     * The prepared form of a probability vector for sampling with replacement. Repeated calls such
+     * as {@code sample(x, size, replace = TRUE, prob = p)} in a bootstrap loop typically use the
+     * same {@code p}, so the last table is kept and only rebuilt if the probabilities change.
+     */
+    private abstract static class ReplacementTable {
+        /** The probabilities as passed in, i.e., before normalization. */
+        double[] rawProb;
+
+        abstract int[] sample(int size);
+    }
+
+    private static final class CumulativeTable extends ReplacementTable {
+        private final int[] perm;
+        private final double[] cumulative;
+
+        CumulativeTable(int[] perm, double[] cumulative) {
+            this.perm = perm;
+            this.cumulative = cumulative;
+        }
+
+        @Override
+        int[] sample(int size) {
+            // The draws are those of GNU R ProbSampleReplace, but the first cumulative probability
+            // that is not less than the random number is found with a binary search.
+            int[] result = new int[size];
+            int last = perm.length - 1;
+            for (int i = 0; i < size; i++) {
+                double rU = RRNG.unifRand();
+                int lo = 0;
+                int hi = last;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (rU <= cumulative[mid]) {
+                        hi = mid;
+                    } else {
+                        lo = mid + 1;
+                    }
+                }
+                result[i] = perm[lo];
+            }
+            return result;
+        }
+    }
+
+    private static final class WalkerTable extends ReplacementTable {
+        private final int[] alias;
+        private final double[] q;
+
+        WalkerTable(int[] alias, double[] q) {
+            this.alias = alias;
+            this.q = q;
+        }
+
+        @Override
+        int[] sample(int size) {
+            int n = q.length;
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                double rU = RRNG.unifRand() * n;
+                int k = (int) rU;
+                result[i] = (rU < q[k]) ? k + 1 : alias[k] + 1;
+            }
+            return result;
+        }
+    }
+
+    private CumulativeTable createCumulativeTable(int n, double[] probArray) {
         // The following code is transcribed from GNU R src/main/random.c lines 309-335
-        int[] result = new int[resultSize];
         int[] perm = new int[n];
-
         for (int i = 0; i < n; i++) {
             perm[i] = i + 1;
         }
@@ -200,17 +290,43 @@ public abstract class Sample extends RBuiltinNode.Arg4 {
         for (int i = 1; i < n; i++) {
             probArray[i] += probArray[i - 1];
         }
-        for (int i = 0; i < resultSize; i++) {
-            int j = 0;
-            double rU = RRNG.unifRand();
-            for (j = 0; j < n - 1; j++) {
-                if (rU <= probArray[j]) {
+        return new CumulativeTable(perm, probArray);
+    }
+
+    private static WalkerTable createWalkerTable(int n, double[] probArray) {
+        // The following code is transcribed from GNU R src/main/random.c function
+        // walker_ProbSampleReplace. Entries HL[0 .. h] have q < 1 and HL[l .. n-1] have q >= 1.
+        int[] hl = new int[n];
+        int[] alias = new int[n];
+        double[] q = new double[n];
+        int h = -1;
+        int l = n;
+        for (int i = 0; i < n; i++) {
+            q[i] = probArray[i] * n;
+            if (q[i] < 1.) {
+                hl[++h] = i;
+            } else {
+                hl[--l] = i;
+            }
+        }
+        if (h >= 0 && l < n) {
+            for (int k = 0; k < n - 1; k++) {
+                int i = hl[k];
+                int j = hl[l];
+                alias[i] = j;
+                q[j] += q[i] - 1;
+                if (q[j] < 1.) {
+                    l++;
+                }
+                if (l >= n) {
                     break;
                 }
             }
-            result[i] = perm[j];
         }
-        return result;
+        for (int i = 0; i < n; i++) {
+            q[i] += i;
+        }
+        return new WalkerTable(alias, q);
     }
 
     @TruffleBoundary
@@ -64,6 +64,7 @@ import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.instrument.InstrumentationState.TracememContext;
 
 public class TraceFunctions {
 
@@ -151,7 +152,7 @@ public class TraceFunctions {
             boolean newState = RRuntime.fromLogical(state);
             if (newState != prevState) {
                 RContext.getInstance().stateInstrumentation.setTracingState(newState);
-                MemoryCopyTracer.setTracingState(newState);
+                MemoryCopyTracer.setTracingState(getTracememContext(), newState && !getTracedObjects().isEmpty());
             }
             return RRuntime.asLogical(prevState);
         }
@@ -169,7 +170,11 @@ public class TraceFunctions {
 
     @TruffleBoundary
     protected static HashSet<Object> getTracedObjects() {
-        return RContext.getInstance().getInstrumentationState().getTracemem().getTracedObjects();
+        return getTracememContext().getTracedObjects();
+    }
+
+    private static TracememContext getTracememContext() {
+        return RContext.getInstance().getInstrumentationState().getTracemem();
     }
 
     @TruffleBoundary
@@ -187,7 +192,7 @@ public class TraceFunctions {
         getTracedObjects().add(x);
         boolean tracingState = RContext.getInstance().stateInstrumentation.getTracingState();
         if (tracingState) {
-            MemoryCopyTracer.setTracingState(true);
+            MemoryCopyTracer.setTracingState(getTracememContext(), true);
         }
     }
 
@@ -306,7 +311,11 @@ public class TraceFunctions {
         @Specialization
         @TruffleBoundary
         protected RNull execute(Object x) {
-            getTracedObjects().remove(x);
+            HashSet<Object> tracedObjects = getTracedObjects();
+            tracedObjects.remove(x);
+            if (tracedObjects.isEmpty()) {
+                MemoryCopyTracer.setTracingState(getTracememContext(), false);
+            }
             return RNull.instance;
         }
     }
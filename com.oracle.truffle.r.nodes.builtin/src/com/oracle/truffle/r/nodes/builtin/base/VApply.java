@@ -257,6 +257,13 @@ public abstract class VApply extends RBuiltinNode.Arg4 {
         double[] newArray = new double[values.length * len];
         int ind = 0;
         for (int i = 0; i < values.length; i++) {
+            if (len == 1 && values[i] instanceof Double) {
+                // scalar results, e.g. of arithmetic builtins, need no cast
+                double val = (double) values[i];
+                naCheck.check(val);
+                newArray[ind++] = val;
+                continue;
+            }
             RAbstractDoubleVector v = (RAbstractDoubleVector) castDouble(values[i]);
             checkValueLength(v, i, len);
             for (int j = 0; j < v.getLength(); j++) {
@@ -272,6 +279,13 @@ public abstract class VApply extends RBuiltinNode.Arg4 {
         int[] newArray = new int[values.length * len];
         int ind = 0;
         for (int i = 0; i < values.length; i++) {
+            if (len == 1 && values[i] instanceof Integer) {
+                // scalar results, e.g. of length, need no cast
+                int val = (int) values[i];
+                naCheck.check(val);
+                newArray[ind++] = val;
+                continue;
+            }
             RAbstractIntVector v = (RAbstractIntVector) castInteger(values[i]);
             checkValueLength(v, i, len);
             for (int j = 0; j < v.getLength(); j++) {
@@ -287,6 +301,13 @@ public abstract class VApply extends RBuiltinNode.Arg4 {
         byte[] newArray = new byte[values.length * len];
         int ind = 0;
         for (int i = 0; i < values.length; i++) {
+            if (len == 1 && values[i] instanceof Byte) {
+                // scalar results, e.g. of is.null, need no cast
+                byte val = (byte) values[i];
+                naCheck.check(val);
+                newArray[ind++] = val;
+                continue;
+            }
             RAbstractLogicalVector v = (RAbstractLogicalVector) castLogical(values[i]);
             checkValueLength(v, i, len);
             for (int j = 0; j < v.getLength(); j++) {
@@ -21,17 +21,20 @@ package com.oracle.truffle.r.nodes.builtin.base.foreign;
 
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.nullValue;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
-import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
-import com.oracle.truffle.r.runtime.ffi.StatsRFFI;
 
+/**
+ * Implementation of {@code .Call(C_fft)}. The transforms are computed by {@link FftPlan}, for
+ * arrays the transform is done along every dimension.
+ */
 public abstract class Fft extends RExternalBuiltinNode.Arg2 {
 
     private final ConditionProfile zVecLgt1 = ConditionProfile.createBinaryProfile();
@@ -43,63 +46,43 @@ public abstract class Fft extends RExternalBuiltinNode.Arg2 {
         casts.arg(1).mustNotBeNull().asLogicalVector().findFirst().map(Predef.toBoolean());
     }
 
-    @Child private StatsRFFI.FactorNode factorNode = StatsRFFI.FactorNode.create();
-    @Child private StatsRFFI.SetupWorkNode setupWorkNode = StatsRFFI.SetupWorkNode.create();
-
     // TODO: handle more argument types (this is sufficient to run the b25 benchmarks)
     @Specialization
     public Object execute(RAbstractComplexVector zVec, boolean inverse,
                     @Cached("create()") GetDimAttributeNode getDimNode) {
         double[] z = zVec.getDataTemp();
-        int inv = inverse ? 2 : -2;
         int[] d = getDimNode.getDimensions(zVec);
         if (zVecLgt1.profile(zVec.getLength() > 1)) {
-            int[] maxf = new int[1];
-            int[] maxp = new int[1];
             if (noDims.profile(d == null)) {
-                int n = zVec.getLength();
-                factorNode.execute(n, maxf, maxp);
-                if (maxf[0] == 0) {
-                    throw error(RError.Message.FFT_FACTORIZATION);
-                }
-                double[] work = new double[4 * maxf[0]];
-                int[] iwork = new int[maxp[0]];
-                setupWorkNode.execute(z, 1, n, 1, inv, work, iwork);
+                transform(z, 1, zVec.getLength(), 1, inverse);
             } else {
-                int maxmaxf = 1;
-                int maxmaxp = 1;
-                int ndims = d.length;
-                /* do whole loop just for error checking and maxmax[fp] .. */
-                for (int i = 0; i < ndims; i++) {
-                    if (d[i] > 1) {
-                        factorNode.execute(d[i], maxf, maxp);
-                        if (maxf[0] == 0) {
-                            throw error(RError.Message.FFT_FACTORIZATION);
-                        }
-                        if (maxf[0] > maxmaxf) {
-                            maxmaxf = maxf[0];
-                        }
-                        if (maxp[0] > maxmaxp) {
-                            maxmaxp = maxp[0];
-                        }
-                    }
-                }
-                double[] work = new double[4 * maxmaxf];
-                int[] iwork = new int[maxmaxp];
                 int nseg = zVec.getLength();
                 int n = 1;
                 int nspn = 1;
-                for (int i = 0; i < ndims; i++) {
+                for (int i = 0; i < d.length; i++) {
                     if (d[i] > 1) {
                         nspn *= n;
                         n = d[i];
                         nseg /= n;
-                        factorNode.execute(n, maxf, maxp);
-                        setupWorkNode.execute(z, nseg, n, nspn, inv, work, iwork);
+                        transform(z, nseg, n, nspn, inverse);
                     }
                 }
             }
         }
         return RDataFactory.createComplexVector(z, zVec.isComplete(), d);
     }
+
+    /**
+     * Transforms along one dimension of length {@code n}, like {@code fft_work} in GNU R: the data
+     * consists of {@code nseg} segments and the elements of one transform are {@code nspn} apart.
+     */
+    @TruffleBoundary
+    static void transform(double[] z, int nseg, int n, int nspn, boolean inverse) {
+        FftPlan plan = FftPlan.get(n);
+        for (int seg = 0; seg < nseg; seg++) {
+            for (int i = 0; i < nspn; i++) {
+                plan.transform(z, seg * n * nspn + i, nspn, inverse);
+            }
+        }
+    }
 }
@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base.foreign;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Precomputed data for the discrete Fourier transform of one length. R's {@code fft} is not
+ * normalized: the forward transform computes {@code sum(z[k] * exp(-2*pi*1i*j*k/n))}, the inverse
+ * one uses {@code +2*pi*1i}.
+ *
+ * Lengths whose prime factors are all small are transformed by a recursive mixed radix
+ * Cooley-Tukey algorithm. Other lengths are transformed with Bluestein's algorithm, i.e., as a
+ * convolution computed by transforms of a power of two length. Mixed radix transforms of real
+ * input with even length are computed as a complex transform of half the length.
+ *
+ * Plans are immutable and kept in a small cache shared by all contexts, so repeated transforms of
+ * the same length, e.g., the columns of {@code mvfft} or spectral analysis in a loop, do not
+ * recompute the factorization and the twiddle factors. The cache is bounded by the number of plans
+ * and by their total size.
+ */
+final class FftPlan {
+
+    /**
+     * Prime factors up to this size are handled by the mixed radix transform.
+     */
+    private static final int MAX_RADIX = 64;
+    private static final int CACHE_SIZE = 32;
+    /**
+     * Upper bound of the memory held by the cached plans, larger plans are not cached at all.
+     */
+    private static final long MAX_CACHE_BYTES = 16L * 1024 * 1024;
+
+    private static final LinkedHashMap<Integer, FftPlan> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true);
+    private static long cachedBytes;
+
+    private final int n;
+    /**
+     * The radices in the order in which they are applied, {@code null} for Bluestein transforms.
+     */
+    private final int[] factors;
+    /**
+     * The position of each input value in the order in which the innermost transforms are done.
+     */
+    private final int[] permutation;
+    /**
+     * {@code cos} and {@code sin} of {@code 2*pi*k/n}.
+     */
+    private final double[] cos;
+    private final double[] sin;
+    /**
+     * The plan of half the length used for real input, {@code null} if {@link #isRealSplit()} is
+     * {@code false}.
+     */
+    private final FftPlan halfPlan;
+
+    // Bluestein's algorithm
+    private final FftPlan convolutionPlan;
+    private final double[] chirpRe;
+    private final double[] chirpIm;
+    /**
+     * The transformed conjugate chirp, used for the forward transform. The inverse transform uses
+     * the conjugate chirp, whose transform is obtained by mirroring this one.
+     */
+    private final double[] chirpTransformRe;
+    private final double[] chirpTransformIm;
+    /**
+     * Approximate number of bytes held by this plan, not including the half length or convolution
+     * plan.
+     */
+    private final long bytes;
+
+    private FftPlan(int n) {
+        this.n = n;
+        int[] f = factorize(n);
+        if (f != null) {
+            this.factors = f;
+            this.permutation = new int[n];
+            for (int i = 0; i < n; i++) {
+                // the subsequence i mod p goes to the block (i mod p) * (len / p) at each level
+                int pos = 0;
+                int rest = i;
+                int len = n;
+                for (int p : f) {
+                    len /= p;
+                    pos += (rest % p) * len;
+                    rest /= p;
+                }
+                permutation[i] = pos;
+            }
+            this.cos = new double[n];
+            this.sin = new double[n];
+            for (int k = 0; k < n; k++) {
+                setTwiddle(cos, sin, k, k, n);
+            }
+            this.halfPlan = isRealSplit() ? get(n / 2) : null;
+            this.convolutionPlan = null;
+            this.chirpRe = null;
+            this.chirpIm = null;
+            this.chirpTransformRe = null;
+            this.chirpTransformIm = null;
+            this.bytes = 20L * n;
+        } else {
+            this.factors = null;
+            this.permutation = null;
+            this.cos = null;
+            this.sin = null;
+            this.halfPlan = null;
+            int m = Integer.highestOneBit(2 * n - 1);
+            if (m < 2 * n - 1) {
+                m <<= 1;
+            }
+            this.convolutionPlan = get(m);
+            // chirp[k] = exp(-pi*1i*k^2/n), the exponent is reduced modulo 2n to keep it exact
+            this.chirpRe = new double[n];
+            this.chirpIm = new double[n];
+            for (int k = 0; k < n; k++) {
+                int r = (int) (((long) k * k) % (2L * n));
+                setTwiddle(chirpRe, chirpIm, k, r, 2 * n);
+            }
+            this.chirpTransformRe = new double[m];
+            this.chirpTransformIm = new double[m];
+            chirpTransformRe[0] = chirpRe[0];
+            chirpTransformIm[0] = -chirpIm[0];
+            for (int k = 1; k < n; k++) {
+                chirpTransformRe[k] = chirpTransformRe[m - k] = chirpRe[k];
+                chirpTransformIm[k] = chirpTransformIm[m - k] = -chirpIm[k];
+            }
+            convolutionPlan.transform(chirpTransformRe, chirpTransformIm, false);
+            this.bytes = 16L * n + 16L * m;
+        }
+    }
+
+    /**
+     * Sets {@code re[index]} and {@code im[index]} to {@code exp(-2*pi*1i*k/n)}, with exact values
+     * at multiples of a quarter turn.
+     */
+    private static void setTwiddle(double[] re, double[] im, int index, int k, int n) {
+        if ((4L * k) % n == 0) {
+            int quarter = (int) ((4L * k) / n);
+            re[index] = quarter == 0 ? 1 : quarter == 2 ? -1 : 0;
+            im[index] = quarter == 1 ? -1 : quarter == 3 ? 1 : 0;
+        } else {
+            double angle = 2 * Math.PI * k / n;
+            re[index] = Math.cos(angle);
+            im[index] = -Math.sin(angle);
+        }
+    }
+
+    /**
+     * Returns the radices for the mixed radix transform of length {@code n}, or {@code null} if
+     * {@code n} has a prime factor larger than {@link #MAX_RADIX}.
+     */
+    private static int[] factorize(int n) {
+        int[] result = new int[32];
+        int count = 0;
+        int rest = n;
+        while (rest % 4 == 0) {
+            result[count++] = 4;
+            rest /= 4;
+        }
+        for (int p = 2; p <= MAX_RADIX && rest > 1; p++) {
+            while (rest % p == 0) {
+                result[count++] = p;
+                rest /= p;
+            }
+        }
+        if (rest > 1) {
+            return null;
+        }
+        int[] factors = new int[count];
+        System.arraycopy(result, 0, factors, 0, count);
+        return factors;
+    }
+
+    @TruffleBoundary
+    static FftPlan get(int n) {
+        assert n > 0;
+        synchronized (CACHE) {
+            FftPlan plan = CACHE.get(n);
+            if (plan != null) {
+                return plan;
+            }
+        }
+        // the plan of a Bluestein transform needs another plan, so it is not created under the lock
+        FftPlan plan = new FftPlan(n);
+        if (plan.bytes <= MAX_CACHE_BYTES) {
+            synchronized (CACHE) {
+                FftPlan previous = CACHE.put(n, plan);
+                if (previous != null) {
+                    cachedBytes -= previous.bytes;
+                }
+                cachedBytes += plan.bytes;
+                Iterator<FftPlan> eldest = CACHE.values().iterator();
+                while (CACHE.size() > CACHE_SIZE || cachedBytes > MAX_CACHE_BYTES) {
+                    cachedBytes -= eldest.next().bytes;
+                    eldest.remove();
+                }
+            }
+        }
+        return plan;
+    }
+
+    int getLength() {
+        return n;
+    }
+
+    /**
+     * Whether real input is transformed as a complex transform of half the length.
+     */
+    private boolean isRealSplit() {
+        return factors != null && n % 2 == 0 && n >= 4;
+    }
+
+    /**
+     * Transforms the {@code n} complex values stored interleaved in {@code z} starting at index
+     * {@code 2 * offset} with distance {@code 2 * stride}.
+     */
+    void transform(double[] z, int offset, int stride, boolean inverse) {
+        double[] re = new double[n];
+        double[] im = new double[n];
+        boolean real = true;
+        for (int k = 0, i = 2 * offset; k < n; k++, i += 2 * stride) {
+            re[k] = z[i];
+            im[k] = z[i + 1];
+            real &= im[k] == 0;
+        }
+        if (real && halfPlan != null) {
+            transformReal(re, im, inverse);
+        } else {
+            transform(re, im, inverse);
+        }
+        for (int k = 0, i = 2 * offset; k < n; k++, i += 2 * stride) {
+            z[i] = re[k];
+            z[i + 1] = im[k];
+        }
+    }
+
+    /**
+     * Transforms the complex values {@code re + 1i * im} in place.
+     */
+    void transform(double[] re, double[] im, boolean inverse) {
+        if (n == 1) {
+            return;
+        }
+        if (factors != null) {
+            mixedRadix(re, im, inverse);
+        } else {
+            bluestein(re, im, inverse);
+        }
+    }
+
+    /**
+     * Transform of real input {@code re} of even length: the even and odd elements are packed into
+     * a complex vector of half the length, whose transform is split into the transforms of the two
+     * halves and combined by one radix 2 step.
+     */
+    private void transformReal(double[] re, double[] im, boolean inverse) {
+        int half = n / 2;
+        double[] zRe = new double[half];
+        double[] zIm = new double[half];
+        for (int k = 0; k < half; k++) {
+            zRe[k] = re[2 * k];
+            zIm[k] = re[2 * k + 1];
+        }
+        halfPlan.transform(zRe, zIm, inverse);
+        double sign = inverse ? -1 : 1;
+        for (int k = 0; k < half; k++) {
+            int mirror = k == 0 ? 0 : half - k;
+            // E = (Z[k] + conj(Z[-k])) / 2, O = (Z[k] - conj(Z[-k])) / 2i
+            double eRe = (zRe[k] + zRe[mirror]) / 2;
+            double eIm = (zIm[k] - zIm[mirror]) / 2;
+            double oRe = (zIm[k] + zIm[mirror]) / 2;
+            double oIm = -(zRe[k] - zRe[mirror]) / 2;
+            // w = exp(-+2*pi*1i*k/n)
+            double wRe = cos[k];
+            double wIm = sign * sin[k];
+            double tRe = wRe * oRe - wIm * oIm;
+            double tIm = wRe * oIm + wIm * oRe;
+            re[k] = eRe + tRe;
+            im[k] = eIm + tIm;
+            re[k + half] = eRe - tRe;
+            im[k + half] = eIm - tIm;
+        }
+    }
+
+    /**
+     * Decimation in time: the input is permuted so that the subsequences transformed at each level
+     * are contiguous, then the levels are combined from the innermost one outwards. At the level
+     * with radix {@code p}, each block of {@code len = p * m} values consists of {@code p}
+     * transforms of length {@code m} that are combined by radix {@code p} butterflies.
+     */
+    private void mixedRadix(double[] re, double[] im, boolean inverse) {
+        double[] outRe = new double[n];
+        double[] outIm = new double[n];
+        for (int i = 0; i < n; i++) {
+            outRe[permutation[i]] = re[i];
+            outIm[permutation[i]] = im[i];
+        }
+        double[] scratch = new double[4 * MAX_RADIX];
+        int m = 1;
+        for (int level = factors.length - 1; level >= 0; level--) {
+            int p = factors[level];
+            int len = p * m;
+            for (int block = 0; block < n; block += len) {
+                butterflies(outRe, outIm, block, len, p, inverse, scratch);
+            }
+            m = len;
+        }
+        System.arraycopy(outRe, 0, re, 0, n);
+        System.arraycopy(outIm, 0, im, 0, n);
+    }
+
+    private void butterflies(double[] re, double[] im, int offset, int len, int p, boolean inverse, double[] scratch) {
+        // twiddle factors of the transform of length len are every (n / len)-th entry of the table
+        int step = n / len;
+        double sign = inverse ? -1 : 1;
+        if (p == 4) {
+            radix4(re, im, offset, len / 4, step, sign);
+        } else if (p == 2) {
+            radix2(re, im, offset, len / 2, step, sign);
+        } else {
+            radixGeneric(re, im, offset, len / p, p, step, sign, scratch);
+        }
+    }
+
+    private void radix2(double[] re, double[] im, int offset, int m, int step, double sign) {
+        for (int k = 0; k < m; k++) {
+            int i0 = offset + k;
+            int i1 = i0 + m;
+            double wRe = cos[k * step];
+            double wIm = sign * sin[k * step];
+            double xRe = re[i1] * wRe - im[i1] * wIm;
+            double xIm = re[i1] * wIm + im[i1] * wRe;
+            re[i1] = re[i0] - xRe;
+            im[i1] = im[i0] - xIm;
+            re[i0] += xRe;
+            im[i0] += xIm;
+        }
+    }
+
+    private void radix4(double[] re, double[] im, int offset, int m, int step, double sign) {
+        for (int k = 0; k < m; k++) {
+            int i0 = offset + k;
+            int i1 = i0 + m;
+            int i2 = i1 + m;
+            int i3 = i2 + m;
+            int t = k * step;
+            double w1Re = cos[t];
+            double w1Im = sign * sin[t];
+            double w2Re = cos[2 * t];
+            double w2Im = sign * sin[2 * t];
+            double w3Re = cos[3 * t];
+            double w3Im = sign * sin[3 * t];
+            double x0Re = re[i0];
+            double x0Im = im[i0];
+            double x1Re = re[i1] * w1Re - im[i1] * w1Im;
+            double x1Im = re[i1] * w1Im + im[i1] * w1Re;
+            double x2Re = re[i2] * w2Re - im[i2] * w2Im;
+            double x2Im = re[i2] * w2Im + im[i2] * w2Re;
+            double x3Re = re[i3] * w3Re - im[i3] * w3Im;
+            double x3Im = re[i3] * w3Im + im[i3] * w3Re;
+            double aRe = x0Re + x2Re;
+            double aIm = x0Im + x2Im;
+            double bRe = x0Re - x2Re;
+            double bIm = x0Im - x2Im;
+            double cRe = x1Re + x3Re;
+            double cIm = x1Im + x3Im;
+            // (x1 - x3) multiplied by -1i (forward) or 1i (inverse)
+            double dRe = sign * (x1Im - x3Im);
+            double dIm = -sign * (x1Re - x3Re);
+            re[i0] = aRe + cRe;
+            im[i0] = aIm + cIm;
+            re[i1] = bRe + dRe;
+            im[i1] = bIm + dIm;
+            re[i2] = aRe - cRe;
+            im[i2] = aIm - cIm;
+            re[i3] = bRe - dRe;
+            im[i3] = bIm - dIm;
+        }
+    }
+
+    private void radixGeneric(double[] re, double[] im, int offset, int m, int p, int step, double sign, double[] scratch) {
+        // the roots of unity of the DFT of length p are every m-th twiddle of length p * m
+        int rootStep = m * step;
+        int base = 2 * p;
+        for (int k = 0; k < m; k++) {
+            // scratch holds the twiddled inputs of this butterfly followed by its outputs
+            for (int q = 0; q < p; q++) {
+                int t = q * k * step;
+                double wRe = cos[t];
+                double wIm = sign * sin[t];
+                double xRe = re[offset + q * m + k];
+                double xIm = im[offset + q * m + k];
+                scratch[2 * q] = xRe * wRe - xIm * wIm;
+                scratch[2 * q + 1] = xRe * wIm + xIm * wRe;
+            }
+            for (int s = 0; s < p; s++) {
+                double sumRe = 0;
+                double sumIm = 0;
+                for (int q = 0; q < p; q++) {
+                    int t = ((q * s) % p) * rootStep;
+                    double wRe = cos[t];
+                    double wIm = sign * sin[t];
+                    sumRe += scratch[2 * q] * wRe - scratch[2 * q + 1] * wIm;
+                    sumIm += scratch[2 * q] * wIm + scratch[2 * q + 1] * wRe;
+                }
+                scratch[base + 2 * s] = sumRe;
+                scratch[base + 2 * s + 1] = sumIm;
+            }
+            for (int s = 0; s < p; s++) {
+                re[offset + s * m + k] = scratch[base + 2 * s];
+                im[offset + s * m + k] = scratch[base + 2 * s + 1];
+            }
+        }
+    }
+
+    private void bluestein(double[] re, double[] im, boolean inverse) {
+        int m = convolutionPlan.getLength();
+        double sign = inverse ? -1 : 1;
+        double[] aRe = new double[m];
+        double[] aIm = new double[m];
+        for (int k = 0; k < n; k++) {
+            double cRe = chirpRe[k];
+            double cIm = sign * chirpIm[k];
+            aRe[k] = re[k] * cRe - im[k] * cIm;
+            aIm[k] = re[k] * cIm + im[k] * cRe;
+        }
+        convolutionPlan.transform(aRe, aIm, false);
+        for (int k = 0; k < m; k++) {
+            // the transform of the conjugate chirp of the inverse transform is the mirrored
+            // conjugate of the forward one
+            int index = inverse ? (m - k) % m : k;
+            double bRe = chirpTransformRe[index];
+            double bIm = sign * chirpTransformIm[index];
+            double tRe = aRe[k] * bRe - aIm[k] * bIm;
+            aIm[k] = aRe[k] * bIm + aIm[k] * bRe;
+            aRe[k] = tRe;
+        }
+        convolutionPlan.transform(aRe, aIm, true);
+        for (int k = 0; k < n; k++) {
+            double cRe = chirpRe[k];
+            double cIm = sign * chirpIm[k];
+            double xRe = aRe[k] / m;
+            double xIm = aIm[k] / m;
+            re[k] = xRe * cRe - xIm * cIm;
+            im[k] = xRe * cIm + xIm * cRe;
+        }
+    }
+}
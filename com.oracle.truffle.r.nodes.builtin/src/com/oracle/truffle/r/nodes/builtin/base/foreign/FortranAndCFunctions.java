@@ -64,6 +64,16 @@ public class FortranAndCFunctions {
         public Object[] getDefaultParameterValues() {
             return new Object[]{RMissing.instance, RArgsValuesAndNames.EMPTY, RRuntime.LOGICAL_FALSE, RRuntime.LOGICAL_FALSE, RMissing.instance, RMissing.instance};
         }
+
+        protected final RList callInfo(VirtualFrame frame, NativeCallInfo nativeCallInfo, RArgsValuesAndNames args, byte naok, byte dup, CallRegisteredROverride callRegisteredROverride,
+                        RContext ctx) {
+            if (callRegisteredROverride.isRegisteredRFunction(nativeCallInfo)) {
+                Object result = callRegisteredROverride.execute(frame, nativeCallInfo, args);
+                return RDataFactory.createList(new Object[]{result});
+            } else {
+                return invokeCNode.dispatch(frame, nativeCallInfo, naok, dup, args, ctx);
+            }
+        }
     }
 
     @RBuiltin(name = ".Fortran", kind = PRIMITIVE, parameterNames = {".NAME", "...", "NAOK", "DUP", "PACKAGE", "ENCODING"}, behavior = COMPLEX)
@@ -72,38 +82,42 @@ public class FortranAndCFunctions {
             Casts.noCasts(DotFortran.class);
         }
 
-        @Specialization
+        protected static DLL.CachedFindSymbolNode createSymbolLookup() {
+            return DLL.CachedFindSymbolNode.create(DLL.NativeSymbolType.Fortran);
+        }
+
+        @Specialization(limit = "getCacheSize(2)", guards = "cached == symbol")
+        protected RList doFortranListCached(VirtualFrame frame, @SuppressWarnings("unused") RList symbol, RArgsValuesAndNames args, byte naok, byte dup, @SuppressWarnings("unused") Object rPackage,
+                        @SuppressWarnings("unused") RMissing encoding,
+                        @SuppressWarnings("unused") @Cached("symbol") RList cached,
+                        @SuppressWarnings("unused") @Cached ExtractNativeCallInfoNode extractSymbolInfo,
+                        @Cached("extractSymbolInfo.execute(symbol)") NativeCallInfo nativeCallInfo,
+                        @Cached CallRegisteredROverride callRegisteredROverride,
+                        @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
+            // the NativeSymbolInfo lists are never expected to change
+            return callInfo(frame, nativeCallInfo, args, naok, dup, callRegisteredROverride, ctxRef.get());
+        }
+
+        @Specialization(replaces = "doFortranListCached")
         protected RList doFortranList(VirtualFrame frame, RList symbol, RArgsValuesAndNames args, byte naok, byte dup, @SuppressWarnings("unused") Object rPackage,
                         @SuppressWarnings("unused") RMissing encoding,
                         @Cached ExtractNativeCallInfoNode extractSymbolInfo,
                         @Cached CallRegisteredROverride callRegisteredROverride,
                         @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
-            NativeCallInfo nativeCallInfo = extractSymbolInfo.execute(symbol);
-            if (callRegisteredROverride.isRegisteredRFunction(nativeCallInfo)) {
-                Object result = callRegisteredROverride.execute(frame, nativeCallInfo, args);
-                return RDataFactory.createList(new Object[]{result});
-            } else {
-                return invokeCNode.dispatch(frame, nativeCallInfo, naok, dup, args, ctxRef.get());
-            }
+            return callInfo(frame, extractSymbolInfo.execute(symbol), args, naok, dup, callRegisteredROverride, ctxRef.get());
         }
 
         @Specialization
         protected RList doFortranName(VirtualFrame frame, RAbstractStringVector symbol, RArgsValuesAndNames args, byte naok, byte dup, Object rPackage, @SuppressWarnings("unused") RMissing encoding,
-                        @Cached("create()") DLL.RFindSymbolNode findSymbolNode,
+                        @Cached("createSymbolLookup()") DLL.CachedFindSymbolNode findSymbolNode,
                         @Cached CallRegisteredROverride callRegisteredROverride,
                         @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
             String libName = LookupAdapter.checkPackageArg(rPackage);
-            DLL.RegisteredNativeSymbol rns = new DLL.RegisteredNativeSymbol(DLL.NativeSymbolType.Fortran, null, null);
-            DLL.SymbolHandle func = findSymbolNode.execute(symbol.getDataAt(0), libName, rns);
-            if (func == DLL.SYMBOL_NOT_FOUND) {
+            NativeCallInfo nativeCallInfo = findSymbolNode.execute(symbol.getDataAt(0), libName);
+            if (nativeCallInfo == null) {
                 throw error(RError.Message.C_SYMBOL_NOT_IN_TABLE, symbol);
             }
-            if (callRegisteredROverride.isRegisteredRFunction(func)) {
-                Object result = callRegisteredROverride.execute(frame, func, args);
-                return RDataFactory.createList(new Object[]{result});
-            } else {
-                return invokeCNode.dispatch(frame, new NativeCallInfo(symbol.getDataAt(0), func, rns.getDllInfo()), naok, dup, args, ctxRef.get());
-            }
+            return callInfo(frame, nativeCallInfo, args, naok, dup, callRegisteredROverride, ctxRef.get());
         }
 
         @Specialization
@@ -132,24 +146,34 @@ public class FortranAndCFunctions {
             Casts.noCasts(DotC.class);
         }
 
-        @Specialization
+        protected static DLL.CachedFindSymbolNode createSymbolLookup() {
+            return DLL.CachedFindSymbolNode.create(DLL.NativeSymbolType.C);
+        }
+
+        @Specialization(limit = "getCacheSize(2)", guards = "cached == symbol")
+        protected RList cListCached(VirtualFrame frame, @SuppressWarnings("unused") RList symbol, RArgsValuesAndNames args, byte naok, byte dup, @SuppressWarnings("unused") Object rPackage,
+                        @SuppressWarnings("unused") RMissing encoding,
+                        @SuppressWarnings("unused") @Cached("symbol") RList cached,
+                        @SuppressWarnings("unused") @Cached ExtractNativeCallInfoNode extractSymbolInfo,
+                        @Cached("extractSymbolInfo.execute(symbol)") NativeCallInfo nativeCallInfo,
+                        @Cached CallRegisteredROverride callRegisteredROverride,
+                        @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
+            // the NativeSymbolInfo lists are never expected to change
+            return callInfo(frame, nativeCallInfo, args, naok, dup, callRegisteredROverride, ctxRef.get());
+        }
+
+        @Specialization(replaces = "cListCached")
         protected RList cList(VirtualFrame frame, RList symbol, RArgsValuesAndNames args, byte naok, byte dup, @SuppressWarnings("unused") Object rPackage,
                         @SuppressWarnings("unused") RMissing encoding,
                         @Cached ExtractNativeCallInfoNode extractSymbolInfo,
                         @Cached CallRegisteredROverride callRegisteredROverride,
                         @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
-            NativeCallInfo nativeCallInfo = extractSymbolInfo.execute(symbol);
-            if (callRegisteredROverride.isRegisteredRFunction(nativeCallInfo)) {
-                Object result = callRegisteredROverride.execute(frame, nativeCallInfo, args);
-                return RDataFactory.createList(new Object[]{result});
-            } else {
-                return invokeCNode.dispatch(frame, nativeCallInfo, naok, dup, args, ctxRef.get());
-            }
+            return callInfo(frame, extractSymbolInfo.execute(symbol), args, naok, dup, callRegisteredROverride, ctxRef.get());
         }
 
         @Specialization
         protected RList cName(VirtualFrame frame, RAbstractStringVector symbol, RArgsValuesAndNames args, byte naok, byte dup, Object rPackage, @SuppressWarnings("unused") RMissing encoding,
-                        @Cached("create()") DLL.RFindSymbolNode findSymbolNode,
+                        @Cached("createSymbolLookup()") DLL.CachedFindSymbolNode findSymbolNode,
                         @Cached CallRegisteredROverride callRegisteredROverride,
                         @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
             String libName = null;
@@ -159,17 +183,11 @@ public class FortranAndCFunctions {
                     throw error(RError.Message.ARGUMENT_MUST_BE_STRING, "PACKAGE");
                 }
             }
-            DLL.RegisteredNativeSymbol rns = new DLL.RegisteredNativeSymbol(DLL.NativeSymbolType.C, null, null);
-            DLL.SymbolHandle func = findSymbolNode.execute(symbol.getDataAt(0), libName, rns);
-            if (func == DLL.SYMBOL_NOT_FOUND) {
+            NativeCallInfo nativeCallInfo = findSymbolNode.execute(symbol.getDataAt(0), libName);
+            if (nativeCallInfo == null) {
                 throw error(RError.Message.C_SYMBOL_NOT_IN_TABLE, symbol);
             }
-            if (callRegisteredROverride.isRegisteredRFunction(func)) {
-                Object result = callRegisteredROverride.execute(frame, func, args);
-                return RDataFactory.createList(new Object[]{result});
-            } else {
-                return invokeCNode.dispatch(frame, new NativeCallInfo(symbol.getDataAt(0), func, rns.getDllInfo()), naok, dup, args, ctxRef.get());
-            }
+            return callInfo(frame, nativeCallInfo, args, naok, dup, callRegisteredROverride, ctxRef.get());
         }
 
         @Specialization
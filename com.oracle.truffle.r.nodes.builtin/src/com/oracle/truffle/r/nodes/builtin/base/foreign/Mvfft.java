@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base.foreign;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.nullValue;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
+import com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef;
+import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
+
+/**
+ * Implementation of {@code .Call(C_mvfft)}, which transforms every column of a matrix. The columns
+ * share one {@link FftPlan} and large matrices are transformed by several threads. The transform
+ * only works on a plain array of doubles, so this does not touch any state of the R context. The
+ * threads are daemon threads owned by FastR rather than the common {@code ForkJoinPool}, so the
+ * transforms do not compete with, or wait for, unrelated tasks of the embedding application.
+ */
+public abstract class Mvfft extends RExternalBuiltinNode.Arg2 {
+
+    /**
+     * Matrices with fewer elements are transformed column by column in the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int THREADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static ExecutorService executor;
+
+    static {
+        Casts casts = new Casts(Mvfft.class);
+        casts.arg(0).mustNotBeMissing().mustBe(nullValue().not()).asComplexVector(false, true, false);
+        casts.arg(1).mustNotBeNull().asLogicalVector().findFirst().map(Predef.toBoolean());
+    }
+
+    @Specialization
+    public Object execute(RAbstractComplexVector zVec, boolean inverse,
+                    @Cached("create()") GetDimAttributeNode getDimNode) {
+        int[] d = getDimNode.getDimensions(zVec);
+        if (d == null || d.length != 2) {
+            throw error(RError.Message.MULTIVARIATE_SERIES_REQUIRED);
+        }
+        double[] z = zVec.getDataTemp();
+        if (d[0] > 1) {
+            transformColumns(z, d[0], d[1], inverse);
+        }
+        return RDataFactory.createComplexVector(z, zVec.isComplete(), d);
+    }
+
+    @TruffleBoundary
+    private static void transformColumns(double[] z, int n, int columns, boolean inverse) {
+        FftPlan plan = FftPlan.get(n);
+        if (columns == 1 || THREADS == 1 || (long) n * columns < PARALLEL_THRESHOLD) {
+            transformColumns(plan, z, 0, columns, inverse);
+            return;
+        }
+        // the calling thread transforms the first chunk while the pool does the others
+        int chunks = Math.min(columns, THREADS + 1);
+        ExecutorService pool = getExecutor();
+        ArrayList<Future<?>> futures = new ArrayList<>(chunks - 1);
+        for (int i = 1; i < chunks; i++) {
+            int from = (int) ((long) columns * i / chunks);
+            int to = (int) ((long) columns * (i + 1) / chunks);
+            futures.add(pool.submit(() -> transformColumns(plan, z, from, to, inverse)));
+        }
+        transformColumns(plan, z, 0, columns / chunks, inverse);
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(false));
+            Thread.currentThread().interrupt();
+            throw RError.error(RError.NO_CALLER, RError.Message.GENERIC, "mvfft interrupted");
+        } catch (ExecutionException e) {
+            throw RInternalError.shouldNotReachHere(e.getCause());
+        }
+    }
+
+    private static void transformColumns(FftPlan plan, double[] z, int from, int to, boolean inverse) {
+        int n = plan.getLength();
+        for (int col = from; col < to; col++) {
+            plan.transform(z, col * n, 1, inverse);
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(THREADS, r -> {
+                Thread thread = new Thread(r, "FastR-mvfft-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
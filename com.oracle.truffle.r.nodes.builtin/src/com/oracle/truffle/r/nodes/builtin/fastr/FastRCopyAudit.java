@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.RVisibility.CUSTOM;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.nodes.function.visibility.SetVisibilityNode;
+import com.oracle.truffle.r.runtime.RArguments;
+import com.oracle.truffle.r.runtime.RCaller;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.MemoryCopyTracer;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.instrument.InstrumentationState.CopyAuditContext;
+
+/**
+ * Audit of the copies that the reference counting did not require. While the audit is on, every
+ * copy of a vector that was not shared at the time of copying is attributed to the innermost R
+ * call on the stack. Such copies are candidates for copy elimination, e.g. in the replacement
+ * machinery.
+ *
+ * {@code .fastr.copyaudit(TRUE)} starts a new audit, with {@code verbose=TRUE} each avoidable copy
+ * is also printed when it happens. {@code .fastr.copyaudit(FALSE)} stops the audit and returns the
+ * number of avoidable copies per call location, the most frequent first.
+ */
+@RBuiltin(name = ".fastr.copyaudit", visibility = CUSTOM, kind = PRIMITIVE, parameterNames = {"on", "verbose"}, behavior = COMPLEX)
+public abstract class FastRCopyAudit extends RBuiltinNode.Arg2 {
+
+    @Child private SetVisibilityNode visibility = SetVisibilityNode.create();
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_TRUE, RRuntime.LOGICAL_FALSE};
+    }
+
+    static {
+        Casts casts = new Casts(FastRCopyAudit.class);
+        casts.arg("on").asLogicalVector().findFirst().map(toBoolean());
+        casts.arg("verbose").asLogicalVector().findFirst().map(toBoolean());
+    }
+
+    static {
+        MemoryCopyTracer.addListener(new CopyAuditListener());
+    }
+
+    @Specialization
+    protected Object copyAudit(VirtualFrame frame, boolean on, boolean verbose) {
+        if (on) {
+            start(verbose);
+            visibility.execute(frame, false);
+            return RNull.instance;
+        }
+        visibility.execute(frame, true);
+        return stop();
+    }
+
+    @TruffleBoundary
+    private static void start(boolean verbose) {
+        CopyAuditContext audit = getAudit();
+        audit.start(verbose);
+        MemoryCopyTracer.setTracingState(audit, true);
+    }
+
+    @TruffleBoundary
+    private static Object stop() {
+        CopyAuditContext audit = getAudit();
+        audit.stop();
+        MemoryCopyTracer.setTracingState(audit, false);
+        ArrayList<Map.Entry<String, Integer>> entries = new ArrayList<>(audit.getCounts().entrySet());
+        entries.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        String[] locations = new String[entries.size()];
+        int[] counts = new int[entries.size()];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = entries.get(i).getKey();
+            counts[i] = entries.get(i).getValue();
+        }
+        return RDataFactory.createIntVector(counts, RDataFactory.COMPLETE_VECTOR, RDataFactory.createStringVector(locations, RDataFactory.COMPLETE_VECTOR));
+    }
+
+    private static CopyAuditContext getAudit() {
+        return RContext.getInstance().getInstrumentationState().getCopyAudit();
+    }
+
+    /**
+     * Returns the deparsed innermost R call on the stack and its source location, if any.
+     */
+    private static String getCallLocation() {
+        String location = Truffle.getRuntime().iterateFrames(frame -> {
+            Frame unwrapped = RArguments.unwrap(frame.getFrame(FrameAccess.READ_ONLY));
+            if (RArguments.isRFrame(unwrapped)) {
+                RCaller call = RArguments.getCall(unwrapped);
+                if (call != null && call.isValidCaller()) {
+                    String result = RContext.getRRuntimeASTAccess().getCallerSource(call);
+                    SourceSection ss = call.isPromise() ? null : call.getSyntaxNode().getLazySourceSection();
+                    if (ss != null && ss.isAvailable()) {
+                        result += " at " + ss.getSource().getName() + "#" + ss.getStartLine();
+                    }
+                    return result;
+                }
+            }
+            return null;
+        });
+        return location == null ? "<top level>" : location;
+    }
+
+    private static final class CopyAuditListener implements MemoryCopyTracer.Listener {
+        @TruffleBoundary
+        @Override
+        public void reportCopying(RAbstractVector src, RAbstractVector dest) {
+            CopyAuditContext audit = getAudit();
+            if (!audit.isEnabled() || !(src instanceof RSharingAttributeStorage) || ((RSharingAttributeStorage) src).isShared()) {
+                return;
+            }
+            if (src.getLength() != dest.getLength()) {
+                // a resize always needs a new vector, the copy is required even if not shared
+                return;
+            }
+            String location = getCallLocation();
+            audit.record(location);
+            if (audit.isVerbose()) {
+                RContext.getInstance().getConsole().println(String.format("avoidable copy of %s vector (length %d): %s", src.getRType().getName(), src.getLength(), location));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RMetrics;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RList;
+
+/**
+ * Returns the engine metrics collected by {@link RMetrics} as a list with elements
+ * {@code counters}, {@code allocations} and {@code copies}, each of them a named numeric vector.
+ * The allocations and copies are broken down by type. Nothing is counted unless the
+ * {@code FASTR_METRICS} environment variable is set, the counters are zero and the allocations and
+ * copies are empty otherwise.
+ */
+@RBuiltin(name = ".fastr.metrics", kind = PRIMITIVE, parameterNames = {}, behavior = COMPLEX)
+public abstract class FastRMetrics extends RBuiltinNode.Arg0 {
+
+    private static final String[] NAMES = new String[]{"counters", "allocations", "copies"};
+
+    @Specialization
+    @TruffleBoundary
+    protected RList metrics() {
+        Object[] data = new Object[]{toVector(RMetrics.getCounters()), toVector(RMetrics.getAllocations()), toVector(RMetrics.getCopies())};
+        return RDataFactory.createList(data, RDataFactory.createStringVector(NAMES, RDataFactory.COMPLETE_VECTOR));
+    }
+
+    private static RDoubleVector toVector(Map<String, Long> values) {
+        double[] data = new double[values.size()];
+        String[] names = new String[values.size()];
+        int i = 0;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            names[i] = entry.getKey();
+            data[i] = entry.getValue();
+            i++;
+        }
+        return RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR, RDataFactory.createStringVector(names, RDataFactory.COMPLETE_VECTOR));
+    }
+}
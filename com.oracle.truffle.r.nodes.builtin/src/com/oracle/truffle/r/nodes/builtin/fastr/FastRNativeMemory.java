@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+
+/**
+ * Reports the native memory owned by native mirrors of R objects (e.g. vectors whose data were
+ * handed over to native code), which is not included in the Java heap statistics. The sizes are
+ * in bytes; {@code gcTrigger} is the amount of memory at which FastR requests the next Java GC and
+ * {@code triggeredGCs} counts how many times this has happened.
+ */
+@RBuiltin(name = ".fastr.nativememory", kind = PRIMITIVE, parameterNames = {}, behavior = COMPLEX)
+public abstract class FastRNativeMemory extends RBuiltinNode.Arg0 {
+
+    private static final String[] NAMES = new String[]{"used", "maxUsed", "gcTrigger", "softLimit", "triggeredGCs"};
+
+    @Specialization
+    @TruffleBoundary
+    protected RDoubleVector nativeMemory() {
+        double[] data = new double[]{
+                        NativeDataAccess.getNativeMemoryInUse(),
+                        NativeDataAccess.getNativeMemoryMaxUsed(),
+                        asDouble(NativeDataAccess.getNativeMemoryGCTrigger()),
+                        asDouble(NativeDataAccess.getNativeMemorySoftLimit()),
+                        NativeDataAccess.getNativeMemoryTriggeredGCs()};
+        return RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR, RDataFactory.createStringVector(NAMES, RDataFactory.COMPLETE_VECTOR));
+    }
+
+    private static double asDouble(long limit) {
+        return limit == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : limit;
+    }
+}
@@ -33,9 +33,15 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
-import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocSites;
 
+/**
+ * Starts or stops recording of the allocation sites used by
+ * {@code .fastr.profmem.retained(by = "site")}, see {@link MemAllocSites}.
+ */
 @RBuiltin(name = ".fastr.profmem", visibility = OFF, kind = PRIMITIVE, parameterNames = {"on"}, behavior = IO)
 public abstract class FastRprofmem extends RBuiltinNode.Arg1 {
 
@@ -57,8 +63,15 @@ public abstract class FastRprofmem extends RBuiltinNode.Arg1 {
 
     @Specialization
     @TruffleBoundary
-    public Object doProfMem(@SuppressWarnings("unused") boolean on) {
-        // TODO: port to new instrumentation API, original code can be found in git history
-        throw error(Message.GENERIC, ".fastr.profmem is not available.");
+    public Object doProfMem(boolean on) {
+        // TODO: port the allocation stacks to new instrumentation API, original code can be found
+        // in git history
+        MemAllocSites sites = RContext.getInstance().getInstrumentationState().getMemAllocSites();
+        if (on) {
+            sites.start();
+        } else {
+            sites.stop();
+        }
+        return RNull.instance;
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr.memprof;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.eq;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.instanceOf;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocSites;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemRetainedSnapshot;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemRetainedSnapshot.Entry;
+
+/**
+ * Takes a {@link MemRetainedSnapshot} of the memory retained by the objects reachable from the
+ * global environment, the search path and the loaded namespaces. With {@code by = "binding"}, the
+ * memory is attributed to the bindings that retain it; with {@code by = "site"}, it is attributed to
+ * the allocation sites recorded since {@code .fastr.profmem(TRUE)}, see {@link MemAllocSites}. The
+ * result is a list with elements {@code binding} or {@code site}, {@code bytes}, {@code native} and
+ * {@code objects} ordered by decreasing {@code bytes + native}. If {@code before} is a result of a
+ * previous call, the change since that snapshot is returned instead, which makes it easy to spot
+ * bindings or allocation sites that keep growing.
+ */
+@RBuiltin(name = ".fastr.profmem.retained", kind = PRIMITIVE, parameterNames = {"before", "by"}, behavior = COMPLEX)
+public abstract class FastRprofmemRetained extends RBuiltinNode.Arg2 {
+
+    private static final String BY_BINDING = "binding";
+    private static final String BY_SITE = "site";
+    private static final String[] NAMES = new String[]{BY_BINDING, "bytes", "native", "objects"};
+
+    static {
+        Casts casts = new Casts(FastRprofmemRetained.class);
+        casts.arg("before").allowNull().mustBe(instanceOf(RList.class));
+        casts.arg("by").asStringVector().mustBe(singleElement()).findFirst().mustBe(eq(BY_BINDING).or(eq(BY_SITE)));
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RNull.instance, BY_BINDING};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RList snapshot(@SuppressWarnings("unused") RNull before, String by) {
+        return toList(take(by), by);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RList diff(RList before, String by) {
+        return toList(take(by).diff(fromList(before, by)), by);
+    }
+
+    private static MemRetainedSnapshot take(String by) {
+        return MemRetainedSnapshot.take(BY_SITE.equals(by) ? RContext.getInstance().getInstrumentationState().getMemAllocSites() : null);
+    }
+
+    private MemRetainedSnapshot fromList(RList list, String by) {
+        RStringVector names = list.getNames();
+        if (list.getLength() != NAMES.length || !(list.getDataAt(0) instanceof RStringVector) || names == null || !by.equals(names.getDataAt(0))) {
+            throw error(Message.GENERIC, "'before' must be a result of .fastr.profmem.retained");
+        }
+        String[] keys = ((RStringVector) list.getDataAt(0)).getReadonlyStringData();
+        double[][] columns = new double[NAMES.length - 1][];
+        for (int i = 0; i < columns.length; i++) {
+            Object column = list.getDataAt(i + 1);
+            if (!(column instanceof RDoubleVector) || ((RDoubleVector) column).getLength() != keys.length) {
+                throw error(Message.GENERIC, "'before' must be a result of .fastr.profmem.retained");
+            }
+            columns[i] = ((RDoubleVector) column).getReadonlyData();
+        }
+        return MemRetainedSnapshot.fromColumns(keys, columns[0], columns[1], columns[2]);
+    }
+
+    private static RList toList(MemRetainedSnapshot snapshot, String by) {
+        List<Map.Entry<String, Entry>> entries = snapshot.sortedEntries();
+        int size = entries.size();
+        String[] keys = new String[size];
+        double[] bytes = new double[size];
+        double[] nativeBytes = new double[size];
+        double[] objects = new double[size];
+        for (int i = 0; i < size; i++) {
+            Map.Entry<String, Entry> e = entries.get(i);
+            keys[i] = e.getKey();
+            bytes[i] = e.getValue().getBytes();
+            nativeBytes[i] = e.getValue().getNativeBytes();
+            objects[i] = e.getValue().getObjects();
+        }
+        Object[] data = new Object[]{RDataFactory.createStringVector(keys, RDataFactory.COMPLETE_VECTOR), RDataFactory.createDoubleVector(bytes, RDataFactory.COMPLETE_VECTOR),
+                        RDataFactory.createDoubleVector(nativeBytes, RDataFactory.COMPLETE_VECTOR), RDataFactory.createDoubleVector(objects, RDataFactory.COMPLETE_VECTOR)};
+        String[] names = NAMES.clone();
+        names[0] = by;
+        return RDataFactory.createList(data, RDataFactory.createStringVector(names, RDataFactory.COMPLETE_VECTOR));
+    }
+}
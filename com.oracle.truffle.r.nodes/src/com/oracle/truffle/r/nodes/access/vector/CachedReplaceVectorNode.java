@@ -233,18 +233,22 @@ final class CachedReplaceVectorNode extends CachedVectorNode {
         if (valueLengthOneProfile.profile(valueLength != 1)) {
             verifyValueLength(positionProfiles, valueLength);
         }
+        int maxOutOfBounds = positionsCheckNode.getMaxOutOfBounds(positionProfiles);
+        boolean resize = maxOutOfBounds > vectorLength;
         if (RSharingAttributeStorage.isShareable(vector) && !ignoreRefCount) {
             // TODO find out if we need to copy always in the recursive case
             if (recursive || sharedConditionProfile.execute(vector.isShared()) || valueEqualsVectorProfile.profile(vector == value)) {
-                vector = vector.copy();
-                assert vector.isTemporary();
+                // resizing creates a new vector anyway, copying it beforehand would be wasted
+                if (!resize || (isDeleteElements() && mode.isSubscript())) {
+                    vector = vector.copy();
+                    assert vector.isTemporary();
+                }
             }
         }
         vector = sharedClassProfile.profile(vector);
         CompilerAsserts.partialEvaluationConstant(vector.getClass());
 
-        int maxOutOfBounds = positionsCheckNode.getMaxOutOfBounds(positionProfiles);
-        if (maxOutOfBounds > vectorLength) {
+        if (resize) {
             resizeProfile.enter();
             if (isDeleteElements() && mode.isSubscript()) {
                 return vector;
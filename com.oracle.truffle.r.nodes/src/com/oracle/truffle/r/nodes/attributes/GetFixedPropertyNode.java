@@ -41,6 +41,7 @@ import com.oracle.truffle.r.nodes.attributes.GetFixedPropertyNodeGen.GetTspPrope
 import com.oracle.truffle.r.runtime.DSLConfig;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 
 /**
  * Retrieves fixed property (passed in constructor) from dynamic object.
@@ -100,9 +101,25 @@ public abstract class GetFixedPropertyNode extends PropertyAccessNode {
         return location == null ? null : location.get(attrs, shape);
     }
 
+    /**
+     * Attributes created via {@link RAttributesLayout} keep one of the pre-defined shapes until
+     * another attribute is added or removed, for the special attributes this is checked before
+     * resorting to the generic lookup, which is useful in megamorphic sites.
+     */
     @Specialization(replaces = "getAttrCached")
-    @TruffleBoundary
     protected Object getAttrFallback(DynamicObject attrs) {
+        Location[] knownLocations = RAttributesLayout.getKnownLocations(getPropertyName());
+        if (knownLocations != null) {
+            Object result = RAttributesLayout.getFromKnownShape(attrs, knownLocations);
+            if (result != RAttributesLayout.NOT_KNOWN_SHAPE) {
+                return result;
+            }
+        }
+        return getAttrSlowPath(attrs);
+    }
+
+    @TruffleBoundary
+    private Object getAttrSlowPath(DynamicObject attrs) {
         return attrs.get(getPropertyName());
     }
 
@@ -22,10 +22,12 @@
  */
 package com.oracle.truffle.r.nodes.attributes;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.attributes.FixedAttributeAccessNode.GenericFixedAttributeAccessNode;
 import com.oracle.truffle.r.nodes.attributes.SetFixedAttributeNodeFactory.SetGenericFixedAttributeNodeGen;
 import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
@@ -49,6 +51,9 @@ import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
 public abstract class SetFixedAttributeNode extends GenericFixedAttributeAccessNode {
 
     private final BranchProfile fixupRHS = BranchProfile.create();
+    private final ConditionProfile sameValueProfile = ConditionProfile.createBinaryProfile();
+
+    @Child private GetFixedPropertyNode getOldValueNode;
 
     protected SetFixedAttributeNode(String name) {
         super(name);
@@ -106,11 +111,23 @@ public abstract class SetFixedAttributeNode extends GenericFixedAttributeAccessN
         if (attributes == null) {
             attrNullProfile.enter();
             attributes = x.initAttributes();
+        } else if (sameValueProfile.profile(getOldValue(attributes) == value)) {
+            // nested replacements, e.g. names(x)[i] <- v, modify the attribute value in place and
+            // set it back, counting the same owner twice would make the next replacement copy it
+            return;
         }
         setFixedPropertyNode.execute(attributes, value);
         updateRefCountNode.execute(value);
     }
 
+    private Object getOldValue(DynamicObject attributes) {
+        if (getOldValueNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            getOldValueNode = insert(GetFixedPropertyNode.create(getAttributeName()));
+        }
+        return getOldValueNode.execute(attributes);
+    }
+
     abstract static class SetGenericFixedAttributeNode extends SetFixedAttributeNode {
 
         SetGenericFixedAttributeNode(String name) {
@@ -52,6 +52,7 @@ import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RIntSequence;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
@@ -971,6 +972,8 @@ public final class SpecialAttributesFunctions {
     public abstract static class SetRowNamesAttributeNode extends SetSpecialAttributeNode {
 
         private final ConditionProfile nullRowNamesProfile = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile compactProfile = ConditionProfile.createBinaryProfile();
+        private final LoopConditionProfile compactLoopProfile = LoopConditionProfile.createCountingProfile();
 
         protected SetRowNamesAttributeNode() {
             super(RRuntime.ROWNAMES_ATTR_KEY);
@@ -999,13 +1002,49 @@ public final class SpecialAttributesFunctions {
                         @Cached("create()") BranchProfile attrNullProfile,
                         @Cached("createRowNames()") SetFixedPropertyNode setFixedPropertyNode,
                         @Cached("create()") ShareObjectNode updateRefCountNode) {
+            RAbstractVector rowNames = compactRowNames(newRowNames);
             if (x.getAttributes() == null) {
                 attrNullProfile.enter();
-                x.initAttributes(RAttributesLayout.createRowNames(newRowNames));
-                updateRefCountNode.execute(newRowNames);
+                x.initAttributes(RAttributesLayout.createRowNames(rowNames));
+                updateRefCountNode.execute(rowNames);
                 return;
             }
-            setAttrInAttributable(x, newRowNames, attrNullProfile, setFixedPropertyNode, updateRefCountNode);
+            setAttrInAttributable(x, rowNames, attrNullProfile, setFixedPropertyNode, updateRefCountNode);
+        }
+
+        /**
+         * Like {@code row_names_gets} in GNU R: integer row names {@code 1:n} with {@code n > 2} are
+         * stored in the compact form {@code c(NA, n)}, so that data frames subset to their leading
+         * rows do not carry a materialized row names vector. Double compact row names are
+         * converted to integer ones.
+         */
+        private RAbstractVector compactRowNames(RAbstractVector rowNames) {
+            if (rowNames instanceof RAbstractDoubleVector) {
+                return (RAbstractVector) GetRowNamesAttributeNode.ensureRowNamesCompactFormat(rowNames);
+            }
+            if (!(rowNames instanceof RAbstractIntVector)) {
+                return rowNames;
+            }
+            int n = rowNames.getLength();
+            if (compactProfile.profile(n > 2 && isOneToN((RAbstractIntVector) rowNames))) {
+                return RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, n}, RDataFactory.INCOMPLETE_VECTOR);
+            }
+            return rowNames;
+        }
+
+        private boolean isOneToN(RAbstractIntVector rowNames) {
+            if (rowNames instanceof RIntSequence) {
+                RIntSequence seq = (RIntSequence) rowNames;
+                return seq.getStart() == 1 && seq.getStride() == 1;
+            }
+            int n = rowNames.getLength();
+            compactLoopProfile.profileCounted(n);
+            for (int i = 0; compactLoopProfile.inject(i < n); i++) {
+                if (rowNames.getDataAt(i) != i + 1) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
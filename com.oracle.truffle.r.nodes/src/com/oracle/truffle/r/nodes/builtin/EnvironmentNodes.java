@@ -72,7 +72,7 @@ public final class EnvironmentNodes {
         @TruffleBoundary
         private static REnvironment createNewEnv(String envName, REnvironment parentEnv) {
             REnvironment createNewEnv = RDataFactory.createNewEnv(envName);
-            RArguments.initializeEnclosingFrame(createNewEnv.getFrame(), parentEnv.getFrame());
+            createNewEnv.initializeParent(parentEnv);
             createNewEnv.setParent(parentEnv);
             return createNewEnv;
         }
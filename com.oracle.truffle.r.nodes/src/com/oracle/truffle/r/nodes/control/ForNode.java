@@ -37,11 +37,13 @@ import com.oracle.truffle.api.nodes.LoopNode;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.nodes.RASTUtils;
 import com.oracle.truffle.r.nodes.access.WriteVariableNode;
 import com.oracle.truffle.r.nodes.access.WriteVariableNode.Mode;
 import com.oracle.truffle.r.nodes.access.variables.LocalReadVariableNode;
+import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetClassAttributeNode;
 import com.oracle.truffle.r.nodes.function.visibility.SetVisibilityNode;
 import com.oracle.truffle.r.runtime.AnonymousFrameVariable;
 import com.oracle.truffle.r.runtime.ArgumentsSignature;
@@ -50,6 +52,11 @@ import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.model.RAbstractAtomicVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 import com.oracle.truffle.r.runtime.interop.ConvertForeignObjectNode;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
 import com.oracle.truffle.r.runtime.nodes.RNode;
@@ -222,7 +229,7 @@ public abstract class ForNode extends AbstractLoopNode implements RSyntaxNode, R
         AbstractIndexRepeatingNode(ForNode forNode, String var, RNode body, String indexName, String positionName, String lengthName, String rangeName) {
             super(body);
             this.forNode = forNode;
-            this.writeElementNode = WriteVariableNode.createAnonymous(var, Mode.REGULAR, createPositionLoad(positionName, rangeName), false);
+            this.writeElementNode = WriteVariableNode.createAnonymous(var, Mode.REGULAR, createElementLoad(positionName, rangeName), false);
 
             this.readIndexNode = LocalReadVariableNode.create(indexName, true);
             this.readLengthNode = LocalReadVariableNode.create(lengthName, true);
@@ -231,7 +238,14 @@ public abstract class ForNode extends AbstractLoopNode implements RSyntaxNode, R
             conditionProfile.profile(false);
         }
 
-        private static RNode createPositionLoad(String positionName, String rangeName) {
+        /**
+         * Overridden by loops whose position is not an index into the range.
+         */
+        protected RNode createElementLoad(String positionName, String rangeName) {
+            return createPositionLoad(positionName, rangeName);
+        }
+
+        static RNode createPositionLoad(String positionName, String rangeName) {
             RCodeBuilder<RSyntaxNode> builder = RContext.getASTBuilder();
             RSyntaxNode receiver = builder.lookup(RSyntaxNode.INTERNAL, rangeName, false);
             RSyntaxNode position = builder.lookup(RSyntaxNode.INTERNAL, positionName, false);
@@ -285,6 +299,11 @@ public abstract class ForNode extends AbstractLoopNode implements RSyntaxNode, R
             super(forNode, var, body, indexName, indexName, lengthName, rangeName);
         }
 
+        @Override
+        protected RNode createElementLoad(String positionName, String rangeName) {
+            return new LoadIndexedElementNode(positionName, rangeName);
+        }
+
         @Override
         protected boolean writePosition(VirtualFrame frame, int index) {
             // index already used as position
@@ -293,6 +312,62 @@ public abstract class ForNode extends AbstractLoopNode implements RSyntaxNode, R
 
     }
 
+    /**
+     * Loads the element of the range at the current index. The common ranges, i.e. sequences such
+     * as {@code seq_along(x)} or {@code 1:n} and atomic vectors without a class attribute, are read
+     * directly with the type check done once per loop entry thanks to the class profile, instead
+     * of evaluating a full {@code [[} call in every iteration. Any other range (lists, objects with
+     * a class, foreign arrays) permanently switches to the {@code [[} call.
+     */
+    private static final class LoadIndexedElementNode extends RNode {
+
+        @Child private LocalReadVariableNode readRangeNode;
+        @Child private LocalReadVariableNode readIndexNode;
+        @Child private GetClassAttributeNode getClassNode = GetClassAttributeNode.create();
+        @Child private RNode genericLoad;
+
+        private final ValueProfile rangeClassProfile = ValueProfile.createClassProfile();
+        private final String positionName;
+        private final String rangeName;
+
+        LoadIndexedElementNode(String positionName, String rangeName) {
+            this.positionName = positionName;
+            this.rangeName = rangeName;
+            this.readRangeNode = LocalReadVariableNode.create(rangeName, true);
+            this.readIndexNode = LocalReadVariableNode.create(positionName, true);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            if (genericLoad == null) {
+                Object range = rangeClassProfile.profile(readRangeNode.execute(frame));
+                if (range instanceof Integer || range instanceof Double || range instanceof Byte || range instanceof String) {
+                    // scalar range, the only valid index is 1
+                    return range;
+                } else if (range instanceof RAbstractAtomicVector && !getClassNode.isObject((RAbstractAtomicVector) range)) {
+                    int index;
+                    try {
+                        index = readIndexNode.executeInteger(frame) - 1;
+                    } catch (UnexpectedResultException e) {
+                        throw RInternalError.shouldNotReachHere("For index must be Integer.");
+                    }
+                    if (range instanceof RAbstractIntVector) {
+                        return ((RAbstractIntVector) range).getDataAt(index);
+                    } else if (range instanceof RAbstractDoubleVector) {
+                        return ((RAbstractDoubleVector) range).getDataAt(index);
+                    } else if (range instanceof RAbstractLogicalVector) {
+                        return ((RAbstractLogicalVector) range).getDataAt(index);
+                    } else if (range instanceof RAbstractStringVector) {
+                        return ((RAbstractStringVector) range).getDataAt(index);
+                    }
+                }
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                genericLoad = insert(AbstractIndexRepeatingNode.createPositionLoad(positionName, rangeName));
+            }
+            return genericLoad.execute(frame);
+        }
+    }
+
     private static final class ForMembersRepeatingNode extends AbstractIndexRepeatingNode {
 
         @Child private LocalReadVariableNode readMembersNode;
@@ -46,6 +46,7 @@ import com.oracle.truffle.r.runtime.RArguments.S3Args;
 import com.oracle.truffle.r.runtime.RDispatch;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
@@ -295,6 +296,7 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
         @Override
         public Result execute(VirtualFrame frame, String genericName, RStringVector type, String group, MaterializedFrame callerFrame, MaterializedFrame genericDefFrame) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
+            RMetrics.S3_DISPATCH_CACHE_MISSES.increment();
             if (depth > DSLConfig.getCacheSize(MAX_CACHE_DEPTH)) {
                 return replace(new UseMethodFunctionLookupGenericNode(throwsError, nextMethod, defaultMethod)).execute(frame, genericName, type, group, callerFrame, genericDefFrame);
             } else {
@@ -391,6 +393,7 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
                 }
             } while (true);
             CompilerDirectives.transferToInterpreterAndInvalidate();
+            RMetrics.S3_DISPATCH_CACHE_MISSES.increment();
             return replace(specialize(frame, genericName, type, group, callerFrame, genericDefFrame, next)).execute(frame, genericName, type, group, callerFrame, genericDefFrame);
         }
 
@@ -452,6 +455,7 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
 
         @TruffleBoundary
         private Result executeInternal(String genericName, RStringVector type, String group, MaterializedFrame callerFrame, MaterializedFrame genericDefFrame) {
+            RMetrics.S3_DISPATCH_CACHE_MISSES.increment();
             LookupOperation op = (lookupFrame, name, inMethodsTable) -> {
                 return ReadVariableNode.lookupFunction(name, lookupFrame, inMethodsTable, true);
             };
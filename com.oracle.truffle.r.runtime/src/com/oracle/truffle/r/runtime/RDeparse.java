@@ -19,6 +19,9 @@
  */
 package com.oracle.truffle.r.runtime;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -272,9 +275,17 @@ public class RDeparse {
 
     private static final class DeparseVisitor {
 
+        /**
+         * When writing to {@link #out}, the completed lines are written out once the buffer
+         * reaches this size.
+         */
+        private static final int FLUSH_THRESHOLD = 64 * 1024;
+
         private final Visitor visitor = new Visitor();
 
         private final StringBuilder sb = new StringBuilder();
+        private final Writer out;
+        private boolean flushed;
 
         private final ArrayList<SourceSectionElement> sources;
 
@@ -295,12 +306,18 @@ public class RDeparse {
         }
 
         DeparseVisitor(boolean storeSource, int cutoff, boolean backtick, int opts, int nlines, int debugCutoff) {
+            this(storeSource, cutoff, backtick, opts, nlines, debugCutoff, null);
+        }
+
+        DeparseVisitor(boolean storeSource, int cutoff, boolean backtick, int opts, int nlines, int debugCutoff, Writer out) {
+            assert out == null || !storeSource : "source sections need the whole text";
             this.listCutoff = cutoff;
             this.backtick = backtick;
             this.opts = opts;
             this.nlines = nlines;
             this.sources = storeSource ? new ArrayList<>() : null;
             this.debugCutoff = debugCutoff;
+            this.out = out;
         }
 
         public String getContents() {
@@ -317,6 +334,44 @@ public class RDeparse {
             return sb.toString();
         }
 
+        /**
+         * Writes the rest of the text to {@link #out}, stripping surplus newlines like
+         * {@link #getContents()}.
+         */
+        public void writeContents() throws IOException {
+            int length = sb.length();
+            while (length > (flushed ? 0 : 1)) {
+                char c = sb.charAt(length - 1);
+                if (c != '\n' && c != ' ') {
+                    break;
+                }
+                length--;
+            }
+            out.append(sb, 0, length);
+        }
+
+        /**
+         * Writes the completed lines to {@link #out}. Trailing whitespace stays in the buffer, so
+         * that {@link #writeContents()} can still strip it at the end.
+         */
+        private void flush() {
+            int end = lastLineStart;
+            while (end > 0 && (sb.charAt(end - 1) == '\n' || sb.charAt(end - 1) == ' ')) {
+                end--;
+            }
+            if (end == 0) {
+                return;
+            }
+            try {
+                out.append(sb, 0, end);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sb.delete(0, end);
+            lastLineStart -= end;
+            flushed = true;
+        }
+
         private boolean showAttributes() {
             return (opts & SHOWATTRIBUTES) != 0;
         }
@@ -419,6 +474,9 @@ public class RDeparse {
             if (nlines > 0 && curLine >= nlines) {
                 throw new MaxLinesReachedException();
             }
+            if (out != null && lastLineStart >= FLUSH_THRESHOLD) {
+                flush();
+            }
             for (int i = 0; i < indent; i++) {
                 sb.append(i < 4 ? "    " : "  ");
             }
@@ -1279,6 +1337,20 @@ public class RDeparse {
         return new DeparseVisitor(false, cutoff, backtick, opts, nlines, debugCutoff).appendValue(expr).getContents();
     }
 
+    /**
+     * Deparses {@code expr} like {@link #deparse(Object, int, boolean, int, int)}, but writes the
+     * text to {@code out} as the deparsing progresses instead of building one string, which keeps
+     * the memory footprint small when deparsing large objects.
+     */
+    @TruffleBoundary
+    public static void deparse(Object expr, int cutoff, boolean backtick, int opts, int nlines, Writer out) throws IOException {
+        try {
+            new DeparseVisitor(false, cutoff, backtick, opts, nlines, -1, out).appendValue(expr).writeContents();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Ensure that {@code node} has a {@link SourceSection} by deparsing if necessary.
      */
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+
+/**
+ * Engine wide counters, available in R via {@code .fastr.metrics()} and, if the
+ * {@link FastROptions#METRICS_JMX} environment variable is set, through the {@code FastR:type=JMX,
+ * name=Metrics} MBean.
+ *
+ * Some of the counters are updated on the hottest paths of the engine, e.g. on every promise force
+ * or native call, so nothing is counted unless {@link FastROptions#METRICS} or
+ * {@link FastROptions#METRICS_JMX} is set. The check is a constant in compiled code. When enabled,
+ * the counters are {@link LongAdder}s, so that updates from several threads are neither lost nor
+ * contended.
+ */
+public final class RMetrics {
+
+    /**
+     * A constant in compiled code, so the counting disappears when it is not enabled.
+     */
+    private static final boolean ENABLED = System.getenv(FastROptions.METRICS) != null || System.getenv(FastROptions.METRICS_JMX) != null;
+
+    public static final class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                add(value, 1);
+            }
+        }
+
+        public void add(long delta) {
+            if (ENABLED) {
+                add(value, delta);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final Counter CONTEXTS_CREATED = new Counter("contextsCreated");
+    public static final Counter PROMISES_FORCED = new Counter("promisesForced");
+    public static final Counter S3_DISPATCH_CACHE_MISSES = new Counter("s3DispatchCacheMisses");
+    public static final Counter S4_DISPATCH_CACHE_MISSES = new Counter("s4DispatchCacheMisses");
+    public static final Counter NATIVE_DOWNCALLS = new Counter("nativeDowncalls");
+    public static final Counter NATIVE_UPCALLS = new Counter("nativeUpcalls");
+    public static final Counter CONNECTION_BYTES_READ = new Counter("connectionBytesRead");
+    public static final Counter CONNECTION_BYTES_WRITTEN = new Counter("connectionBytesWritten");
+
+    private static final Counter[] COUNTERS = {CONTEXTS_CREATED, PROMISES_FORCED, S3_DISPATCH_CACHE_MISSES, S4_DISPATCH_CACHE_MISSES, NATIVE_DOWNCALLS, NATIVE_UPCALLS,
+                    CONNECTION_BYTES_READ, CONNECTION_BYTES_WRITTEN};
+
+    private static final RType[] TYPES = RType.values();
+    private static final LongAdder[] allocations = createAdders(TYPES.length);
+    private static final LongAdder[] copies = createAdders(TYPES.length);
+
+    private RMetrics() {
+        // only static methods
+    }
+
+    private static LongAdder[] createAdders(int length) {
+        LongAdder[] result = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = new LongAdder();
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private static void add(LongAdder adder, long delta) {
+        adder.add(delta);
+    }
+
+    /**
+     * Counts an object created via {@code RDataFactory}.
+     */
+    public static void countAllocation(RType type) {
+        if (ENABLED) {
+            add(allocations[type.ordinal()], 1);
+        }
+    }
+
+    /**
+     * Counts a copy of a vector, as reported to {@code MemoryCopyTracer}.
+     */
+    public static void countCopy(RType type) {
+        if (ENABLED) {
+            add(copies[type.ordinal()], 1);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the values of all the counters, which are zero unless {@link #isEnabled()}.
+     */
+    @TruffleBoundary
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Counter counter : COUNTERS) {
+            result.put(counter.name, counter.get());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of allocations by the type name; types that were never allocated are
+     * omitted. Empty unless {@link #isEnabled()}.
+     */
+    @TruffleBoundary
+    public static Map<String, Long> getAllocations() {
+        return byType(allocations);
+    }
+
+    /**
+     * Returns the number of copies by the type name; types that were never copied are omitted.
+     * Empty unless {@link #isEnabled()}.
+     */
+    @TruffleBoundary
+    public static Map<String, Long> getCopies() {
+        return byType(copies);
+    }
+
+    private static Map<String, Long> byType(LongAdder[] values) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            long value = values[i].sum();
+            if (value != 0) {
+                result.put(TYPES[i].getName(), value);
+            }
+        }
+        return result;
+    }
+
+    public interface MetricsMXBean {
+        Map<String, Long> getCounters();
+
+        Map<String, Long> getAllocations();
+
+        Map<String, Long> getCopies();
+    }
+
+    public static final class Metrics implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return RMetrics.getCounters();
+        }
+
+        @Override
+        public Map<String, Long> getAllocations() {
+            return RMetrics.getAllocations();
+        }
+
+        @Override
+        public Map<String, Long> getCopies() {
+            return RMetrics.getCopies();
+        }
+    }
+
+    static void initMBean() {
+        if (System.getenv(FastROptions.METRICS_JMX) != null) {
+            try {
+                MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName("FastR:type=JMX,name=Metrics");
+                mbs.registerMBean(new Metrics(), name);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    static {
+        initMBean();
+    }
+}
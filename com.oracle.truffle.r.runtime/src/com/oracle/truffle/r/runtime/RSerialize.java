@@ -592,14 +592,14 @@ public class RSerialize {
 
                     Object enclos = readItem();
                     REnvironment enclosing = enclos == RNull.instance ? REnvironment.baseEnv() : (REnvironment) enclos;
-                    RArguments.initializeEnclosingFrame(env.getFrame(), enclosing.getFrame());
+                    env.initializeParent(enclosing);
                     Object frame = readItem();
                     boolean hashed = frame == RNull.instance;
                     Object hashtab = readItem();
                     if (hashed) {
                         if (hashtab != RNull.instance) {
-                            env.setHashed(true);
                             env.setInitialSize(((RList) hashtab).getLength());
+                            env.setHashed(true);
                             RList hashList = (RList) hashtab;
                             // GnuR sizes its hash tables, empty slots indicated by RNull
                             for (int i = 0; i < hashList.getLength(); i++) {
@@ -43,6 +43,7 @@ import java.util.Objects;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.BaseRConnection;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
@@ -473,7 +474,7 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
             } while (totalBytesRead < bytesRequested && bytesToRead > 0 && !eof);
             return totalBytesRead == 0 && eof ? -1 : totalBytesRead;
         } else {
-            return getChannel().read(dst);
+            return readChannel(dst);
         }
     }
 
@@ -491,10 +492,24 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
             return total;
         } else {
             invalidateCache();
-            return getChannel().write(src);
+            return writeChannel(src);
         }
     }
 
+    private int readChannel(ByteBuffer dst) throws IOException {
+        int n = getChannel().read(dst);
+        if (n > 0) {
+            RMetrics.CONNECTION_BYTES_READ.add(n);
+        }
+        return n;
+    }
+
+    private int writeChannel(ByteBuffer src) throws IOException {
+        int n = getChannel().write(src);
+        RMetrics.CONNECTION_BYTES_WRITTEN.add(n);
+        return n;
+    }
+
     /**
      * Reads one byte from the channel.<br>
      * <p>
@@ -514,7 +529,7 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
         } else {
 
             ByteBuffer buf = ByteBuffer.allocate(1);
-            int n = getChannel().read(buf);
+            int n = readChannel(buf);
             if (n <= 0) {
                 return -1;
             }
@@ -531,7 +546,7 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
             assert !cache.hasRemaining();
             cache.clear();
             cache.put(rem);
-            int read = getChannel().read(cache);
+            int read = readChannel(cache);
             cache.flip();
             return read == -1;
         }
@@ -602,7 +617,7 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
     public void flush() throws IOException {
         if (!readCache && cache != null) {
             cache.flip();
-            getChannel().write(cache);
+            writeChannel(cache);
             cache.clear();
         }
     }
@@ -146,6 +146,28 @@ public class FastROptions {
      */
     public static final String NATIVE_DATA_INSPECTOR = "NATIVE_DATA_INSPECTOR";
 
+    /**
+     * The <code>FASTR_NATIVE_MEMORY_SOFT_LIMIT</code> environment variable sets the amount of native
+     * memory (in megabytes, 1024 by default) held by native mirrors of R objects, whose growth
+     * triggers a Java GC so that the memory of unreachable objects gets released. Zero or a negative
+     * value turns this off.
+     */
+    public static final String NATIVE_MEMORY_SOFT_LIMIT = "FASTR_NATIVE_MEMORY_SOFT_LIMIT";
+
+    /**
+     * The presence of the <code>FASTR_METRICS</code> variable in the environment turns on the engine
+     * metrics reported by <code>.fastr.metrics()</code>.
+     */
+    public static final String METRICS = "FASTR_METRICS";
+
+    /**
+     * The presence of the <code>FASTR_METRICS_JMX</code> variable in the environment registers the
+     * JMX bean {@link com.oracle.truffle.r.runtime.RMetrics.Metrics} that exposes the engine
+     * metrics also available via <code>.fastr.metrics()</code>. It implies
+     * <code>FASTR_METRICS</code>.
+     */
+    public static final String METRICS_JMX = "FASTR_METRICS_JMX";
+
     /**
      * For now we enforce that this option is set JVM wide, so that we can avoid reading it via
      * {@link RContext} on the fastr path.
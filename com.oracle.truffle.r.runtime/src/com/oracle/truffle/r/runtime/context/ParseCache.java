@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.context;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.r.runtime.context.Engine.ParserMetadata;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
+
+/**
+ * Caches the syntax trees produced by parsing a {@link Source}, so that {@code parse} and
+ * {@code source} of identical code, e.g., when (re)loading packages or sourcing the same file in a
+ * loop, do not run the parser again. Sources are compared by their content and metadata, see
+ * {@link Source#equals(Object)}, and the cache keeps the most recently used sources only.
+ *
+ * The cached trees are never handed out or executed. Every lookup returns a fresh copy, so the
+ * callers are free to adopt, specialize or modify the trees they get. The copies are rebuilt by the
+ * AST builder rather than cloned, because the function definitions in a tree own their call
+ * targets and root nodes, which must not be shared between the copies (e.g., {@code debug} or the
+ * specializations of one function would otherwise leak to all functions parsed from the same
+ * code).
+ *
+ * Copying the trees costs about as much as parsing, so a source is only copied into the cache when
+ * it is parsed for the second time; the first time just records that it was seen. The cache is
+ * bounded by the number of sources and by the total length of the sources whose trees it holds,
+ * and sources longer than {@link #MAX_SOURCE_LENGTH} are never copied.
+ */
+public final class ParseCache {
+
+    private static final int MAX_ENTRIES = 64;
+    private static final int MAX_SOURCE_LENGTH = 1 << 20;
+    private static final long MAX_CACHED_LENGTH = 4L << 20;
+
+    private static final class Entry {
+        /**
+         * {@code null} if the source was parsed only once so far.
+         */
+        private final List<RSyntaxNode> statements;
+        private final ParserMetadata parseData;
+        private final int length;
+
+        Entry(List<RSyntaxNode> statements, ParserMetadata parseData, int length) {
+            this.statements = statements;
+            this.parseData = parseData;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The result of a lookup: copies of the cached statements together with the parse data.
+     */
+    public static final class Parsed {
+        private final List<RSyntaxNode> statements;
+        private final ParserMetadata parseData;
+
+        private Parsed(List<RSyntaxNode> statements, ParserMetadata parseData) {
+            this.statements = statements;
+            this.parseData = parseData;
+        }
+
+        public List<RSyntaxNode> getStatements() {
+            return statements;
+        }
+
+        public ParserMetadata getParseData() {
+            return parseData;
+        }
+    }
+
+    private final LinkedHashMap<Source, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The total length of the sources whose trees are cached.
+     */
+    private long cachedLength;
+
+    /**
+     * Returns copies of the statements parsed from {@code source}, or {@code null} if the source
+     * is not cached.
+     */
+    @TruffleBoundary
+    public synchronized Parsed get(Source source) {
+        Entry entry = cache.get(source);
+        if (entry == null || entry.statements == null) {
+            return null;
+        }
+        return new Parsed(copy(entry.statements), copy(entry.parseData));
+    }
+
+    /**
+     * Records the result of parsing {@code source}. If the source was parsed before, the cache
+     * keeps its own copy of the statements and of the parse data, so the caller can keep using the
+     * original ones.
+     */
+    @TruffleBoundary
+    public synchronized void put(Source source, List<RSyntaxNode> statements, ParserMetadata parseData) {
+        Entry previous = cache.get(source);
+        Entry entry;
+        if (previous == null || source.getLength() > MAX_SOURCE_LENGTH) {
+            entry = new Entry(null, null, 0);
+        } else if (previous.statements == null) {
+            entry = new Entry(copy(statements), copy(parseData), source.getLength());
+        } else {
+            // another thread cached the source in the meantime
+            return;
+        }
+        cache.put(source, entry);
+        cachedLength += entry.length - (previous == null ? 0 : previous.length);
+        Iterator<Entry> eldest = cache.values().iterator();
+        while (cache.size() > MAX_ENTRIES || cachedLength > MAX_CACHED_LENGTH) {
+            cachedLength -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    private static List<RSyntaxNode> copy(List<RSyntaxNode> statements) {
+        ArrayList<RSyntaxNode> result = new ArrayList<>(statements.size());
+        for (RSyntaxNode statement : statements) {
+            result.add(RContext.getASTBuilder().process(statement));
+        }
+        return result;
+    }
+
+    private static ParserMetadata copy(ParserMetadata parseData) {
+        // the arrays end up in R vectors without being copied
+        return new ParserMetadata(parseData.getData().clone(), parseData.getTokens().clone(), parseData.getText().clone());
+    }
+}
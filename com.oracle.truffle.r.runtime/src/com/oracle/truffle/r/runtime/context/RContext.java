@@ -82,6 +82,7 @@ import com.oracle.truffle.r.runtime.RInternalCode.ContextStateImpl;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RLocale;
 import com.oracle.truffle.r.runtime.RLogger;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.ROptions;
 import com.oracle.truffle.r.runtime.RProfile;
 import com.oracle.truffle.r.runtime.RRuntime;
@@ -616,6 +617,7 @@ public final class RContext {
      * @param isInitial {@code true} iff this is the initial context
      */
     public static RContext create(TruffleRLanguage language, Env env, Instrumenter instrumenter, boolean isInitial) {
+        RMetrics.CONTEXTS_CREATED.increment();
         return new RContext(language, env, instrumenter, isInitial);
     }
 
@@ -80,6 +80,12 @@ public final class TruffleRLanguage extends TruffleLanguage<RContext> {
         return builtinFunctionCache;
     }
 
+    private final ParseCache parseCache = new ParseCache();
+
+    public ParseCache getParseCache() {
+        return parseCache;
+    }
+
     /**
      * The choice of {@link RFFIFactory} is made statically so that it is bound into an AOT-compiled
      * VM. The decision is made directly in {@link RFFIFactory} to avoid some project dependencies
@@ -23,9 +23,10 @@
 package com.oracle.truffle.r.runtime.data;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -52,11 +53,27 @@ import java.nio.charset.StandardCharsets;
  */
 @ExportLibrary(InteropLibrary.class)
 public final class CharSXPWrapper extends RBaseObject {
-    private static final Map<CharSXPWrapper, WeakReference<CharSXPWrapper>> instances = new WeakHashMap<>(2048);
+    /**
+     * The global CHARSXP cache: there is at most one live wrapper for given contents, so that the
+     * wrappers (and their native copies) are shared and pointer comparison of CHARSXPs works as in
+     * GNU R. The lookup is keyed directly by the contents, so that a hit does not allocate, and the
+     * entries of collected wrappers are removed lazily.
+     */
+    private static final ConcurrentHashMap<String, CharSXPReference> instances = new ConcurrentHashMap<>(2048);
+    private static final ReferenceQueue<CharSXPWrapper> collectedInstances = new ReferenceQueue<>();
     private static final CharSXPWrapper NA = new CharSXPWrapper(RRuntime.STRING_NA);
     private String contents;
     private byte[] bytes;
 
+    private static final class CharSXPReference extends WeakReference<CharSXPWrapper> {
+        private final String key;
+
+        CharSXPReference(CharSXPWrapper wrapper, String key) {
+            super(wrapper, collectedInstances);
+            this.key = key;
+        }
+    }
+
     private CharSXPWrapper(String contents) {
         this.contents = contents;
         setTypedValueInfo(ASCII_MASK_SHIFTED);
@@ -158,27 +175,48 @@ public final class CharSXPWrapper extends RBaseObject {
         return create(contents, true);
     }
 
+    @TruffleBoundary
     private static CharSXPWrapper create(String contents, boolean intern) {
         assert !intern || Utils.isInterned(contents);
         if (RRuntime.isNA(contents)) {
             return NA;
-        } else {
-            CharSXPWrapper cachedWrapper;
-            CharSXPWrapper newWrapper = new CharSXPWrapper(contents);
-            synchronized (instances) {
-                WeakReference<CharSXPWrapper> wr = instances.get(newWrapper);
-                if (wr != null) {
-                    cachedWrapper = wr.get();
-                    if (cachedWrapper != null) {
-                        if (intern) {
-                            cachedWrapper.contents = contents;
-                        }
-                        return cachedWrapper;
-                    }
-                }
-                instances.put(newWrapper, new WeakReference<>(newWrapper));
+        }
+        expungeCollected();
+        CharSXPReference ref = instances.get(contents);
+        CharSXPWrapper cachedWrapper = ref != null ? ref.get() : null;
+        if (cachedWrapper != null) {
+            return reuse(cachedWrapper, contents, intern);
+        }
+        CharSXPWrapper newWrapper = new CharSXPWrapper(contents);
+        CharSXPReference newRef = new CharSXPReference(newWrapper, contents);
+        while (true) {
+            CharSXPReference existing = instances.putIfAbsent(contents, newRef);
+            if (existing == null) {
+                return newWrapper;
             }
-            return newWrapper;
+            cachedWrapper = existing.get();
+            if (cachedWrapper != null) {
+                // another thread was faster
+                return reuse(cachedWrapper, contents, intern);
+            }
+            if (instances.replace(contents, existing, newRef)) {
+                return newWrapper;
+            }
+        }
+    }
+
+    private static CharSXPWrapper reuse(CharSXPWrapper cachedWrapper, String contents, boolean intern) {
+        if (intern) {
+            cachedWrapper.contents = contents;
+        }
+        return cachedWrapper;
+    }
+
+    private static void expungeCollected() {
+        Reference<? extends CharSXPWrapper> ref;
+        while ((ref = collectedInstances.poll()) != null) {
+            CharSXPReference charSXPRef = (CharSXPReference) ref;
+            instances.remove(charSXPRef.key, charSXPRef);
         }
     }
 
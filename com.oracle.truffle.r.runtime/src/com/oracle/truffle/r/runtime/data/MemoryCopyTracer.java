@@ -23,12 +23,16 @@
 
 package com.oracle.truffle.r.runtime.data;
 
+import java.util.Collections;
 import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 
@@ -36,11 +40,14 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
  * Helper for tracing memory copying events, as used by the {@code tracemem} bultin. All
  * implementors of {@link RAbstractVector} are expected to report to {@link MemoryCopyTracer} and
  * others can listen to them through {@link Listener} interface. Use method
- * {@link #setTracingState(boolean)} to enable/disable the tracing.
+ * {@link #setTracingState(Object, boolean)} to enable/disable the tracing. The tracing is shared by
+ * {@code tracemem}, {@code Rprof} memory profiling and {@code .fastr.copyaudit}, therefore it stays
+ * enabled as long as at least one of its users needs it.
  */
 public final class MemoryCopyTracer {
     private static Deque<Listener> listeners = new ConcurrentLinkedDeque<>();
     private static boolean enabled;
+    private static final Set<Object> activeUsers = Collections.newSetFromMap(new IdentityHashMap<>());
 
     private static final Assumption noMemoryCopyTracingAssumption = Truffle.getRuntime().createAssumption("data copy tracing");
 
@@ -56,15 +63,23 @@ public final class MemoryCopyTracer {
     }
 
     /**
-     * After calling this method memory related events will be reported to the listener. This
-     * invalidates global assumption and should be used with caution.
+     * Registers ({@code newState == true}) or unregisters the given user of the tracing. Memory
+     * related events are reported to the listeners while there is at least one registered user.
+     * Enabling the tracing for the first time invalidates global assumption and should be used with
+     * caution.
      */
-    public static void setTracingState(boolean newState) {
-        if (enabled != newState) {
-            if (newState) {
+    public static synchronized void setTracingState(Object user, boolean newState) {
+        if (newState) {
+            activeUsers.add(user);
+        } else {
+            activeUsers.remove(user);
+        }
+        boolean newEnabled = !activeUsers.isEmpty();
+        if (enabled != newEnabled) {
+            if (newEnabled) {
                 noMemoryCopyTracingAssumption.invalidate();
             }
-            enabled = newState;
+            enabled = newEnabled;
         }
     }
 
@@ -74,6 +89,7 @@ public final class MemoryCopyTracer {
      */
     public static void reportCopying(RAbstractVector source, RAbstractVector dest) {
         assert RContext.getInstance() != null : "valid context needed whenever copying could be reported";
+        RMetrics.countCopy(source.getRType());
         if (!noMemoryCopyTracingAssumption.isValid() && enabled) {
             notifyListeners(source, dest);
         }
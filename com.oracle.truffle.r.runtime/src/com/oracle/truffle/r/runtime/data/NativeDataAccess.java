@@ -143,6 +143,13 @@ public final class NativeDataAccess {
 
     private static final AtomicReference<Thread> nativeRefQueueThread = new AtomicReference<>(null);
 
+    /**
+     * Maximal number of collected references released at once by the reference queue thread. The
+     * {@link #nativeMirrors} lock is taken once per batch, and only for the removal of the table
+     * entries, so this bounds the time an up-call may wait for it.
+     */
+    private static final int RELEASE_BATCH_SIZE = 256;
+
     private static long getEmptyDataAddress() {
         long addr = emptyDataAddress.get();
         if (addr == 0L) {
@@ -168,11 +175,22 @@ public final class NativeDataAccess {
                         new Runnable() {
                             @Override
                             public void run() {
+                                Reference<?>[] batch = new Reference<?>[RELEASE_BATCH_SIZE];
                                 try {
                                     while (true) {
                                         Reference<?> ref = nativeRefQueue.remove();
-                                        if (ref instanceof Releasable) {
-                                            ((Releasable) ref).release();
+                                        int count = 0;
+                                        do {
+                                            batch[count++] = ref;
+                                        } while (count < RELEASE_BATCH_SIZE && (ref = nativeRefQueue.poll()) != null);
+                                        // the table entries of the whole batch are removed under
+                                        // one lock, the native memory is freed without holding it
+                                        nativeMirrors.removeAll(batch, count);
+                                        for (int i = 0; i < count; i++) {
+                                            if (batch[i] instanceof Releasable) {
+                                                ((Releasable) batch[i]).release();
+                                            }
+                                            batch[i] = null;
                                         }
                                     }
                                 } catch (InterruptedException ex) {
@@ -195,9 +213,16 @@ public final class NativeDataAccess {
     public static final class NativeMirror extends WeakReference<RBaseObject> implements Releasable, TruffleObject {
         /**
          * ID of the mirror, this will be used as the value for SEXP. When native up-calls to Java,
-         * we get this value and find the corresponding object for it.
+         * we get this value and find the corresponding object for it. The ID is assigned when the
+         * mirror is created, so that the lock-free lookups in {@link NativeMirrorTable} always see
+         * it, but it is only registered in the table once the object goes native.
+         */
+        private final long id;
+        /**
+         * Whether the ID was registered in {@link #nativeMirrors}, i.e., whether the object has
+         * been handed to native code.
          */
-        private long id;
+        private boolean registered;
         /**
          * Address of the start of the native memory array. Zero if not allocated yet.
          */
@@ -237,39 +262,50 @@ public final class NativeDataAccess {
          */
         private boolean external;
 
+        /**
+         * Size of the native memory owned by this mirror, see {@link #getNativeMemoryInUse()}.
+         */
+        private long allocatedBytes;
+
         /**
          * Creates a new mirror with a specified native address as both ID and address. The buffer
          * will be freed when the Java object is collected.
          */
         NativeMirror(RBaseObject ownerVec, long address) {
-            // address == 0 means no nativeMirrors registration and no release() call
+            // address == 0 means that the mirror is registered only once the object goes native
             super(ownerVec, nativeReferenceQueue());
             if (address != 0) {
                 this.id = address;
                 setDataAddress(address);
-                nativeMirrors.put(id, this);
+                register();
+            } else if (ownerVec instanceof CustomNativeMirror) {
+                this.id = ((CustomNativeMirror) ownerVec).getCustomMirrorAddress();
+                assert id != 0;
+            } else {
+                this.id = counter.addAndGet(2);
             }
         }
 
         @TruffleBoundary
-        private void initMirror() {
-            assert id == 0;
-            this.id = counter.addAndGet(2);
+        private void register() {
+            assert !registered;
+            registered = true;
             nativeMirrors.put(id, this);
         }
 
         @TruffleBoundary
-        private void initMirror(long address) {
-            assert id == 0;
-            assert address != 0;
-            this.id = address;
-            setDataAddress(address);
-            nativeMirrors.put(id, this);
+        private void registerCustomMirror() {
+            setDataAddress(id);
+            register();
+        }
+
+        long getId() {
+            return id;
         }
 
         @ExportMessage
         public boolean isPointer() {
-            return id != 0;
+            return registered;
         }
 
         @ExportMessage
@@ -294,12 +330,18 @@ public final class NativeDataAccess {
             return dataAddress;
         }
 
+        private long allocateData(long bytesCount) {
+            long address = allocateMirrorMemory(bytesCount);
+            allocatedBytes = bytesCount;
+            return setDataAddress(address);
+        }
+
         @TruffleBoundary
         void allocateNative(Object source, int len, int trueLen, int elementBase, int elementSize) {
             assert dataAddress == 0;
             if (len != 0) {
                 long bytesCount = trueLen * (long) elementSize;
-                setDataAddress(allocateNativeMemory(bytesCount));
+                allocateData(bytesCount);
                 UnsafeAdapter.UNSAFE.copyMemory(source, elementBase, null, dataAddress, bytesCount);
             } else {
                 setDataAddress(getEmptyDataAddress());
@@ -310,10 +352,26 @@ public final class NativeDataAccess {
             assert this.length == 0 || dataAddress != getEmptyDataAddress();
         }
 
+        @TruffleBoundary
+        void allocateNativeZeroed(int len, int elementSize) {
+            assert dataAddress == 0;
+            if (len != 0) {
+                long bytesCount = len * (long) elementSize;
+                allocateData(bytesCount);
+                UnsafeAdapter.UNSAFE.setMemory(dataAddress, bytesCount, (byte) 0);
+            } else {
+                setDataAddress(getEmptyDataAddress());
+            }
+            this.length = len;
+
+            // ensure that marker address is not used
+            assert this.length == 0 || dataAddress != getEmptyDataAddress();
+        }
+
         @TruffleBoundary
         void allocateNativeString(byte[] bytes) {
             assert dataAddress == 0;
-            setDataAddress(allocateNativeMemory(bytes.length + 1));
+            allocateData(bytes.length + 1);
             UnsafeAdapter.UNSAFE.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, dataAddress, bytes.length);
             UnsafeAdapter.UNSAFE.putByte(dataAddress + bytes.length, (byte) 0); // C strings
                                                                                 // terminator
@@ -328,7 +386,7 @@ public final class NativeDataAccess {
             if (wrappers.length == 0) {
                 setDataAddress(getEmptyDataAddress());
             } else {
-                long addr = setDataAddress(allocateNativeMemory(wrappers.length * (long) Long.BYTES));
+                long addr = allocateData(wrappers.length * (long) Long.BYTES);
                 for (int i = 0; i < wrappers.length; i++) {
                     UnsafeAdapter.UNSAFE.putLong(addr + (long) i * Long.BYTES, getPointer(wrappers[i]));
                 }
@@ -340,7 +398,7 @@ public final class NativeDataAccess {
             if (elements.length == 0) {
                 setDataAddress(getEmptyDataAddress());
             } else {
-                long addr = setDataAddress(allocateNativeMemory(elements.length * (long) Long.BYTES));
+                long addr = allocateData(elements.length * (long) Long.BYTES);
                 for (int i = 0; i < elements.length; i++) {
                     Object element = elements[i];
                     Object materialized = FFIMaterializeNode.uncachedMaterialize(element);
@@ -356,11 +414,12 @@ public final class NativeDataAccess {
             }
         }
 
+        /**
+         * Frees the native memory of a collected mirror. Its table entry has already been removed
+         * by {@link NativeMirrorTable#removeAll}.
+         */
         @Override
         public void release() {
-            if (id != 0) {
-                nativeMirrors.remove(id, this);
-            }
             // We cannot use RFFILog here, as the gc thread may not have any Truffle context
             // attached to.
 
@@ -371,7 +430,7 @@ public final class NativeDataAccess {
                 assert (setDataAddress(0xbadbad)) != 0;
             } else if (dataAddress != 0 && !external) {
                 // System.err.printf("2. freeing data at %16x (id=%16x)\n", dataAddress, id);
-                freeNativeMemory(dataAddress);
+                freeMirrorMemory(dataAddress, allocatedBytes);
                 if (dataAddressToNativeMirrors != null) {
                     dataAddressToNativeMirrors.remove(dataAddress);
                 }
@@ -391,7 +450,7 @@ public final class NativeDataAccess {
     // The counter is initialized to invalid address and incremented by 2 to always get invalid
     // address value
     private static final AtomicLong counter = new AtomicLong(0xdef000000000001L);
-    private static final ConcurrentHashMap<Long, NativeMirror> nativeMirrors = new ConcurrentHashMap<>(512);
+    private static final NativeMirrorTable nativeMirrors = new NativeMirrorTable(512);
     private static final ConcurrentHashMap<Long, NativeMirror> dataAddressToNativeMirrors = System.getenv(FastROptions.NATIVE_DATA_INSPECTOR) != null ? new ConcurrentHashMap<>(512) : null;
     private static final ConcurrentHashMap<Long, RuntimeException> nativeMirrorInfo = TRACE_MIRROR_ALLOCATION_SITES ? new ConcurrentHashMap<>() : null;
 
@@ -426,19 +485,19 @@ public final class NativeDataAccess {
                         @Cached("createBinaryProfile()") ConditionProfile isInNative,
                         @Cached BranchProfile refRegProfile,
                         @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
-            if (hasID.profile(mirror.id == 0)) {
+            if (hasID.profile(!mirror.registered)) {
                 RBaseObject obj = mirror.get();
                 if (isCustomNativeMirror.profile(obj instanceof CustomNativeMirror)) {
-                    mirror.initMirror(((CustomNativeMirror) obj).getCustomMirrorAddress());
+                    mirror.registerCustomMirror();
                 } else {
-                    mirror.initMirror();
+                    mirror.register();
                 }
                 RContext rContext = ctxRef.get();
                 if (isInNative.profile(rContext.getStateRFFI().getCallDepth() > 0)) {
                     rContext.getStateRFFI().registerReferenceUsedInNative(obj, refRegProfile);
                 }
                 logAndTrace(mirror.get(), mirror);
-                assert mirror.id != 0;
+                assert mirror.registered;
             }
         }
 
@@ -474,7 +533,7 @@ public final class NativeDataAccess {
 
     /**
      * For given native mirror ID returns the Java side object (vector). TruffleBoundary because it
-     * calls into HashMap.
+     * probes the {@link NativeMirrorTable}.
      */
     @TruffleBoundary
     public static Object lookup(long address) {
@@ -1245,6 +1304,28 @@ public final class NativeDataAccess {
         return mirror.dataAddress;
     }
 
+    /**
+     * Allocates zero-filled native memory as the only storage of a vector that never had managed
+     * data. Unlike {@link #setNativeContents(RBaseObject, long, int)}, the memory is owned by the
+     * mirror and freed together with it.
+     */
+    static void allocateEmptyNativeContents(RIntVector vector, int length) {
+        NativeMirror mirror = vector.getNativeMirror();
+        assert mirror != null && mirror.dataAddress == 0;
+        noIntNative.invalidate();
+        mirror.allocateNativeZeroed(length, Unsafe.ARRAY_INT_INDEX_SCALE);
+    }
+
+    /**
+     * @see #allocateEmptyNativeContents(RIntVector, int)
+     */
+    static void allocateEmptyNativeContents(RDoubleVector vector, int length) {
+        NativeMirror mirror = vector.getNativeMirror();
+        assert mirror != null && mirror.dataAddress == 0;
+        noDoubleNative.invalidate();
+        mirror.allocateNativeZeroed(length, Unsafe.ARRAY_DOUBLE_INDEX_SCALE);
+    }
+
     static long allocateNativeContents(RComplexVector vector, double[] data, int length) {
         NativeMirror mirror = vector.getNativeMirror();
         assert mirror != null;
@@ -1388,6 +1469,78 @@ public final class NativeDataAccess {
         }
     }
 
+    /**
+     * Native memory held by native mirrors is invisible to the Java GC, which only sees the small
+     * Java objects owning it and may therefore postpone collecting them while the process runs out
+     * of memory. The memory is accounted here and once it grows by more than the soft limit (see
+     * {@link FastROptions#NATIVE_MEMORY_SOFT_LIMIT}), a GC is requested, which lets the reference
+     * queue thread free the memory of unreachable mirrors. See {@link NativeMemoryAccounting}.
+     */
+    private static final NativeMemoryAccounting nativeMemory = new NativeMemoryAccounting(initNativeMemorySoftLimit());
+
+    private static long initNativeMemorySoftLimit() {
+        String value = System.getenv(FastROptions.NATIVE_MEMORY_SOFT_LIMIT);
+        long megabytes = 1024;
+        if (value != null) {
+            try {
+                megabytes = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("invalid value of " + FastROptions.NATIVE_MEMORY_SOFT_LIMIT + ": " + value);
+            }
+        }
+        return megabytes <= 0 ? Long.MAX_VALUE : megabytes * 1024 * 1024;
+    }
+
+    private static long allocateMirrorMemory(long bytes) {
+        // account only memory that was actually allocated
+        long address = allocateNativeMemory(bytes);
+        if (nativeMemory.allocated(bytes)) {
+            LOGGER.fine(() -> String.format("Native memory in use (%d bytes) exceeds the soft limit, requesting GC", nativeMemory.getInUse()));
+            System.gc();
+        }
+        return address;
+    }
+
+    private static void freeMirrorMemory(long address, long bytes) {
+        freeNativeMemory(address);
+        nativeMemory.freed(bytes);
+    }
+
+    /**
+     * Number of bytes of native memory currently owned by native mirrors.
+     */
+    public static long getNativeMemoryInUse() {
+        return nativeMemory.getInUse();
+    }
+
+    /**
+     * Number of bytes of native memory owned by the native mirror of given object, zero if the
+     * object has no mirror or the mirror does not own its data.
+     */
+    public static long getNativeMemorySize(RBaseObject obj) {
+        NativeMirror mirror = obj.getNativeMirror();
+        return mirror == null ? 0 : mirror.allocatedBytes;
+    }
+
+    public static long getNativeMemoryMaxUsed() {
+        return nativeMemory.getMaxUsed();
+    }
+
+    /**
+     * The amount of native memory in use at which the next GC will be requested.
+     */
+    public static long getNativeMemoryGCTrigger() {
+        return nativeMemory.getGCTrigger();
+    }
+
+    public static long getNativeMemorySoftLimit() {
+        return nativeMemory.getSoftLimit();
+    }
+
+    public static long getNativeMemoryTriggeredGCs() {
+        return nativeMemory.getTriggeredGCs();
+    }
+
     private static long allocateNativeMemory(long bytes) {
         LOGGER.finest(() -> String.format("Going to allocate %d bytes of native memory", bytes));
         long result = UnsafeAdapter.UNSAFE.allocateMemory(bytes);
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts the native memory owned by native mirrors and decides when a GC should be requested to
+ * let the reference queue thread free the memory of unreachable mirrors. A GC is due once the usage
+ * exceeds the lowest usage seen since the previous request by more than the soft limit, i.e. the
+ * trigger is lowered again as memory gets freed and cannot grow beyond the live native memory plus
+ * the soft limit.
+ */
+public final class NativeMemoryAccounting {
+
+    private final long softLimit;
+    private final AtomicLong inUse = new AtomicLong();
+    private final AtomicLong maxUsed = new AtomicLong();
+    private final AtomicLong triggeredGCs = new AtomicLong();
+    private final AtomicLong gcTrigger;
+
+    /**
+     * @param softLimit the soft limit in bytes, {@link Long#MAX_VALUE} disables the GC requests
+     */
+    public NativeMemoryAccounting(long softLimit) {
+        assert softLimit > 0;
+        this.softLimit = softLimit;
+        this.gcTrigger = new AtomicLong(softLimit);
+    }
+
+    /**
+     * Records successfully allocated native memory. Returns {@code true} if the caller should
+     * request a GC, which happens for only one of the threads crossing the trigger concurrently.
+     */
+    public boolean allocated(long bytes) {
+        long used = inUse.addAndGet(bytes);
+        maxUsed.accumulateAndGet(used, Math::max);
+        long trigger = gcTrigger.get();
+        if (used > trigger && gcTrigger.compareAndSet(trigger, saturatedAdd(used, softLimit))) {
+            triggeredGCs.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records freed native memory and lowers the trigger accordingly.
+     */
+    public void freed(long bytes) {
+        long used = inUse.addAndGet(-bytes);
+        gcTrigger.accumulateAndGet(saturatedAdd(used, softLimit), Math::min);
+    }
+
+    public long getInUse() {
+        return inUse.get();
+    }
+
+    public long getMaxUsed() {
+        return maxUsed.get();
+    }
+
+    /**
+     * The amount of native memory in use at which the next GC will be requested.
+     */
+    public long getGCTrigger() {
+        return gcTrigger.get();
+    }
+
+    public long getSoftLimit() {
+        return softLimit;
+    }
+
+    public long getTriggeredGCs() {
+        return triggeredGCs.get();
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long result = a + b;
+        return result < a ? Long.MAX_VALUE : result;
+    }
+}
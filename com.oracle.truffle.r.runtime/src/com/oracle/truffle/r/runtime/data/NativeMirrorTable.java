@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.lang.ref.Reference;
+
+import com.oracle.truffle.r.runtime.data.NativeDataAccess.NativeMirror;
+
+/**
+ * Maps native mirror IDs to {@link NativeMirror} objects without boxing the keys. This is the
+ * structure behind {@link NativeDataAccess#lookup(long)}, which is invoked for every SEXP handed
+ * back to Java in an up-call.
+ *
+ * The table uses open addressing with linear probing. Modifications are synchronized on the table,
+ * while {@link #get(long)} first probes the current arrays without taking the lock. The optimistic
+ * probe only trusts a hit whose mirror carries the requested ID (the IDs of mirrors are final), and
+ * a miss is repeated under the lock, so racing with a concurrent resize or removal on the reference
+ * queue thread can only make the lookup slower, never wrong.
+ */
+final class NativeMirrorTable {
+
+    private static final long EMPTY = 0L;
+    private static final long REMOVED = -1L;
+
+    private static final class Table {
+        final long[] keys;
+        final NativeMirror[] values;
+
+        Table(int capacity) {
+            assert Integer.bitCount(capacity) == 1;
+            keys = new long[capacity];
+            values = new NativeMirror[capacity];
+        }
+    }
+
+    private volatile Table table;
+    private int size;
+    private int removed;
+
+    NativeMirrorTable(int initialCapacity) {
+        table = new Table(Integer.highestOneBit(Math.max(16, initialCapacity) * 2 - 1));
+    }
+
+    private static int hash(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    NativeMirror get(long key) {
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int i = hash(key, mask);; i = (i + 1) & mask) {
+            long k = t.keys[i];
+            if (k == key) {
+                NativeMirror mirror = t.values[i];
+                if (mirror != null && mirror.getId() == key) {
+                    return mirror;
+                }
+                break;
+            } else if (k == EMPTY) {
+                break;
+            }
+        }
+        return getLocked(key);
+    }
+
+    private synchronized NativeMirror getLocked(long key) {
+        Table t = table;
+        int index = indexOf(t, key);
+        return index < 0 ? null : t.values[index];
+    }
+
+    synchronized void put(long key, NativeMirror mirror) {
+        assert key != EMPTY && key != REMOVED;
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int firstRemoved = -1;
+        int i = hash(key, mask);
+        while (true) {
+            long k = t.keys[i];
+            if (k == key) {
+                t.values[i] = mirror;
+                return;
+            } else if (k == EMPTY) {
+                break;
+            } else if (k == REMOVED && firstRemoved < 0) {
+                firstRemoved = i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (firstRemoved >= 0) {
+            i = firstRemoved;
+            removed--;
+        }
+        // the value has to be visible before the key for the optimistic readers
+        t.values[i] = mirror;
+        t.keys[i] = key;
+        size++;
+        if ((size + removed) * 2 > t.keys.length) {
+            rehash(size * 4 > t.keys.length ? t.keys.length * 2 : t.keys.length);
+        }
+    }
+
+    /**
+     * Removes the entries of the collected mirrors among the first {@code count} references, taking
+     * the lock once for the whole batch.
+     */
+    synchronized void removeAll(Reference<?>[] refs, int count) {
+        for (int i = 0; i < count; i++) {
+            if (refs[i] instanceof NativeMirror) {
+                NativeMirror mirror = (NativeMirror) refs[i];
+                remove(mirror.getId(), mirror);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry for {@code key} only if it is still mapped to {@code mirror}; the same ID
+     * (i.e. native address) may have been reused by another mirror in the meantime.
+     */
+    private void remove(long key, NativeMirror mirror) {
+        Table t = table;
+        int index = indexOf(t, key);
+        if (index >= 0 && t.values[index] == mirror) {
+            t.keys[index] = REMOVED;
+            t.values[index] = null;
+            size--;
+            removed++;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private static int indexOf(Table t, long key) {
+        int mask = t.keys.length - 1;
+        for (int i = hash(key, mask);; i = (i + 1) & mask) {
+            long k = t.keys[i];
+            if (k == key) {
+                return i;
+            } else if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        Table old = table;
+        Table t = new Table(newCapacity);
+        int mask = newCapacity - 1;
+        for (int j = 0; j < old.keys.length; j++) {
+            long key = old.keys[j];
+            if (key != EMPTY && key != REMOVED) {
+                int i = hash(key, mask);
+                while (t.keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                t.keys[i] = key;
+                t.values[i] = old.values[j];
+            }
+        }
+        removed = 0;
+        table = t;
+    }
+}
@@ -78,7 +78,7 @@ public abstract class RAttributable extends RBaseObject {
     public final Object getAttr(String name) {
         CompilerAsserts.neverPartOfCompilation();
         DynamicObject attr = getAttributes();
-        return attr == null ? null : attr.get(name);
+        return attr == null ? null : RAttributesLayout.getSpecialAttribute(attr, name);
     }
 
     /**
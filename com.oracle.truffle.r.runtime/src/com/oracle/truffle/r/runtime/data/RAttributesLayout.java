@@ -26,15 +26,19 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.DynamicObjectFactory;
 import com.oracle.truffle.api.object.Layout;
+import com.oracle.truffle.api.object.Location;
 import com.oracle.truffle.api.object.ObjectType;
 import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.Utils;
 
 /**
  * The facade to facilitate manipulation with attributes in FastR. The attributes in FastR are
@@ -46,6 +50,13 @@ import com.oracle.truffle.r.runtime.RRuntime;
  * represented by an instance of {@link RAttributesLayout.AttrsLayout} that encapsulates, among
  * other things, the pre-loaded list of properties of the given attribute set. This plays role when
  * optimizing the iteration over attributes of an object (by means of special nodes).
+ * <p>
+ * The shapes of the pre-defined layouts are also used as a fast path for reading the frequently
+ * used special attributes ({@code names}, {@code dim}, {@code dimnames}, {@code class} and
+ * {@code row.names}): the location of each of these attributes in each pre-defined shape is
+ * resolved eagerly, so that a read from an attributes object that still has one of those shapes is
+ * a shape identity check followed by a field load, even in megamorphic sites. See
+ * {@link #getSpecialAttribute(DynamicObject, String)}.
  */
 public final class RAttributesLayout {
 
@@ -69,6 +80,41 @@ public final class RAttributesLayout {
     public static final AttrsLayout[] LAYOUTS = {EMPTY_ATTRS_LAYOUT, CLASS_ATTRS_LAYOUT, NAMES_ATTRS_LAYOUT, DIM_ATTRS_LAYOUT, DIMNAMES_ATTRS_LAYOUT, ROWNAMES_ATTRS_LAYOUT,
                     NAMES_AND_DIM_ATTRS_LAYOUT, DIM_AND_DIMNAMES_ATTRS_LAYOUT};
 
+    /**
+     * The shapes of all the pre-defined layouts, the arrays of locations below are indexed in the
+     * same way.
+     */
+    @CompilationFinal(dimensions = 1) private static final Shape[] KNOWN_SHAPES;
+    @CompilationFinal(dimensions = 1) private static final Location[] NAMES_LOCATIONS;
+    @CompilationFinal(dimensions = 1) private static final Location[] DIM_LOCATIONS;
+    @CompilationFinal(dimensions = 1) private static final Location[] DIMNAMES_LOCATIONS;
+    @CompilationFinal(dimensions = 1) private static final Location[] CLASS_LOCATIONS;
+    @CompilationFinal(dimensions = 1) private static final Location[] ROWNAMES_LOCATIONS;
+
+    static {
+        AttrsLayout[] known = {EMPTY_ATTRS_LAYOUT, CLASS_ATTRS_LAYOUT, NAMES_ATTRS_LAYOUT, DIM_ATTRS_LAYOUT, DIMNAMES_ATTRS_LAYOUT, NAMES_AND_DIMNAMES_ATTRS_LAYOUT, ROWNAMES_ATTRS_LAYOUT,
+                        TSP_ATTRS_LAYOUT, COMMENT_ATTRS_LAYOUT, NAMES_AND_DIM_ATTRS_LAYOUT, DIM_AND_DIMNAMES_ATTRS_LAYOUT, NAMES_AND_DIM_AND_DIMNAMES_ATTRS_LAYOUT,
+                        CLASS_AND_CONNID_ATTRS_LAYOUT};
+        KNOWN_SHAPES = new Shape[known.length];
+        for (int i = 0; i < known.length; i++) {
+            KNOWN_SHAPES[i] = known[i].shape;
+        }
+        NAMES_LOCATIONS = resolveLocations(known, RRuntime.NAMES_ATTR_KEY);
+        DIM_LOCATIONS = resolveLocations(known, RRuntime.DIM_ATTR_KEY);
+        DIMNAMES_LOCATIONS = resolveLocations(known, RRuntime.DIMNAMES_ATTR_KEY);
+        CLASS_LOCATIONS = resolveLocations(known, RRuntime.CLASS_ATTR_KEY);
+        ROWNAMES_LOCATIONS = resolveLocations(known, RRuntime.ROWNAMES_ATTR_KEY);
+    }
+
+    private static Location[] resolveLocations(AttrsLayout[] layouts, String name) {
+        Location[] result = new Location[layouts.length];
+        for (int i = 0; i < layouts.length; i++) {
+            Property p = layouts[i].shape.getProperty(name);
+            result[i] = p == null ? null : p.getLocation();
+        }
+        return result;
+    }
+
     private RAttributesLayout() {
     }
 
@@ -124,6 +170,65 @@ public final class RAttributesLayout {
         return CLASS_AND_CONNID_ATTRS_LAYOUT.factory.newInstance(cls, connId);
     }
 
+    /**
+     * Returns the locations of the given attribute in the pre-defined shapes or {@code null} if
+     * the attribute is not one of the special attributes that have a fast path. Names that are not
+     * interned never take the fast path.
+     */
+    public static Location[] getKnownLocations(String name) {
+        if (Utils.identityEquals(name, RRuntime.NAMES_ATTR_KEY)) {
+            return NAMES_LOCATIONS;
+        } else if (Utils.identityEquals(name, RRuntime.DIM_ATTR_KEY)) {
+            return DIM_LOCATIONS;
+        } else if (Utils.identityEquals(name, RRuntime.DIMNAMES_ATTR_KEY)) {
+            return DIMNAMES_LOCATIONS;
+        } else if (Utils.identityEquals(name, RRuntime.CLASS_ATTR_KEY)) {
+            return CLASS_LOCATIONS;
+        } else if (Utils.identityEquals(name, RRuntime.ROWNAMES_ATTR_KEY)) {
+            return ROWNAMES_LOCATIONS;
+        }
+        return null;
+    }
+
+    public static final Object NOT_KNOWN_SHAPE = new Object();
+
+    /**
+     * Fast path lookup of a special attribute in attributes that have one of the pre-defined
+     * shapes. Returns {@link #NOT_KNOWN_SHAPE} if the shape of {@code attrs} is not one of the
+     * pre-defined shapes, otherwise the value of the attribute or {@code null} if not present.
+     */
+    @ExplodeLoop
+    public static Object getFromKnownShape(DynamicObject attrs, Location[] knownLocations) {
+        Shape shape = attrs.getShape();
+        for (int i = 0; i < KNOWN_SHAPES.length; i++) {
+            if (shape == KNOWN_SHAPES[i]) {
+                Location location = knownLocations[i];
+                return location == null ? null : location.get(attrs, shape);
+            }
+        }
+        return NOT_KNOWN_SHAPE;
+    }
+
+    /**
+     * Returns the value of the given attribute or {@code null} if not present. The special
+     * attributes are looked up using the pre-resolved locations when possible.
+     */
+    public static Object getSpecialAttribute(DynamicObject attrs, String name) {
+        Location[] knownLocations = getKnownLocations(name);
+        if (knownLocations != null) {
+            Object result = getFromKnownShape(attrs, knownLocations);
+            if (result != NOT_KNOWN_SHAPE) {
+                return result;
+            }
+        }
+        return getSlowPath(attrs, name);
+    }
+
+    @TruffleBoundary
+    private static Object getSlowPath(DynamicObject attrs, String name) {
+        return attrs.get(name);
+    }
+
     public static boolean isRAttributes(Object attrs) {
         return (attrs instanceof DynamicObject) && isRAttributes((DynamicObject) attrs);
     }
@@ -42,6 +42,7 @@ import com.oracle.truffle.api.nodes.NodeCost;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.Utils;
@@ -189,6 +190,7 @@ public final class RDataFactory {
         protected abstract <T extends RAbstractVector> T initializeAttributes(T result, RStringVector names);
 
         protected <T> T traceDataCreated(T data) {
+            countAllocation(data);
             if (stateAssumption.isEnabled()) {
                 reportDataCreated(data);
             }
@@ -696,8 +698,8 @@ public final class RDataFactory {
         @TruffleBoundary
         public final REnvironment createNewEnv(String name, boolean hashed, int initialSize) {
             REnvironment.NewEnv env = new REnvironment.NewEnv(RRuntime.createNonFunctionFrame("<new-env-" + environmentCount.incrementAndGet() + ">"), name);
-            env.setHashed(hashed);
             env.setInitialSize(initialSize);
+            env.setHashed(hashed);
             return traceDataCreated(env);
         }
 
@@ -758,6 +760,23 @@ public final class RDataFactory {
     public static final boolean INCOMPLETE_VECTOR = false;
     public static final boolean COMPLETE_VECTOR = true;
 
+    /**
+     * Vectors of at least this many elements that are allocated on behalf of native code (e.g.
+     * {@code allocVector}) are created directly in native memory, so that the first
+     * {@code REAL}/{@code INTEGER} call does not have to copy the freshly allocated data off-heap.
+     * Java code reads such vectors through the native mirror just like any vector that was handed
+     * over to native code.
+     */
+    public static final int NATIVE_ALLOCATION_THRESHOLD = 1024;
+
+    public static RIntVector createIntVectorInNative(int length) {
+        return traceDataCreated(RIntVector.createNative(length));
+    }
+
+    public static RDoubleVector createDoubleVectorInNative(int length) {
+        return traceDataCreated(RDoubleVector.createNative(length));
+    }
+
     public static RIntVector createIntVectorFromNative(long address, int length) {
         return traceDataCreated(RIntVector.fromNative(address, length));
     }
@@ -1285,8 +1304,8 @@ public final class RDataFactory {
     @TruffleBoundary
     public static REnvironment createNewEnv(String name, boolean hashed, int initialSize) {
         REnvironment.NewEnv env = new REnvironment.NewEnv(RRuntime.createNonFunctionFrame("<new-env-" + environmentCount.incrementAndGet() + ">"), name);
-        env.setHashed(hashed);
         env.setInitialSize(initialSize);
+        env.setHashed(hashed);
         return traceDataCreated(env);
     }
 
@@ -1364,12 +1383,19 @@ public final class RDataFactory {
     }
 
     private static <T> T traceDataCreated(T data) {
+        countAllocation(data);
         if (stateAssumption.isEnabled()) {
             reportDataCreated(data);
         }
         return data;
     }
 
+    private static void countAllocation(Object data) {
+        if (RMetrics.isEnabled() && data instanceof RBaseObject) {
+            RMetrics.countAllocation(((RBaseObject) data).getRType());
+        }
+    }
+
     @TruffleBoundary
     private static <T> T reportDataCreated(T data) {
         if (allocationTracingEnabled) {
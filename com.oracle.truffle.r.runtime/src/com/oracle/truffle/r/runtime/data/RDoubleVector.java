@@ -66,6 +66,13 @@ public final class RDoubleVector extends RAbstractDoubleVector implements RMater
         return result;
     }
 
+    static RDoubleVector createNative(int length) {
+        RDoubleVector result = new RDoubleVector();
+        NativeDataAccess.toNative(result);
+        NativeDataAccess.allocateEmptyNativeContents(result, length);
+        return result;
+    }
+
     @Override
     public RAbstractVector castSafe(RType type, ConditionProfile isNAProfile, boolean keepAttributes) {
         switch (type) {
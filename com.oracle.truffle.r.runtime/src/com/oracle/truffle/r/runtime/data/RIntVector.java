@@ -65,6 +65,13 @@ public final class RIntVector extends RAbstractIntVector implements RMaterialize
         return result;
     }
 
+    static RIntVector createNative(int length) {
+        RIntVector result = new RIntVector();
+        NativeDataAccess.toNative(result);
+        NativeDataAccess.allocateEmptyNativeContents(result, length);
+        return result;
+    }
+
     @Override
     public RAbstractVector castSafe(RType type, ConditionProfile isNAProfile, boolean keepAttributes) {
         switch (type) {
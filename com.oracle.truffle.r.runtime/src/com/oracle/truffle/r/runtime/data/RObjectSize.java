@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime.data;
 
 import java.util.ArrayDeque;
 import java.util.HashSet;
+import java.util.function.Consumer;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -67,7 +68,16 @@ public class RObjectSize {
      */
     @TruffleBoundary
     public static long getObjectSize(Object obj) {
-        return getObjectSizeImpl(obj);
+        return getObjectSizeImpl(obj, true);
+    }
+
+    /**
+     * Same as {@link #getObjectSize(Object)}, but objects that cannot be sized are silently
+     * ignored. Intended for heap walks, which may encounter arbitrary frame values.
+     */
+    @TruffleBoundary
+    public static long getObjectSizeQuiet(Object obj) {
+        return getObjectSizeImpl(obj, false);
     }
 
     /**
@@ -85,34 +95,37 @@ public class RObjectSize {
         long result = 0;
         while (!stack.isEmpty()) {
             Object obj = stack.pop();
-            result += getObjectSizeImpl(obj);
+            result += getObjectSizeImpl(obj, true);
             if (obj != null) {
-                pushReferences(stack, visited, obj);
+                visitReferences(obj, ref -> pushIfNotPresent(stack, visited, ref));
             }
         }
         return result;
     }
 
-    private static void pushReferences(ArrayDeque<Object> stack, HashSet<Object> visited, Object obj) {
+    /**
+     * Passes the objects directly referenced by given object, i.e., its attributes and elements,
+     * to the consumer. Environments are not followed.
+     */
+    public static void visitReferences(Object obj, Consumer<Object> consumer) {
         if (obj instanceof RAttributable) {
             DynamicObject attrs = ((RAttributable) obj).getAttributes();
             if (attrs != null) {
                 Shape shape = attrs.getShape();
                 for (Property prop : shape.getProperties()) {
-                    Object propVal = prop.get(attrs, shape);
-                    pushIfNotPresent(stack, visited, propVal);
+                    consumer.accept(prop.get(attrs, shape));
                 }
             }
         }
         if (obj instanceof RAbstractListBaseVector) {
             RAbstractListBaseVector list = (RAbstractListBaseVector) obj;
             for (int i = 0; i < list.getLength(); i++) {
-                pushIfNotPresent(stack, visited, list.getDataAt(i));
+                consumer.accept(list.getDataAt(i));
             }
         } else if (obj instanceof RArgsValuesAndNames) {
             RArgsValuesAndNames args = (RArgsValuesAndNames) obj;
             for (int i = 0; i < args.getLength(); i++) {
-                pushIfNotPresent(stack, visited, args.getArgument(i));
+                consumer.accept(args.getArgument(i));
             }
         }
         // Note: environments are ignored
@@ -125,7 +138,7 @@ public class RObjectSize {
         }
     }
 
-    private static long getObjectSizeImpl(Object obj) {
+    private static long getObjectSizeImpl(Object obj, boolean warn) {
         // Note: if this gets too complex, it may be replaced by a system of providers or getSize
         // abstract method on RBaseObject. For now, we do not want to add yet another abstract
         // method to already complicated hierarchy and providers would only mean OO version of the
@@ -146,7 +159,7 @@ public class RObjectSize {
         // Check that we have RBaseObject:
         if (!(obj instanceof RBaseObject)) {
             // We ignore objects from other languages for now
-            if (!(obj instanceof TruffleObject)) {
+            if (warn && !(obj instanceof TruffleObject)) {
                 reportWarning(obj);
             }
             return 0;
@@ -172,7 +185,7 @@ public class RObjectSize {
             }
         } else if (obj instanceof RSequence) {
             // count: start, stride, length
-            return OBJECT_HEADER_SIZE + 2 * getElementSize((RAbstractVector) obj) + INT_SIZE + attributesSize;
+            return OBJECT_HEADER_SIZE + 2 * getElementSize((RAbstractVector) obj, warn) + INT_SIZE + attributesSize;
         } else if (obj instanceof RAbstractStringVector) {
             RAbstractStringVector strVec = (RAbstractStringVector) obj;
             long result = OBJECT_HEADER_SIZE;
@@ -183,7 +196,7 @@ public class RObjectSize {
             return result + attributesSize;
         } else if (obj instanceof RAbstractVector) {
             RAbstractVector vec = (RAbstractVector) obj;
-            return OBJECT_HEADER_SIZE + getElementSize(vec) * vec.getLength() + attributesSize;
+            return OBJECT_HEADER_SIZE + getElementSize(vec, warn) * vec.getLength() + attributesSize;
         } else if (obj instanceof RScalar) {
             // E.g. singletons RNull or REmpty. RInteger, RLogical etc. already caught by
             // RAbstractVector branch
@@ -191,12 +204,14 @@ public class RObjectSize {
         } else if (obj instanceof RArgsValuesAndNames) {
             return getArgsAndValuesSize((RArgsValuesAndNames) obj);
         } else {
-            reportWarning(obj);
+            if (warn) {
+                reportWarning(obj);
+            }
             return OBJECT_HEADER_SIZE;
         }
     }
 
-    private static int getElementSize(RAbstractVector vector) {
+    private static int getElementSize(RAbstractVector vector, boolean warn) {
         if (vector instanceof RAbstractDoubleVector) {
             return DOUBLE_SIZE;
         } else if (vector instanceof RAbstractIntVector) {
@@ -208,7 +223,9 @@ public class RObjectSize {
         } else if (vector instanceof RAbstractListBaseVector) {
             return OBJECT_SIZE;
         }
-        reportWarning(vector);
+        if (warn) {
+            reportWarning(vector);
+        }
         return INT_SIZE;
     }
 
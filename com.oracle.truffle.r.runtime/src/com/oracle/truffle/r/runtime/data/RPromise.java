@@ -36,6 +36,7 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.r.runtime.RCaller;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.Utils;
@@ -300,6 +301,7 @@ public class RPromise extends RBaseObject {
         assert newValue != null;
         assert !(newValue instanceof RPromise);
         this.value = newValue;
+        RMetrics.PROMISES_FORCED.increment();
     }
 
     /**
@@ -71,6 +71,7 @@ import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.env.frame.NSBaseMaterializedFrame;
 import com.oracle.truffle.r.runtime.env.frame.REnvEmptyFrameAccess;
 import com.oracle.truffle.r.runtime.env.frame.REnvFrameAccess;
+import com.oracle.truffle.r.runtime.env.frame.REnvHashedFrameAccess;
 import com.oracle.truffle.r.runtime.env.frame.REnvTruffleFrameAccess;
 import com.oracle.truffle.r.runtime.interop.Foreign2R;
 import com.oracle.truffle.r.runtime.interop.R2Foreign;
@@ -270,7 +271,7 @@ public abstract class REnvironment extends RAttributable {
     private static final Empty emptyEnv = new Empty();
 
     private final String name;
-    private final REnvFrameAccess frameAccess;
+    private REnvFrameAccess frameAccess;
     private boolean locked;
 
     @SuppressWarnings("static-method")
@@ -894,7 +895,7 @@ public abstract class REnvironment extends RAttributable {
     }
 
     public REnvironment getParent() {
-        MaterializedFrame enclosingFrame = RArguments.getEnclosingFrame(getFrame());
+        MaterializedFrame enclosingFrame = RArguments.getEnclosingFrame(frameAccess.getFrame());
         return enclosingFrame == null ? emptyEnv : frameToEnvironment(enclosingFrame);
     }
 
@@ -904,10 +905,17 @@ public abstract class REnvironment extends RAttributable {
      */
     public void setParent(REnvironment env) {
         if (getParent() != env) {
-            RArguments.setEnclosingFrame(getFrame(), env.getFrame(), true);
+            RArguments.setEnclosingFrame(frameAccess.getFrame(), env.getFrame(), true);
         }
     }
 
+    /**
+     * Sets the parent of a newly created environment.
+     */
+    public void initializeParent(REnvironment env) {
+        RArguments.initializeEnclosingFrame(frameAccess.getFrame(), env.getFrame());
+    }
+
     /**
      * The "simple" name of the environment. This is the value returned by the R
      * {@code environmentName} function.
@@ -964,6 +972,24 @@ public abstract class REnvironment extends RAttributable {
         return frameAccessProfile.profile(frameAccess).getFrame();
     }
 
+    /**
+     * Returns {@code false} if asking for the frame would change how the bindings are stored, see
+     * {@link NewEnv}. Callers that would otherwise access the frame directly, e.g., to cache its
+     * descriptor, should check this first and go through {@link #get} and {@link #put} instead, so
+     * that the environment can still keep or switch to hashed bindings.
+     */
+    public boolean isFrameExposed() {
+        return true;
+    }
+
+    final REnvFrameAccess getFrameAccess() {
+        return frameAccess;
+    }
+
+    final void setFrameAccess(REnvFrameAccess frameAccess) {
+        this.frameAccess = frameAccess;
+    }
+
     public void lock(boolean bindings) {
         locked = true;
         if (bindings) {
@@ -1220,14 +1246,29 @@ public abstract class REnvironment extends RAttributable {
     /**
      * An environment explicitly created with, typically, {@code new.env}, but also used internally.
      * Such environments are always {@link #UNNAMED} but can later be given a name as an attribute.
-     * This is the class used by the {@code new.env} function. We record but do not interpret the
-     * {@code hash} input, as we always use a hashmap, for possible use by the serialization code
-     * (GnuR generates different output format for hash environments).
+     * This is the class used by the {@code new.env} function. The {@code hash} input is also
+     * recorded for the serialization code (GnuR generates different output format for hash
+     * environments).
      *
+     * Environments that are created with {@code hash = TRUE} or that grow past
+     * {@link #HASHED_THRESHOLD} bindings keep their bindings in {@link REnvHashedFrameAccess}, as
+     * long as nobody asked for their frame. Such environments are typically used as dictionaries
+     * through {@code assign}, {@code get}, {@code [[} and the like, and adding a binding to the
+     * frame would mean changing its {@link FrameDescriptor} and resizing the frame every time. Once
+     * the frame is requested, e.g., to evaluate code in the environment or to use it as an enclosing
+     * environment, the bindings are moved into the frame for good.
      */
     public static final class NewEnv extends REnvironment {
+        private static final int HASHED_THRESHOLD = 256;
+
         private boolean hashed;
         private int initialSize;
+        private boolean frameExposed;
+        /**
+         * Set once the bindings could not be moved into a hash table, because the frame descriptor
+         * is shared or there are active bindings, so that later puts do not try again.
+         */
+        private boolean cannotSwitch;
 
         public NewEnv(MaterializedFrame frame, String name) {
             super(UNNAMED, frame);
@@ -1236,12 +1277,73 @@ public abstract class REnvironment extends RAttributable {
             }
         }
 
+        @Override
+        public MaterializedFrame getFrame() {
+            if (!frameExposed) {
+                exposeFrame();
+            }
+            return super.getFrame();
+        }
+
+        @Override
+        public MaterializedFrame getFrame(ValueProfile frameAccessProfile) {
+            if (!frameExposed) {
+                exposeFrame();
+            }
+            return super.getFrame(frameAccessProfile);
+        }
+
+        @Override
+        public boolean isFrameExposed() {
+            return frameExposed;
+        }
+
+        @TruffleBoundary
+        private void exposeFrame() {
+            frameExposed = true;
+            if (getFrameAccess() instanceof REnvHashedFrameAccess) {
+                setFrameAccess(((REnvHashedFrameAccess) getFrameAccess()).toFrameAccess());
+            }
+        }
+
+        @Override
+        @TruffleBoundary
+        public void put(String key, Object value) throws PutException {
+            super.put(key, value);
+            if (!frameExposed && !cannotSwitch && getFrameAccess() instanceof REnvTruffleFrameAccess && getFrameAccess().getFrame().getFrameDescriptor().getSize() > HASHED_THRESHOLD) {
+                switchToHashed();
+            }
+        }
+
+        private void switchToHashed() {
+            MaterializedFrame frame = getFrameAccess().getFrame();
+            if (!FrameSlotChangeMonitor.isSingletonFrame(frame)) {
+                // the descriptor is shared with other frames, e.g., by list2env
+                cannotSwitch = true;
+                return;
+            }
+            REnvHashedFrameAccess hashedAccess;
+            if (frame.getFrameDescriptor().getSize() == 0) {
+                hashedAccess = REnvHashedFrameAccess.create(frame, initialSize);
+            } else {
+                hashedAccess = REnvHashedFrameAccess.fromFrameAccess(getFrameAccess());
+            }
+            if (hashedAccess != null) {
+                setFrameAccess(hashedAccess);
+            } else {
+                cannotSwitch = true;
+            }
+        }
+
         public boolean isHashed() {
             return hashed;
         }
 
         public void setHashed(boolean hashed) {
             this.hashed = hashed;
+            if (hashed && !frameExposed && !cannotSwitch && getFrameAccess() instanceof REnvTruffleFrameAccess) {
+                switchToHashed();
+            }
         }
 
         public int getInitialSize() {
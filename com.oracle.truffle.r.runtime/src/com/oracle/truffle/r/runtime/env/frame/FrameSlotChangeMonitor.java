@@ -972,6 +972,14 @@ public final class FrameSlotChangeMonitor {
         return singleton == null ? null : singleton.get();
     }
 
+    /**
+     * Returns {@code true} if the frame's descriptor is used by this frame only.
+     */
+    public static synchronized boolean isSingletonFrame(Frame frame) {
+        FrameDescriptorMetaData metaData = frameDescriptors.get(frame.getFrameDescriptor());
+        return metaData != null && metaData.singletonFrame != null && metaData.singletonFrame.get() == frame;
+    }
+
     public static boolean isValidFrameDescriptor(FrameDescriptor frameDesc) {
         return getMetaData(frameDesc) != null;
     }
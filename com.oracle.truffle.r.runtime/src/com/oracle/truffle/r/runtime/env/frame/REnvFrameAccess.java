@@ -22,9 +22,17 @@
  */
 package com.oracle.truffle.r.runtime.env.frame;
 
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.r.runtime.RLocale;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.env.REnvironment.PutException;
@@ -79,4 +87,22 @@ public abstract class REnvFrameAccess {
 
     public abstract MaterializedFrame getFrame();
 
+    /**
+     * Helper for implementations of {@link #ls}, sorts the names according to the collation locale
+     * if requested.
+     */
+    protected static RStringVector createNamesVector(List<String> names, boolean sorted) {
+        String[] data = names.toArray(new String[names.size()]);
+        if (sorted) {
+            Locale locale = RContext.getInstance().stateRLocale.getLocale(RLocale.COLLATE);
+            Collator collator = locale == Locale.ROOT || locale == null ? null : RLocale.getOrderCollator(locale);
+            Arrays.sort(data, new Comparator<String>() {
+                @Override
+                public int compare(String o1, String o2) {
+                    return RLocale.compare(collator, o1, o2);
+                }
+            });
+        }
+        return RDataFactory.createStringVector(data, RDataFactory.COMPLETE_VECTOR);
+    }
 }
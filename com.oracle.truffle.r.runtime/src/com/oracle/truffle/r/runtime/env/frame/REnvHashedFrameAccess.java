@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.env.frame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.data.RMissing;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.env.REnvironment;
+import com.oracle.truffle.r.runtime.env.REnvironment.PutException;
+
+/**
+ * Variant of {@link REnvFrameAccess} for environments used as dictionaries, e.g., those created by
+ * {@code new.env(hash = TRUE)}. The bindings are kept in an open-addressing hash table instead of
+ * {@link FrameSlot}s of the environment's frame, so adding a binding does not change the
+ * {@link FrameDescriptor}, does not resize the frame and does not create any assumptions in
+ * {@link FrameSlotChangeMonitor}.
+ *
+ * The bindings are invisible to code that reads variables directly from the frame. Therefore the
+ * frame must not be handed out while this access is in use; {@link REnvironment} converts the
+ * environment back to {@link REnvTruffleFrameAccess} via {@link #toFrameAccess()} as soon as anyone
+ * asks for its frame.
+ */
+public final class REnvHashedFrameAccess extends REnvFrameAccess {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private final MaterializedFrame frame;
+    /**
+     * Keys and values of the hash table, {@code null} key denotes a free slot. Collisions are
+     * resolved by linear probing, removal shifts the following entries back, so there are no
+     * tombstones.
+     */
+    private String[] keys;
+    private Object[] values;
+    private int size;
+    /**
+     * Records which bindings are locked, allocated lazily as in {@link REnvTruffleFrameAccess}.
+     */
+    private Set<String> lockedBindings;
+
+    private REnvHashedFrameAccess(MaterializedFrame frame, int expectedSize) {
+        this.frame = frame;
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * Creates an empty hashed access for a frame that holds no bindings yet.
+     */
+    public static REnvHashedFrameAccess create(MaterializedFrame frame, int expectedSize) {
+        return new REnvHashedFrameAccess(frame, expectedSize);
+    }
+
+    /**
+     * Moves the bindings of given frame based access into a new hashed access and clears them in
+     * the frame. Returns {@code null} if that is not possible because the frame contains active
+     * bindings, which are only supported by the frame based access.
+     */
+    @TruffleBoundary
+    public static REnvHashedFrameAccess fromFrameAccess(REnvFrameAccess access) {
+        if (!(access instanceof REnvTruffleFrameAccess)) {
+            return null;
+        }
+        MaterializedFrame frame = access.getFrame();
+        FrameDescriptor fd = frame.getFrameDescriptor();
+        if (!FrameSlotChangeMonitor.getContainsNoActiveBindingAssumption(fd).isValid()) {
+            return null;
+        }
+        REnvHashedFrameAccess result = new REnvHashedFrameAccess(frame, fd.getSize());
+        for (FrameSlot slot : fd.getSlots()) {
+            if (slot.getIdentifier() instanceof String) {
+                Object value = FrameSlotChangeMonitor.getValue(slot, frame);
+                if (value != null) {
+                    result.putValue((String) slot.getIdentifier(), value);
+                    if (fd.getFrameSlotKind(slot) != FrameSlotKind.Object) {
+                        fd.setFrameSlotKind(slot, FrameSlotKind.Object);
+                    }
+                    FrameSlotChangeMonitor.setObjectAndInvalidate(frame, slot, null, false, null);
+                }
+            }
+        }
+        Set<String> locked = ((REnvTruffleFrameAccess) access).getLockedBindings();
+        if (locked != null && !locked.isEmpty()) {
+            result.lockedBindings = new HashSet<>(locked);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the bindings into the frame and returns the frame based access that should be used
+     * from now on.
+     */
+    @TruffleBoundary
+    public REnvTruffleFrameAccess toFrameAccess() {
+        REnvTruffleFrameAccess result = new REnvTruffleFrameAccess(frame);
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    result.put(keys[i], values[i]);
+                }
+            }
+        } catch (PutException e) {
+            throw RInternalError.shouldNotReachHere(e);
+        }
+        if (lockedBindings != null) {
+            for (String key : lockedBindings) {
+                result.lockBinding(key);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public MaterializedFrame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public Object get(String key) {
+        CompilerAsserts.neverPartOfCompilation();
+        int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+        Object value = values[index];
+        if (ActiveBinding.isActiveBinding(value)) {
+            Object readValue = ((ActiveBinding) value).readValue();
+            return readValue != RMissing.instance ? readValue : null;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isActiveBinding(String key) {
+        CompilerAsserts.neverPartOfCompilation();
+        int index = find(key);
+        return index >= 0 && ActiveBinding.isActiveBinding(values[index]);
+    }
+
+    @Override
+    public void put(String key, Object value) throws PutException {
+        CompilerAsserts.neverPartOfCompilation();
+        assert key != null;
+        assert value != null;
+        if (lockedBindings != null && lockedBindings.contains(key)) {
+            throw new PutException(RError.Message.ENV_CHANGE_BINDING, key);
+        }
+        int index = find(key);
+        if (index >= 0 && ActiveBinding.isActiveBinding(values[index])) {
+            ((ActiveBinding) values[index]).writeValue(value);
+        } else {
+            putValue(key, value);
+        }
+    }
+
+    @Override
+    public void rm(String key) throws PutException {
+        CompilerAsserts.neverPartOfCompilation();
+        assert key != null;
+        if (lockedBindings != null) {
+            lockedBindings.remove(key);
+        }
+        int index = find(key);
+        if (index < 0) {
+            throw new PutException(RError.Message.UNKNOWN_OBJECT, key);
+        }
+        removeAt(index);
+    }
+
+    @Override
+    @TruffleBoundary
+    public RStringVector ls(boolean allNames, Pattern pattern, boolean sorted) {
+        ArrayList<String> names = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (key != null && ActiveBinding.isListed(values[i]) && REnvironment.includeName(key, allNames, pattern)) {
+                names.add(key);
+            }
+        }
+        return createNamesVector(names, sorted);
+    }
+
+    @Override
+    @TruffleBoundary
+    public boolean bindingIsLocked(String key) {
+        return lockedBindings != null && lockedBindings.contains(key);
+    }
+
+    @Override
+    @TruffleBoundary
+    public void lockBindings() {
+        for (String key : keys) {
+            if (key != null) {
+                lockBinding(key);
+            }
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public void lockBinding(String key) {
+        if (lockedBindings == null) {
+            lockedBindings = new HashSet<>();
+        }
+        lockedBindings.add(key);
+    }
+
+    @Override
+    @TruffleBoundary
+    public void unlockBinding(String key) {
+        if (lockedBindings != null) {
+            lockedBindings.remove(key);
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int find(String key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            String current = keys[index];
+            if (current == null) {
+                return -1;
+            } else if (current.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void putValue(String key, Object value) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            String current = keys[index];
+            if (current == null) {
+                keys[index] = key;
+                values[index] = value;
+                if (++size * 4 > keys.length * 3) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            } else if (current.equals(key)) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void removeAt(int removed) {
+        int mask = keys.length - 1;
+        int hole = removed;
+        int index = (removed + 1) & mask;
+        // shift back the entries of the probe sequence that follows the removed entry
+        while (keys[index] != null) {
+            int home = hash(keys[index]) & mask;
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                putValue(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
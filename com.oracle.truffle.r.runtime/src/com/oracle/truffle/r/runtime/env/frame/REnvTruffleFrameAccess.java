@@ -22,12 +22,8 @@
  */
 package com.oracle.truffle.r.runtime.env.frame;
 
-import java.text.Collator;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Locale;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -42,10 +38,7 @@ import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
-import com.oracle.truffle.r.runtime.RLocale;
 import com.oracle.truffle.r.runtime.RRuntime;
-import com.oracle.truffle.r.runtime.context.RContext;
-import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
@@ -206,18 +199,7 @@ public final class REnvTruffleFrameAccess extends REnvFrameAccess {
                 matchedNamesList.add(name);
             }
         }
-        String[] data = matchedNamesList.toArray(new String[matchedNamesList.size()]);
-        if (sorted) {
-            Locale locale = RContext.getInstance().stateRLocale.getLocale(RLocale.COLLATE);
-            Collator collator = locale == Locale.ROOT || locale == null ? null : RLocale.getOrderCollator(locale);
-            Arrays.sort(data, new Comparator<String>() {
-                @Override
-                public int compare(String o1, String o2) {
-                    return RLocale.compare(collator, o1, o2);
-                }
-            });
-        }
-        return RDataFactory.createStringVector(data, RDataFactory.COMPLETE_VECTOR);
+        return createNamesVector(matchedNamesList, sorted);
     }
 
     @Override
@@ -253,6 +235,10 @@ public final class REnvTruffleFrameAccess extends REnvFrameAccess {
         }
     }
 
+    Set<String> getLockedBindings() {
+        return lockedBindings;
+    }
+
     public static void getStringIdentifiersAndValues(Frame frame, List<String> names, List<Object> values) {
         FrameDescriptor fd = frame.getFrameDescriptor();
         for (FrameSlot frameSlot : fd.getSlots()) {
@@ -103,6 +103,12 @@ public final class RFrameSlot {
      */
     public static final RFrameSlot RestartStack = new RFrameSlot("RestartStack", false);
 
+    /**
+     * Used by {@code lapply} to hold the state of its iteration, so that the loop can be executed
+     * by a {@code LoopNode}.
+     */
+    public static final RFrameSlot LapplyState = new RFrameSlot("LapplyState", false);
+
     public static final RFrameSlot ExplicitCallArgs = new RFrameSlot("RExplicitCall-argsIdentifier", true);
 
     public static final RFrameSlot FunctionEvalNodeArgsIdentifier = RFrameSlot.createTemp("FunctionEvalCallNode-argsIdentifier", true);
@@ -23,12 +23,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
@@ -130,6 +132,7 @@ public class DLL {
                     list.add(libRdllInfo);
                 }
             }
+            symbolsChanged();
             return this;
         }
 
@@ -146,6 +149,7 @@ public class DLL {
                 }
             }
             list = null;
+            symbolsChanged();
         }
 
         private static boolean isShareDLLKind(RContext.ContextKind kind) {
@@ -172,6 +176,17 @@ public class DLL {
      */
     private static final AtomicInteger ID = new AtomicInteger();
 
+    /**
+     * Incremented whenever the result of a symbol lookup may change, i.e., when a DLL is loaded or
+     * unloaded, or when its registered routines or lookup flags change. This lets
+     * {@link CachedFindSymbolNode} keep resolved symbols across calls.
+     */
+    private static final AtomicInteger SYMBOLS_VERSION = new AtomicInteger();
+
+    private static void symbolsChanged() {
+        SYMBOLS_VERSION.incrementAndGet();
+    }
+
     public enum NativeSymbolType {
         C,
         Call,
@@ -313,6 +328,7 @@ public class DLL {
             if (addToList) {
                 ContextStateImpl contextState = getContextState();
                 contextState.list.add(result);
+                symbolsChanged();
             }
             return result;
         }
@@ -339,10 +355,12 @@ public class DLL {
 
         public void setNativeSymbols(int nstOrd, DotSymbol[] symbols) {
             nativeSymbols[nstOrd] = symbols;
+            symbolsChanged();
         }
 
         public void setNativeSymbol(int nstOrd, int index, DotSymbol symbol) {
             nativeSymbols[nstOrd][index] = symbol;
+            symbolsChanged();
         }
 
         public DotSymbol[] getNativeSymbols(NativeSymbolType nst) {
@@ -623,6 +641,7 @@ public class DLL {
     public static DLLInfo createSyntheticLib(RContext context, String library) {
         DLLInfo dllInfo = DLLInfo.create(library, library, true, new SynthLibHandle(), false, true);
         context.stateDLL.list.add(dllInfo);
+        symbolsChanged();
         return dllInfo;
     }
 
@@ -726,6 +745,7 @@ public class DLL {
                         throw new DLLException(null, RError.Message.DLL_LOAD_ERROR, path, "");
                     }
                     contextState.list.remove(info);
+                    symbolsChanged();
                     return;
                 }
             }
@@ -824,6 +844,67 @@ public class DLL {
         }
     }
 
+    /**
+     * Caches the result of {@link RFindSymbolNode} for a single symbol name and library name, as
+     * used by {@code .C} and {@code .Fortran} call sites that pass the routine by name. The cached
+     * {@link NativeCallInfo} is reused as long as the call site runs in the same context and no DLL
+     * was loaded, unloaded or re-registered in the meantime. A call site that sees more than one
+     * name falls back to the uncached lookup.
+     */
+    public static final class CachedFindSymbolNode extends Node {
+        @Child private RFindSymbolNode findSymbolNode = RFindSymbolNode.create();
+        private final NativeSymbolType nst;
+
+        @CompilationFinal private boolean generic;
+        private String cachedName;
+        private String cachedLibName;
+        private ContextStateImpl cachedState;
+        private int cachedVersion;
+        private NativeCallInfo cachedInfo;
+
+        private CachedFindSymbolNode(NativeSymbolType nst) {
+            this.nst = nst;
+        }
+
+        public static CachedFindSymbolNode create(NativeSymbolType nst) {
+            return new CachedFindSymbolNode(nst);
+        }
+
+        /**
+         * Returns the {@link NativeCallInfo} for symbol {@code name} in library {@code libName}
+         * (or any library if {@code null}), or {@code null} if there is no such symbol.
+         */
+        public NativeCallInfo execute(String name, String libName) {
+            if (!generic) {
+                NativeCallInfo info = cachedInfo;
+                if (info != null && cachedVersion == SYMBOLS_VERSION.get() && cachedState == getContextState() && name.equals(cachedName) && Objects.equals(libName, cachedLibName)) {
+                    return info;
+                }
+            }
+            int version = SYMBOLS_VERSION.get();
+            RegisteredNativeSymbol rns = new RegisteredNativeSymbol(nst, null, null);
+            SymbolHandle func = findSymbolNode.execute(name, libName, rns);
+            if (func == SYMBOL_NOT_FOUND) {
+                return null;
+            }
+            NativeCallInfo info = new NativeCallInfo(name, func, rns.getDllInfo());
+            if (!generic) {
+                if (cachedName == null || (name.equals(cachedName) && Objects.equals(libName, cachedLibName))) {
+                    cachedName = name;
+                    cachedLibName = libName;
+                    cachedState = getContextState();
+                    cachedVersion = version;
+                    cachedInfo = info;
+                } else {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    generic = true;
+                    cachedInfo = null;
+                }
+            }
+            return info;
+        }
+    }
+
     private static final class RFindSymbolRootNode extends RootNode {
         @Child private RFindSymbolNode findSymbolNode = RFindSymbolNode.create();
 
@@ -952,12 +1033,14 @@ public class DLL {
     public static int useDynamicSymbols(DLLInfo dllInfo, int value) {
         int old = dllInfo.dynamicLookup ? 1 : 0;
         dllInfo.dynamicLookup = value != 0;
+        symbolsChanged();
         return old;
     }
 
     public static int forceSymbols(DLLInfo dllInfo, int value) {
         int old = dllInfo.forceSymbols ? 1 : 0;
         dllInfo.forceSymbols = value != 0;
+        symbolsChanged();
         return old;
     }
 
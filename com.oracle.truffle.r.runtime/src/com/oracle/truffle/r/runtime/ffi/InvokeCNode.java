@@ -22,6 +22,10 @@
  */
 package com.oracle.truffle.r.runtime.ffi;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ReportPolymorphism;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -75,6 +79,8 @@ public abstract class InvokeCNode extends RBaseNode {
     @Child private CRFFIUnwrapVectorsNode argsUnwrapperNode = CRFFIUnwrapVectorsNodeGen.create();
     @Child private FunctionObjectGetter functionGetterNode;
     private final ValueProfile stateRFFIProfile = ValueProfile.createClassProfile();
+    @CompilationFinal private ArgumentsSignature cachedSignature;
+    @CompilationFinal(dimensions = 1) private String[] cachedArgNames;
 
     public InvokeCNode(FunctionObjectGetter functionGetterNode) {
         this.functionGetterNode = functionGetterNode;
@@ -100,7 +106,7 @@ public abstract class InvokeCNode extends RBaseNode {
         Object before = stateRFFI.beforeDowncall(frame.materialize(), rffiType);
         try {
             execute(nativeCallInfo, preparedArgs);
-            return RDataFactory.createList(argsUnwrapperNode.execute(preparedArgs), validateArgNames(preparedArgs.length, args.getSignature()));
+            return RDataFactory.createList(argsUnwrapperNode.execute(preparedArgs), getArgNames(preparedArgs.length, args.getSignature()));
         } finally {
             stateRFFI.afterDowncall(before, rffiType);
         }
@@ -134,7 +140,23 @@ public abstract class InvokeCNode extends RBaseNode {
         }
     }
 
-    private static RStringVector validateArgNames(int argsLength, ArgumentsSignature signature) {
+    /**
+     * The names of the result list only depend on the signature, which is usually the same for a
+     * given call site, so they are computed once and then only copied.
+     */
+    private RStringVector getArgNames(int argsLength, ArgumentsSignature signature) {
+        if (cachedSignature == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            cachedSignature = signature;
+            cachedArgNames = validateArgNames(argsLength, signature);
+        }
+        if (signature == cachedSignature && argsLength == cachedArgNames.length) {
+            return RDataFactory.createStringVector(Arrays.copyOf(cachedArgNames, argsLength), RDataFactory.COMPLETE_VECTOR);
+        }
+        return RDataFactory.createStringVector(validateArgNames(argsLength, signature), RDataFactory.COMPLETE_VECTOR);
+    }
+
+    private static String[] validateArgNames(int argsLength, ArgumentsSignature signature) {
         String[] listArgNames = new String[argsLength];
         for (int i = 0; i < argsLength; i++) {
             String name = signature.getName(i);
@@ -143,7 +165,7 @@ public abstract class InvokeCNode extends RBaseNode {
             }
             listArgNames[i] = name;
         }
-        return RDataFactory.createStringVector(listArgNames, RDataFactory.COMPLETE_VECTOR);
+        return listArgNames;
     }
 
     public abstract static class FunctionObjectGetter extends Node {
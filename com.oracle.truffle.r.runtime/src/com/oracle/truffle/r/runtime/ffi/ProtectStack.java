@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.r.runtime.Collections;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+
+/**
+ * The stack behind {@code PROTECT}/{@code UNPROTECT}.
+ *
+ * Objects popped off the stack must stay alive until the next GNU-R compatible GC cycle (see
+ * {@link RFFIContext#registerReferenceUsedInNative(Object)}). Rather than moving every popped object
+ * into another list, {@link #pop(int)} only lowers the stack top and leaves the objects in their
+ * slots. Everything between the top and {@link #retainedTop} is such an unprotected, but still
+ * retained, object. Only when a later push reuses one of these slots is the displaced object moved
+ * aside. The common pattern of protecting a few objects and unprotecting them all before returning
+ * to R therefore costs one store per {@code PROTECT} and none per {@code UNPROTECT}.
+ */
+public final class ProtectStack {
+
+    private RBaseObject[] data;
+    private int size;
+
+    /**
+     * Slots {@code [size, retainedTop)} hold unprotected objects that must not be collected before
+     * {@link #releaseUnprotected()}.
+     */
+    private int retainedTop;
+
+    /**
+     * Unprotected objects whose slots were reused by a later push.
+     */
+    private final Collections.ArrayListObj<RBaseObject> displaced = new Collections.ArrayListObj<>(16);
+
+    public ProtectStack(int initialCapacity) {
+        this.data = new RBaseObject[initialCapacity];
+    }
+
+    /**
+     * Pushes the value and returns its index.
+     */
+    public int push(RBaseObject value, BranchProfile slowPathProfile) {
+        int index = size;
+        if (index < retainedTop) {
+            slowPathProfile.enter();
+            displaced.add(data[index]);
+        } else if (index == data.length) {
+            slowPathProfile.enter();
+            data = Arrays.copyOf(data, index * 2);
+        }
+        data[index] = value;
+        size = index + 1;
+        return index;
+    }
+
+    /**
+     * Unprotects the top {@code n} objects. Returns {@code false} if the stack holds fewer objects,
+     * in which case it is emptied.
+     */
+    public boolean pop(int n) {
+        int oldSize = size;
+        if (oldSize > retainedTop) {
+            retainedTop = oldSize;
+        }
+        if (n > oldSize) {
+            size = 0;
+            return false;
+        }
+        size = oldSize - n;
+        return true;
+    }
+
+    /**
+     * Returns the object at given index counting from the stack top, i.e. {@code peek(0)} is the
+     * most recently pushed one.
+     */
+    public RBaseObject peek(int depth) {
+        return get(size - 1 - depth);
+    }
+
+    public RBaseObject get(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+    public void set(int index, RBaseObject value) {
+        checkIndex(index);
+        data[index] = value;
+    }
+
+    /**
+     * Unprotects the topmost occurrence of {@code value}, wherever it is in the stack. Returns
+     * {@code false} if the value is not on the stack.
+     */
+    public boolean remove(RBaseObject value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (data[i] == value) {
+                int shuffleLen = size - 1 - i;
+                if (shuffleLen > 0) {
+                    System.arraycopy(data, i + 1, data, i, shuffleLen);
+                }
+                // the slot of the previous top now holds a duplicate of the new top, which does no
+                // harm in the retained area, and the removed value has to be retained separately
+                pop(1);
+                displaced.add(value);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops the references to all unprotected objects; invoked at the points where GNU-R could run
+     * its GC.
+     */
+    public void releaseUnprotected() {
+        if (retainedTop > size) {
+            Arrays.fill(data, size, retainedTop, null);
+        }
+        retainedTop = size;
+        if (displaced.size() > 0) {
+            displaced.clear();
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index >= size || index < 0) {
+            CompilerDirectives.transferToInterpreter();
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
@@ -38,6 +38,7 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.r.runtime.Collections;
 import com.oracle.truffle.r.runtime.RArguments;
 import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RMetrics;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
@@ -99,11 +100,12 @@ public abstract class RFFIContext extends RFFI {
 
         /**
          * Stack used by RFFI to implement the PROTECT/UNPROTECT functions. Objects registered on
-         * this stack do necessarily not have to be {@link #registerReferenceUsedInNative}, but once
-         * popped off, they must be put into that list. The initial size should "reasonably" big.
-         * (Should a special FastR configuration property be introduced to control the size?)
+         * this stack do not have to be {@link #registerReferenceUsedInNative}, once popped off,
+         * the stack itself retains them until the next cooperative GC. The initial size should
+         * "reasonably" big. (Should a special FastR configuration property be introduced to control
+         * the size?)
          */
-        public final Collections.ArrayListObj<RBaseObject> protectStack = new Collections.ArrayListObj<>(1000);
+        public final ProtectStack protectStack = new ProtectStack(1000);
 
         public MaterializedFrame currentDowncallFrame = null;
     }
@@ -143,7 +145,7 @@ public abstract class RFFIContext extends RFFI {
      * @param canRunGc {@code true} if this upcall can cause a gc on GNU R, and therefore can clear
      */
     public void beforeUpcall(RContext context, boolean canRunGc, @SuppressWarnings("unused") RFFIFactory.Type rffiType) {
-        // empty by default
+        RMetrics.NATIVE_UPCALLS.increment();
     }
 
     /**
@@ -182,6 +184,7 @@ public abstract class RFFIContext extends RFFI {
      */
     public Object beforeDowncall(MaterializedFrame frame, @SuppressWarnings("unused") RFFIFactory.Type rffiType) {
         rffiContextState.callDepth++;
+        RMetrics.NATIVE_DOWNCALLS.increment();
         MaterializedFrame savedDowncallFrame = rffiContextState.currentDowncallFrame;
         rffiContextState.currentDowncallFrame = frame == null || !RArguments.isRFrame(frame) ? null : frame;
         return savedDowncallFrame;
@@ -207,6 +210,7 @@ public abstract class RFFIContext extends RFFI {
     // this emulates GNUR's cooperative GC
     private void cooperativeGc() {
         rffiContextState.protectedNativeReferences.clear();
+        rffiContextState.protectStack.releaseUnprotected();
     }
 
     /**
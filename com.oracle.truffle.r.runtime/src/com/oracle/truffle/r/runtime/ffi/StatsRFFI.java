@@ -23,9 +23,8 @@
 package com.oracle.truffle.r.runtime.ffi;
 
 /**
- * Interface to native (C) methods provided by the {@code stats} package that are used to implement
- * {@code .Call(C_fft)}. The implementation is split into a Java part which calls the
- * {@code fft_factor} and {@code fft_work}. functions from the GNU R C code.
+ * Interface to native (C) methods provided by the {@code stats} package that are called directly
+ * from Java code, e.g., {@code lminfl} used to implement {@code .Call(C_influence)}.
  */
 public final class StatsRFFI {
     private final DownCallNodeFactory downCallNodeFactory;
@@ -34,34 +33,6 @@ public final class StatsRFFI {
         this.downCallNodeFactory = downCallNodeFactory;
     }
 
-    public static final class FactorNode extends NativeCallNode {
-        private FactorNode(DownCallNodeFactory factory) {
-            super(factory.createDownCallNode());
-        }
-
-        public void execute(int n, int[] pmaxf, int[] pmaxp) {
-            call(NativeFunction.fft_factor, n, pmaxf, pmaxp);
-        }
-
-        public static FactorNode create() {
-            return RFFIFactory.getStatsRFFI().createFactorNode();
-        }
-    }
-
-    public static final class SetupWorkNode extends NativeCallNode {
-        private SetupWorkNode(DownCallNodeFactory factory) {
-            super(factory.createDownCallNode());
-        }
-
-        public int execute(double[] a, int nseg, int n, int nspn, int isn, double[] work, int[] iwork) {
-            return (int) call(NativeFunction.fft_setup_work, a, nseg, n, nspn, isn, work, iwork);
-        }
-
-        public static SetupWorkNode create() {
-            return RFFIFactory.getStatsRFFI().createSetupWorkNode();
-        }
-    }
-
     public static final class LminflNode extends NativeCallNode {
         private LminflNode(DownCallNodeFactory factory) {
             super(factory.createDownCallNode());
@@ -76,14 +47,6 @@ public final class StatsRFFI {
         }
     }
 
-    public FactorNode createFactorNode() {
-        return new FactorNode(downCallNodeFactory);
-    }
-
-    public SetupWorkNode createSetupWorkNode() {
-        return new SetupWorkNode(downCallNodeFactory);
-    }
-
     public LminflNode createLminflNode() {
         return new LminflNode(downCallNodeFactory);
     }
@@ -26,6 +26,7 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,6 +39,7 @@ import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RCleanUp;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocSites;
 
 /**
  * Collects together all the context-specific state related to profiling, instrumentation.
@@ -80,6 +82,51 @@ public final class InstrumentationState implements RContext.ContextState {
         }
     }
 
+    private CopyAuditContext copyAuditContext;
+
+    /**
+     * State used by {@code .fastr.profmem}, see {@link MemAllocSites}.
+     */
+    private MemAllocSites memAllocSites;
+
+    /**
+     * State used by the {@code .fastr.copyaudit} built-in. Records the copies of vectors that were
+     * not shared at the time of copying, i.e. the copies that the reference counting did not
+     * require, aggregated by the location of the R call that triggered them.
+     */
+    public static final class CopyAuditContext {
+        private boolean enabled;
+        private boolean verbose;
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isVerbose() {
+            return verbose;
+        }
+
+        public void start(boolean printEachCopy) {
+            counts.clear();
+            this.enabled = true;
+            this.verbose = printEachCopy;
+        }
+
+        public void stop() {
+            this.enabled = false;
+        }
+
+        @TruffleBoundary
+        public void record(String location) {
+            counts.merge(location, 1, Integer::sum);
+        }
+
+        public Map<String, Integer> getCounts() {
+            return counts;
+        }
+    }
+
     /**
      * The {@link BrowserState} state, if any, associated with this {@link RContext}.
      */
@@ -256,6 +303,20 @@ public final class InstrumentationState implements RContext.ContextState {
         return tracememContext;
     }
 
+    public CopyAuditContext getCopyAudit() {
+        if (copyAuditContext == null) {
+            copyAuditContext = new CopyAuditContext();
+        }
+        return copyAuditContext;
+    }
+
+    public synchronized MemAllocSites getMemAllocSites() {
+        if (memAllocSites == null) {
+            memAllocSites = new MemAllocSites();
+        }
+        return memAllocSites;
+    }
+
     public BrowserState getBrowserState() {
         if (browserState == null) {
             browserState = new BrowserState();
@@ -280,6 +341,9 @@ public final class InstrumentationState implements RContext.ContextState {
                 ((DisposableExecutionEventListener) l).dispose();
             }
         }
+        if (memAllocSites != null) {
+            memAllocSites.stop();
+        }
     }
 
     public static InstrumentationState newContextState(Instrumenter instrumenter) {
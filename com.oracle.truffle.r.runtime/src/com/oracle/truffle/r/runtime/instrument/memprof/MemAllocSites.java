@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument.memprof;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.runtime.RArguments;
+import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RFunction;
+
+/**
+ * Remembers the allocation site of the objects created via {@link RDataFactory} while it is
+ * started, so that {@link MemRetainedSnapshot} can charge the retained memory to the sites that
+ * allocated it. The site is the R function that was executing, identified by its name and the
+ * location of its definition, or {@value #TOPLEVEL} for code evaluated at the top level. Objects
+ * allocated while the recording was off have the site {@value #UNKNOWN}.
+ *
+ * The objects are only weakly referenced, recording does not change what is retained.
+ */
+public final class MemAllocSites {
+
+    public static final String TOPLEVEL = "<toplevel>";
+    public static final String UNKNOWN = "<unknown>";
+
+    private static final RDataFactory.Listener LISTENER = new RDataFactory.Listener() {
+        @Override
+        public void reportAllocation(RBaseObject data) {
+            MemAllocSites sites = RContext.getInstance().getInstrumentationState().getMemAllocSites();
+            if (sites.started) {
+                sites.record(data);
+            }
+        }
+    };
+
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        Key(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((Key) obj).get();
+        }
+    }
+
+    private final HashMap<Key, String> sites = new HashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final IdentityHashMap<RootNode, String> siteNames = new IdentityHashMap<>();
+    private volatile boolean started;
+
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            RDataFactory.addListener(LISTENER);
+        }
+    }
+
+    public synchronized void stop() {
+        if (started) {
+            started = false;
+            RDataFactory.removeListener(LISTENER);
+        }
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    @TruffleBoundary
+    private synchronized void record(RBaseObject data) {
+        expungeCollected();
+        Frame frame = Utils.getActualCurrentFrame();
+        RFunction function = frame == null ? null : RArguments.getFunction(frame);
+        sites.put(new Key(data, collected), function == null ? TOPLEVEL : getSiteName(function.getRootNode()));
+    }
+
+    private String getSiteName(RootNode rootNode) {
+        String result = siteNames.get(rootNode);
+        if (result == null) {
+            result = rootNode.getName();
+            SourceSection ss = rootNode.getSourceSection();
+            if (ss != null && ss.isAvailable()) {
+                result += " at " + ss.getSource().getName() + "#" + ss.getStartLine();
+            }
+            siteNames.put(rootNode, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the allocation site of given object, {@value #UNKNOWN} if it was not recorded.
+     */
+    @TruffleBoundary
+    public synchronized String getSite(Object obj) {
+        String site = sites.get(new Key(obj, null));
+        return site == null ? UNKNOWN : site;
+    }
+
+    private void expungeCollected() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            sites.remove(ref);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument.memprof;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RObjectSize;
+import com.oracle.truffle.r.runtime.data.RPromise;
+import com.oracle.truffle.r.runtime.env.REnvironment;
+
+/**
+ * A snapshot of the memory retained by the R heap, attributed either to the bindings that keep it
+ * alive or to the sites that allocated it, as recorded by {@link MemAllocSites}. Unlike
+ * {@link MemAllocProfilerStacks}, which counts allocations as they happen, the snapshot only sees
+ * objects that are still reachable, so comparing two snapshots with
+ * {@link #diff(MemRetainedSnapshot)} shows which bindings or allocation sites grow over time.
+ *
+ * The heap is walked from the global environment, the search path and the namespace registry.
+ * Each reachable object is sized by {@link RObjectSize} and visited only once, so shared objects
+ * are counted only once. When attributing to bindings, an object is charged to the first binding
+ * through which it was reached. Environments reachable from a binding, e.g. closure environments,
+ * are walked as separate entries labelled by the path that leads to them, such as
+ * {@code .GlobalEnv$cache} or {@code .GlobalEnv$f()} for the environment of closure {@code f}.
+ *
+ * Native memory owned by native mirrors is accounted separately: the data of a vector kept in
+ * native memory are counted only in {@link Entry#getNativeBytes()}.
+ */
+public final class MemRetainedSnapshot {
+
+    /**
+     * Retained memory of a single binding.
+     */
+    public static final class Entry {
+        private long bytes;
+        private long nativeBytes;
+        private long objects;
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getNativeBytes() {
+            return nativeBytes;
+        }
+
+        public long getObjects() {
+            return objects;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+
+    private MemRetainedSnapshot(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * @return the entries keyed by {@code environment$binding} or by the allocation site in the
+     *         order the heap was walked
+     */
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Creates the snapshot of the current context's heap.
+     *
+     * @param sites the allocation sites to attribute the memory to or {@code null} to attribute it
+     *            to the bindings
+     */
+    @TruffleBoundary
+    public static MemRetainedSnapshot take(MemAllocSites sites) {
+        return new Walker(sites).walk();
+    }
+
+    /**
+     * Recreates a snapshot from its tabular form, e.g., as previously returned to R code.
+     */
+    public static MemRetainedSnapshot fromColumns(String[] keys, double[] bytes, double[] nativeBytes, double[] objects) {
+        Map<String, Entry> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            Entry entry = new Entry();
+            entry.bytes = (long) bytes[i];
+            entry.nativeBytes = (long) nativeBytes[i];
+            entry.objects = (long) objects[i];
+            result.put(keys[i], entry);
+        }
+        return new MemRetainedSnapshot(result);
+    }
+
+    /**
+     * Computes the change from {@code before} to this snapshot. Entries that disappeared are
+     * reported with negative values, entries whose retained size did not change are omitted.
+     */
+    @TruffleBoundary
+    public MemRetainedSnapshot diff(MemRetainedSnapshot before) {
+        Map<String, Entry> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry old = before.entries.get(e.getKey());
+            addDelta(result, e.getKey(), e.getValue(), old, 1);
+        }
+        for (Map.Entry<String, Entry> e : before.entries.entrySet()) {
+            if (!entries.containsKey(e.getKey())) {
+                addDelta(result, e.getKey(), e.getValue(), null, -1);
+            }
+        }
+        return new MemRetainedSnapshot(result);
+    }
+
+    private static void addDelta(Map<String, Entry> result, String key, Entry entry, Entry old, int sign) {
+        Entry delta = new Entry();
+        delta.bytes = sign * entry.bytes - (old == null ? 0 : old.bytes);
+        delta.nativeBytes = sign * entry.nativeBytes - (old == null ? 0 : old.nativeBytes);
+        delta.objects = sign * entry.objects - (old == null ? 0 : old.objects);
+        if (delta.bytes != 0 || delta.nativeBytes != 0 || delta.objects != 0) {
+            result.put(key, delta);
+        }
+    }
+
+    private static final class Walker {
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final ArrayDeque<Object> stack = new ArrayDeque<>();
+        private final ArrayDeque<String> envLabels = new ArrayDeque<>();
+        private final ArrayDeque<REnvironment> envs = new ArrayDeque<>();
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private final MemAllocSites sites;
+
+        Walker(MemAllocSites sites) {
+            this.sites = sites;
+        }
+
+        MemRetainedSnapshot walk() {
+            REnvironment global = REnvironment.globalEnv();
+            addEnv(".GlobalEnv", global);
+            for (String name : REnvironment.searchPath()) {
+                REnvironment env = REnvironment.lookupOnSearchPath(name);
+                if (env != null) {
+                    addEnv(name, env);
+                }
+            }
+            REnvironment registry = REnvironment.getNamespaceRegistry();
+            for (String name : registry.ls(true, null, true).getReadonlyStringData()) {
+                Object ns = registry.get(name);
+                if (ns instanceof REnvironment) {
+                    addEnv("namespace:" + name, (REnvironment) ns);
+                }
+            }
+            while (!envs.isEmpty()) {
+                walkEnv(envLabels.poll(), envs.poll());
+            }
+            return new MemRetainedSnapshot(entries);
+        }
+
+        private void addEnv(String label, REnvironment env) {
+            if (visited.add(env)) {
+                envLabels.add(label);
+                envs.add(env);
+            }
+        }
+
+        private void walkEnv(String label, REnvironment env) {
+            for (String name : env.ls(true, null, false).getReadonlyStringData()) {
+                if (env.isActiveBinding(name)) {
+                    continue;
+                }
+                Object value = env.get(name);
+                if (value == null) {
+                    continue;
+                }
+                String key = label + "$" + name;
+                push(key, value);
+                while (!stack.isEmpty()) {
+                    Object obj = stack.pop();
+                    Entry entry = entries.computeIfAbsent(sites == null ? key : sites.getSite(obj), k -> new Entry());
+                    entry.objects++;
+                    long nativeBytes = obj instanceof RBaseObject ? NativeDataAccess.getNativeMemorySize((RBaseObject) obj) : 0;
+                    entry.bytes += Math.max(0, RObjectSize.getObjectSizeQuiet(obj) - nativeBytes);
+                    entry.nativeBytes += nativeBytes;
+                    RObjectSize.visitReferences(obj, ref -> push(key, ref));
+                    if (obj instanceof RPromise && ((RPromise) obj).isEvaluated()) {
+                        push(key, ((RPromise) obj).getValue());
+                    } else if (obj instanceof RFunction && !((RFunction) obj).isBuiltin()) {
+                        MaterializedFrame enclosing = ((RFunction) obj).getEnclosingFrame();
+                        if (enclosing != null) {
+                            addEnv(key + "()", REnvironment.frameToEnvironment(enclosing));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void push(String key, Object obj) {
+            if (obj == null) {
+                return;
+            }
+            if (obj instanceof REnvironment) {
+                addEnv(key, (REnvironment) obj);
+            } else if (visited.add(obj)) {
+                stack.push(obj);
+            }
+        }
+    }
+
+    /**
+     * Returns the entries ordered by decreasing absolute retained size, native memory included.
+     */
+    public List<Map.Entry<String, Entry>> sortedEntries() {
+        List<Map.Entry<String, Entry>> result = new ArrayList<>(entries.entrySet());
+        result.sort((a, b) -> Long.compare(Math.abs(b.getValue().bytes + b.getValue().nativeBytes), Math.abs(a.getValue().bytes + a.getValue().nativeBytes)));
+        return result;
+    }
+}
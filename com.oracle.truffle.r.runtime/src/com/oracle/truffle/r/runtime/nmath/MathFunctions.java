@@ -29,6 +29,25 @@ package com.oracle.truffle.r.runtime.nmath;
 public class MathFunctions {
     public interface Function4_2 {
         double evaluate(double a, double b, double c, double d, boolean x, boolean y);
+
+        /**
+         * Checks the parameters {@code b}, {@code c} and {@code d}, which are not {@code NaN}, once
+         * for a whole vector of values {@code a}. If this returns {@code true},
+         * {@link #evaluateValid} gives the same result as {@link #evaluate} for these parameters
+         * and any {@code a} that is not {@code NaN}.
+         */
+        default boolean validParameters(@SuppressWarnings("unused") double b, @SuppressWarnings("unused") double c, @SuppressWarnings("unused") double d, @SuppressWarnings("unused") boolean x,
+                        @SuppressWarnings("unused") boolean y) {
+            return false;
+        }
+
+        /**
+         * Like {@link #evaluate}, but without validating the parameters, see
+         * {@link #validParameters}.
+         */
+        default double evaluateValid(double a, double b, double c, double d, boolean x, boolean y) {
+            return evaluate(a, b, c, d, x, y);
+        }
     }
 
     public interface Function4_1 extends Function4_2 {
@@ -46,7 +65,26 @@ public class MathFunctions {
             return evaluate(a, b, c, x, y);
         }
 
+        @Override
+        default boolean validParameters(double b, double c, double d, boolean x, boolean y) {
+            return validParameters(b, c, x, y);
+        }
+
+        @Override
+        default double evaluateValid(double a, double b, double c, double d, boolean x, boolean y) {
+            return evaluateValid(a, b, c, x, y);
+        }
+
         double evaluate(double a, double b, double c, boolean x, boolean y);
+
+        default boolean validParameters(@SuppressWarnings("unused") double b, @SuppressWarnings("unused") double c, @SuppressWarnings("unused") boolean x,
+                        @SuppressWarnings("unused") boolean y) {
+            return false;
+        }
+
+        default double evaluateValid(double a, double b, double c, boolean x, boolean y) {
+            return evaluate(a, b, c, x, y);
+        }
     }
 
     public interface Function3_1 extends Function3_2 {
@@ -55,7 +93,25 @@ public class MathFunctions {
             return evaluate(a, b, c, x);
         }
 
+        @Override
+        default boolean validParameters(double b, double c, boolean x, boolean y) {
+            return validParameters(b, c, x);
+        }
+
+        @Override
+        default double evaluateValid(double a, double b, double c, boolean x, boolean y) {
+            return evaluateValid(a, b, c, x);
+        }
+
         double evaluate(double a, double b, double c, boolean x);
+
+        default boolean validParameters(@SuppressWarnings("unused") double b, @SuppressWarnings("unused") double c, @SuppressWarnings("unused") boolean x) {
+            return false;
+        }
+
+        default double evaluateValid(double a, double b, double c, boolean x) {
+            return evaluate(a, b, c, x);
+        }
     }
 
     public interface Function2_1 extends Function3_2 {
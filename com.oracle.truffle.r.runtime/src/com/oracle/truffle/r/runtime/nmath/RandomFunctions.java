@@ -65,6 +65,20 @@ public class RandomFunctions {
         }
     }
 
+    /**
+     * Implemented by random functions that can generate a whole vector at once if all the
+     * parameters are scalars. The result must be the same as calling the scalar version for every
+     * element, including the consumed random numbers.
+     */
+    public interface RandFunctionBulk {
+        /**
+         * Fills {@code result} with variates for the given parameters. Returns {@code false},
+         * without consuming any random numbers, if the parameters are not handled by the bulk
+         * version, e.g., because they are invalid and the result would be {@code NaN}.
+         */
+        boolean executeBulk(double a, double b, double c, double[] result, RandomNumberProvider rand);
+    }
+
     /**
      * Convenient wrapper of the current random number generator and current "norm kind" value.
      */
@@ -93,6 +107,22 @@ public class RandomFunctions {
             return SNorm.normRand(generator, normKind);
         }
 
+        /**
+         * Fills {@code result} with uniform random numbers, same as calling {@link #unifRand()}
+         * for every element.
+         */
+        public void unifRands(double[] result) {
+            generator.genrandDoubles(result, 0, result.length);
+        }
+
+        /**
+         * Fills {@code result} with standard normal random numbers, same as calling
+         * {@link #normRand()} for every element.
+         */
+        public void normRands(double[] result) {
+            SNorm.normRands(generator, normKind, result);
+        }
+
         public double expRand() {
             return SExp.expRand(generator);
         }
@@ -52,8 +52,17 @@ public final class DNorm implements Function3_1 {
             }
             return (x == mu) ? Double.POSITIVE_INFINITY : DPQ.rd0(giveLog);
         }
+        return evaluateValid(x, mu, sigma, giveLog);
+    }
 
-        x = (x - mu) / sigma;
+    @Override
+    public boolean validParameters(double mu, double sigma, boolean giveLog) {
+        return sigma > 0 && Double.isFinite(sigma) && Double.isFinite(mu);
+    }
+
+    @Override
+    public double evaluateValid(double xa, double mu, double sigma, boolean giveLog) {
+        double x = (xa - mu) / sigma;
         x = Math.abs(x);
         if (x >= 2 * Math.sqrt(Double.MAX_VALUE)) {
             return DPQ.rd0(giveLog);
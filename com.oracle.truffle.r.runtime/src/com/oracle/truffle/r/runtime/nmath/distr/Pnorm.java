@@ -81,6 +81,16 @@ public final class Pnorm implements Function3_2 {
             /* sigma = 0 : */
             return (x < mu) ? DPQ.rdt0(lowerTail, logP) : DPQ.rdt1(lowerTail, logP);
         }
+        return evaluateValid(x, mu, sigma, lowerTail, logP);
+    }
+
+    @Override
+    public boolean validParameters(double mu, double sigma, boolean lowerTail, boolean logP) {
+        return sigma > 0 && Double.isFinite(mu);
+    }
+
+    @Override
+    public double evaluateValid(double x, double mu, double sigma, boolean lowerTail, boolean logP) {
         double p = (x - mu) / sigma;
         if (!Double.isFinite(p)) {
             return (x < mu) ? DPQ.rdt0(lowerTail, logP) : DPQ.rdt1(lowerTail, logP);
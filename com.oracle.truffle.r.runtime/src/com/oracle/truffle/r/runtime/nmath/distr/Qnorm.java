@@ -67,6 +67,16 @@ public final class Qnorm implements Function3_2 {
         return qnormImpl(p, mu, sigma, lowerTail, logP);
     }
 
+    @Override
+    public boolean validParameters(double mu, double sigma, boolean lowerTail, boolean logP) {
+        return sigma > 0;
+    }
+
+    @Override
+    public double evaluateValid(double p, double mu, double sigma, boolean lowerTail, boolean logP) {
+        return qnorm(p, mu, sigma, lowerTail, logP);
+    }
+
     /**
      * Static version without arguments validation.
      */
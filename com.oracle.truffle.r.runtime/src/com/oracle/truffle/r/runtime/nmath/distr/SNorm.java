@@ -119,6 +119,32 @@ public final class SNorm {
         // only static members
     }
 
+    private static final int BULK_CHUNK = 1024;
+
+    /**
+     * Bulk version of {@link #normRand(RandomNumberGenerator, NormKind)}. The default
+     * {@link NormKind#INVERSION} always takes two uniform numbers per variate, so these are drawn
+     * from the generator in chunks, the other kinds draw a variable number of uniform numbers and
+     * are generated one by one.
+     */
+    public static void normRands(RandomNumberGenerator rand, NormKind normKind, double[] result) {
+        if (normKind != NormKind.INVERSION) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = normRand(rand, normKind);
+            }
+            return;
+        }
+        double[] uniforms = new double[2 * Math.min(result.length, BULK_CHUNK)];
+        for (int from = 0; from < result.length; from += BULK_CHUNK) {
+            int count = Math.min(result.length - from, BULK_CHUNK);
+            rand.genrandDoubles(uniforms, 0, 2 * count);
+            for (int i = 0; i < count; i++) {
+                double u1 = (int) (BIG * uniforms[2 * i]) + uniforms[2 * i + 1];
+                result[from + i] = Qnorm.qnorm(u1 / BIG, 0.0, 1.0, true, false);
+            }
+        }
+    }
+
     @SuppressWarnings("unused")
     public static double normRand(RandomNumberGenerator rand, NormKind normKind) {
         double s;
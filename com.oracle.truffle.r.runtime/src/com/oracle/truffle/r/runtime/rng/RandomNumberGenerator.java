@@ -37,6 +37,18 @@ public interface RandomNumberGenerator {
 
     double genrandDouble();
 
+    /**
+     * Stores the next {@code count} random doubles into {@code result} starting at index
+     * {@code from}. The values and the final state are the same as with {@code count} calls to
+     * {@link #genrandDouble()}, generators that produce their values in blocks can override this to
+     * avoid the per value overhead.
+     */
+    default void genrandDoubles(double[] result, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            result[i] = genrandDouble();
+        }
+    }
+
     Kind getKind();
 
     /**
@@ -118,6 +118,14 @@ static const R_CallMethodDef CallEntries[] = {
         CALLDEF(benchProtect, 2),
         CALLDEF(test_lapplyWithForceAndCall, 4),
         CALLDEF(rapi_dotCall, 2),
+        CALLDEF(test_setStringElt, 1),
+        CALLDEF(test_setVectorElt, 1),
+        CALLDEF(test_install, 2),
+        CALLDEF(test_protectMany, 1),
+        CALLDEF(test_unprotectPtr, 0),
+        CALLDEF(test_unbalancedUnprotect, 0),
+        CALLDEF(test_allocNative, 2),
+        CALLDEF(test_allocNativeMatrix, 2),
         #include "init_api.h"
         {NULL, NULL, 0}
 };
@@ -1085,3 +1085,126 @@ SEXP benchProtect(SEXP x, SEXP nn) {
   }
   return res > 10 ? R_NilValue : x;
 }
+
+SEXP test_setStringElt(SEXP src) {
+    int n = LENGTH(src);
+    SEXP result;
+    PROTECT(result = allocVector(STRSXP, n));
+    for (int i = 0; i < n; i++) {
+        SET_STRING_ELT(result, i, STRING_ELT(src, n - 1 - i));
+    }
+    UNPROTECT(1);
+    return result;
+}
+
+SEXP test_setVectorElt(SEXP src) {
+    int n = LENGTH(src);
+    SEXP result;
+    PROTECT(result = allocVector(VECSXP, n));
+    for (int i = 0; i < n; i++) {
+        SET_VECTOR_ELT(result, i, VECTOR_ELT(src, n - 1 - i));
+    }
+    // overwriting an element that is already set
+    if (n > 0) {
+        SET_VECTOR_ELT(result, 0, VECTOR_ELT(src, 0));
+    }
+    UNPROTECT(1);
+    return result;
+}
+
+SEXP test_install(SEXP names, SEXP repeats) {
+    int n = LENGTH(names);
+    int r = INTEGER_VALUE(repeats);
+    SEXP result;
+    PROTECT(result = allocVector(VECSXP, n));
+    // installing the names again and again from one call site must give the same symbols, also
+    // when there are more names than the call site caches
+    for (int k = 0; k < r; k++) {
+        for (int i = 0; i < n; i++) {
+            SEXP sym = install(CHAR(STRING_ELT(names, i)));
+            if (k == 0) {
+                SET_VECTOR_ELT(result, i, sym);
+            } else if (VECTOR_ELT(result, i) != sym) {
+                error("install returned another symbol for '%s'", CHAR(STRING_ELT(names, i)));
+            }
+        }
+    }
+    UNPROTECT(1);
+    return result;
+}
+
+SEXP test_protectMany(SEXP nn) {
+    int n = INTEGER_VALUE(nn);
+    SEXP first;
+    PROTECT(first = allocVector(VECSXP, n));
+    // more objects than the initial capacity of the protect stack
+    for (int i = 0; i < n; i++) {
+        PROTECT(ScalarInteger(i));
+    }
+    R_gc();
+    for (int i = 0; i < n; i++) {
+        SET_VECTOR_ELT(first, i, ScalarInteger(i));
+    }
+    UNPROTECT(n + 1);
+    return first;
+}
+
+SEXP test_unprotectPtr() {
+    SEXP a, b, c, result;
+    PROTECT(a = mkString("a"));
+    PROTECT(b = mkString("b"));
+    PROTECT(c = mkString("c"));
+    // b is unprotected out of order, a and c stay protected
+    UNPROTECT_PTR(b);
+    R_gc();
+    PROTECT(result = allocVector(VECSXP, 2));
+    SET_VECTOR_ELT(result, 0, a);
+    SET_VECTOR_ELT(result, 1, c);
+    UNPROTECT(3);
+    return result;
+}
+
+SEXP test_unbalancedUnprotect() {
+    PROTECT(ScalarInteger(1));
+    UNPROTECT(2);
+    return R_NilValue;
+}
+
+SEXP test_allocNative(SEXP type, SEXP nn) {
+    int n = INTEGER_VALUE(nn);
+    SEXP result;
+    if (INTEGER_VALUE(type) == INTSXP) {
+        PROTECT(result = allocVector(INTSXP, n));
+        int *data = INTEGER(result);
+        for (int i = 0; i < n; i++) {
+            if (data[i] != 0) {
+                error("element %d of a new integer vector is not zero", i);
+            }
+            data[i] = i;
+        }
+    } else {
+        PROTECT(result = allocVector(REALSXP, n));
+        double *data = REAL(result);
+        for (int i = 0; i < n; i++) {
+            if (data[i] != 0) {
+                error("element %d of a new double vector is not zero", i);
+            }
+            data[i] = i / 2.0;
+        }
+    }
+    UNPROTECT(1);
+    return result;
+}
+
+SEXP test_allocNativeMatrix(SEXP nrow, SEXP ncol) {
+    int nr = INTEGER_VALUE(nrow);
+    int nc = INTEGER_VALUE(ncol);
+    SEXP result;
+    PROTECT(result = allocMatrix(REALSXP, nr, nc));
+    double *data = REAL(result);
+    for (int i = 0; i < nr * nc; i++) {
+        data[i] = i;
+    }
+    UNPROTECT(1);
+    return result;
+}
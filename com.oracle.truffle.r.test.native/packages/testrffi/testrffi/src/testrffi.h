@@ -161,3 +161,19 @@ extern SEXP test_lapplyWithForceAndCall(SEXP list, SEXP fn, SEXP fa, SEXP rho);
 
 extern SEXP benchProtect(SEXP x, SEXP nn);
 
+
+extern SEXP test_setStringElt(SEXP src);
+
+extern SEXP test_setVectorElt(SEXP src);
+
+extern SEXP test_install(SEXP names, SEXP repeats);
+
+extern SEXP test_protectMany(SEXP n);
+
+extern SEXP test_unprotectPtr();
+
+extern SEXP test_unbalancedUnprotect();
+
+extern SEXP test_allocNative(SEXP type, SEXP n);
+
+extern SEXP test_allocNativeMatrix(SEXP nrow, SEXP ncol);
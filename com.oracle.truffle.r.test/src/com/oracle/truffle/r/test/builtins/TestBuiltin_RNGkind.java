@@ -37,4 +37,14 @@ public class TestBuiltin_RNGkind extends TestBase {
         // Note: GnuR also prints warning about NAs
         assertEval(Output.IgnoreErrorMessage, ".Internal(RNGkind(NULL, 'abc', NULL))");
     }
+
+    @Test
+    public void testLecuyer() {
+        assertEval("{ set.seed(1, kind=\"L'Ecuyer-CMRG\"); x <- runif(5); RNGkind('default'); x }");
+        assertEval("{ set.seed(1, kind=\"L'Ecuyer-CMRG\"); s <- .Random.seed; RNGkind('default'); s }");
+        assertEval("{ set.seed(1, kind=\"L'Ecuyer-CMRG\"); runif(3); s <- .Random.seed; RNGkind('default'); s }");
+        assertEval("{ RNGkind(\"L'Ecuyer-CMRG\"); set.seed(123); x <- rnorm(5); k <- RNGkind(); RNGkind('default'); list(x, k) }");
+        // restoring .Random.seed restores the stream
+        assertEval("{ set.seed(42, kind=\"L'Ecuyer-CMRG\"); s <- .Random.seed; x <- runif(3); .Random.seed <- s; y <- runif(3); RNGkind('default'); identical(x, y) }");
+    }
 }
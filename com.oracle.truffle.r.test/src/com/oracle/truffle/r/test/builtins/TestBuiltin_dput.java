@@ -71,4 +71,13 @@ public class TestBuiltin_dput extends TestBase {
     public void testdput() {
         assertEval("x <- structure(list(A = c(1L, 1L), B = structure(c(1L, 1L), .Label = c('G', 'D'), class = 'factor'), C = structure(c(1L, 1L), .Label = c('G', 'D'), class = 'factor')), .Names = c('A', 'B', 'C'), row.names = 1:2, class = 'data.frame'); dput(x)");
     }
+
+    @Test
+    public void testdputLarge() {
+        // output larger than the buffer of the streaming writer
+        assertEval("{ x <- seq(0.5, 30000.5); f <- tempfile(); dput(x, f); res <- identical(dget(f), x); unlink(f); res }");
+        assertEval("{ x <- list(a=as.character(1:20000), b=list(c=1:10, d=letters)); f <- tempfile(); dput(x, f); res <- identical(dget(f), x); unlink(f); res }");
+        assertEval("{ tc <- textConnection('out', 'w'); dput(as.character(1:20000), tc); close(tc); c(length(out) > 1, identical(eval(parse(text=out)), as.character(1:20000))) }");
+        assertEval("{ tc <- textConnection('out', 'w'); cat('before\\n', file=tc); dput(1:3, tc); cat('after\\n', file=tc); close(tc); out }");
+    }
 }
@@ -118,4 +118,21 @@ public class TestBuiltin_lapply extends TestBase {
 
         assertEval("{ f <- function(v) { sapply(1:3, function(k) v)}; f(1); f(2) }");
     }
+
+    @Test
+    public void testLapplyLongInput() {
+        assertEval("{ x <- lapply(1:100000, function(i) i * 2L); c(length(x), x[[1]], x[[100000]], sum(as.numeric(unlist(x)))) }");
+        assertEval("{ x <- lapply(1:1000, function(i) lapply(seq_len(i), function(j) j)); c(length(x), length(x[[1000]]), sum(unlist(x))) }");
+        assertEval("{ f <- function(n) lapply(seq_len(n), function(i) n - i); x <- lapply(1:300, f); c(length(x[[300]]), x[[300]][[1]], x[[1]][[1]]) }");
+        assertEval("{ l <- as.list(1:50000); names(l) <- paste0('n', 1:50000); x <- lapply(l, function(v) v + 1L); c(names(x)[50000], x[[50000]]) }");
+    }
+
+    @Test
+    public void testLapplyEarlyError() {
+        assertEval(Output.IgnoreErrorContext, "{ lapply(1:10, function(i) stop('first')) }");
+        assertEval(Output.IgnoreErrorContext, "{ lapply(1:100000, function(i) if (i == 3) stop('boom') else i) }");
+        assertEval("{ n <- 0; tryCatch(lapply(1:1000, function(i) { n <<- n + 1; if (i == 500) stop('x') }), error=function(e) NULL); n }");
+        assertEval("{ f <- function(n) tryCatch(lapply(1:n, function(i) if (i == 5) stop('boom') else i), error=function(e) conditionMessage(e)); c(f(10), length(f(4)), f(100000)) }");
+        assertEval("{ f <- function(k) { r <- tryCatch(lapply(1:1000, function(i) if (i == k) stop('e') else i), error=function(e) 'caught'); if (is.list(r)) length(r) else r }; c(f(2), f(999), f(0)) }");
+    }
 }
@@ -199,6 +199,15 @@ public class TestBuiltin_log extends TestBase {
         assertEval("{ y <- array(1:6, c(2,3), list(y=c('y1','y2'), x=c('x1','x2','x3'))); r <- log(y); r; }");
     }
 
+    @Test
+    public void testLogTemporary() {
+        assertEval("{ x <- c(1, 2, 4); y <- c(2, 2, 2); r <- log(x * y); list(x=x, y=y, r=r) }");
+        assertEval("{ x <- c(a=1, b=NA, c=4); r <- log(x + 1, 2); list(x=x, r=r) }");
+        assertEval("{ m <- matrix(c(1, 2, 3, 4), 2); log(m * 2, NA) }");
+        assertEval(Output.IgnoreWarningContext, "{ x <- c(-1, 1); log(x * 2) }");
+        assertEval("{ f <- function(x) log(x + 1); x <- c(1, 2); f(x); x }");
+    }
+
     @Test
     public void testSideEffect() {
         assertEval("{ a <- c(1, 2, 4); foo <- function() { a[[1]] <<- 42; 33; }; log(a, foo()) }");
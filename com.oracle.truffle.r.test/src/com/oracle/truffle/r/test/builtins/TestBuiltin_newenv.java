@@ -37,4 +37,30 @@ public class TestBuiltin_newenv extends TestBase {
         assertEval(Output.ContainsReferences, "parent.env(new.env())");
         assertEval(Output.ContainsReferences, "e <- new.env(); e; parent.env(new.env(TRUE, e))");
     }
+
+    private static final String FILL = "e <- new.env(%0); for (i in 1:600) assign(paste0('v', i), i, envir=e); ";
+    private static final String[] HASH = {"", "hash=FALSE", "hash=TRUE", "size=10L"};
+
+    @Test
+    public void testManyBindings() {
+        // environments growing past the threshold at which FastR switches to hashed bindings
+        assertEval(template("{ " + FILL + "c(length(ls(e)), e$v1, e$v300, get('v600', envir=e), exists('v601', envir=e), exists('v42', envir=e, inherits=FALSE)) }", HASH));
+        assertEval(template("{ " + FILL + "assign('v1', 'x', envir=e); e[['v2']] <- 'y'; e$v3 <- 'z'; list(e$v1, get('v2', e), mget(c('v3', 'v4'), envir=e)) }", HASH));
+        assertEval(template("{ " + FILL + "rm(list=paste0('v', 1:590), envir=e); c(ls(e), exists('v1', envir=e), exists('v600', envir=e)) }", HASH));
+        assertEval(template("{ " + FILL + "rm('v5', envir=e); assign('v5', 55, envir=e); c(e$v5, length(ls(e))) }", HASH));
+        assertEval(template("{ " + FILL + "l <- ls(e, sorted=FALSE); c(length(l), anyDuplicated(l), identical(sort(l), ls(e)), identical(names(as.list(e, sorted=TRUE)), ls(e))) }", HASH));
+        assertEval(template("{ " + FILL + "f <- function() v42 * 2; environment(f) <- e; c(f(), eval(quote(v600), e), evalq(v1 + v2, e)) }", HASH));
+    }
+
+    @Test
+    public void testManyBindingsLocking() {
+        assertEval(template("{ " + FILL + "lockBinding('v10', e); tryCatch(assign('v10', 0, envir=e), error=function(err) cat('error\\n')); c(e$v10, bindingIsLocked('v10', e), bindingIsLocked('v11', e)) }", HASH));
+        assertEval(template("{ " + FILL + "lockEnvironment(e); e$v1 <- 0; tryCatch(assign('w', 0, envir=e), error=function(err) cat('error\\n')); c(e$v1, exists('w', envir=e)) }", HASH));
+        assertEval(template("{ " + FILL + "lockEnvironment(e, bindings=TRUE); tryCatch(assign('v1', 0, envir=e), error=function(err) cat('error\\n')); e$v1 }", HASH));
+        assertEval(template("{ " + FILL + "makeActiveBinding('active', function() 42, e); assign('w', 1, envir=e); c(e$active, get('active', e), exists('active', envir=e), length(ls(e))) }", HASH));
+        assertEval(template("{ e <- new.env(%0); makeActiveBinding('active', function(v) if (missing(v)) 42 else cat('set', v, '\\n'), e); for (i in 1:600) assign(paste0('v', i), i, envir=e); assign('active', 1, envir=e); c(e$active, e$v600) }", HASH));
+        // the bindings cannot be moved into a hash table, the later assignments must keep working
+        assertEval("{ e <- new.env(); makeActiveBinding('active', function() 42, e); for (i in 1:1000) assign(paste0('v', i), i, envir=e); c(e$active, e$v257, e$v1000, length(ls(e))) }");
+        assertEval("{ e <- list2env(setNames(as.list(1:300), paste0('v', 1:300))); for (i in 301:1000) assign(paste0('v', i), i, envir=e); c(e$v1, e$v300, e$v1000, length(ls(e))) }");
+    }
 }
@@ -73,6 +73,18 @@ public class TestBuiltin_parse extends TestBase {
         assertEval("parse(text='', srcfile=srcfile(system.file('testfile')))");
     }
 
+    @Test
+    public void testParseSameCodeTwice() {
+        // functions parsed from identical code must not share their state
+        assertEval("{ code <- 'function(x) x + 1'; f1 <- eval(parse(text=code)[[1]]); f2 <- eval(parse(text=code)[[1]]); debug(f1); c(isdebugged(f1), isdebugged(f2)) }");
+        assertEval("{ code <- 'f <- function(x) x + 1; g <- function(x) f(x) * 2'; e1 <- new.env(); e2 <- new.env(); eval(parse(text=code), e1); eval(parse(text=code), e2); debug(e1$g); res <- c(isdebugged(e1$g), isdebugged(e2$g), isdebugged(e1$f), isdebugged(e2$f)); undebug(e1$g); c(res, e2$g(1)) }");
+        assertEval("{ code <- 'function(x) x + 1'; f1 <- eval(parse(text=code)[[1]]); f2 <- eval(parse(text=code)[[1]]); body(f1) <- quote(x - 1); c(f1(10), f2(10)) }");
+        assertEval("{ code <- 'function(x) {\n  x + 1\n}'; f1 <- eval(parse(text=code, keep.source=TRUE)[[1]]); f2 <- eval(parse(text=code, keep.source=TRUE)[[1]]); trace(f1, quote(cat('traced\\n')), print=FALSE); f1(1); f2(1) }");
+        // the trees are copied into the cache on the second parse and handed out from the third one
+        assertEval("{ code <- 'function(x) x + 1'; fs <- lapply(1:4, function(i) eval(parse(text=code)[[1]])); debug(fs[[3]]); body(fs[[4]]) <- quote(x - 1); c(sapply(fs, isdebugged), fs[[2]](10), fs[[4]](10)) }");
+        assertEval("{ code <- 'x <- 1; y <- x + 1'; res <- lapply(1:3, function(i) { e <- new.env(); eval(parse(text=code), e); e$y }); unlist(res) }");
+    }
+
     // TODO: correct parsing metadata for string constants with escape sequences and similar
     private final String[] PARSE_DATA_TESTS = {
                     "x + 1",
@@ -174,4 +174,33 @@ public class TestBuiltin_rbind extends TestBase {
         assertEval("dput(rbind(integer(0)))");
         assertEval("dput(rbind(integer(0), NULL, NULL))");
     }
+
+    @Test
+    public void testDataFrames() {
+        // the homogeneous fast path
+        assertEval("{ do.call(rbind, lapply(1:5, function(i) data.frame(a=i, b=i * 1.5, c=letters[i], stringsAsFactors=FALSE))) }");
+        assertEval("{ x <- do.call(rbind, lapply(1:3, function(i) data.frame(a=i, b=c(TRUE, FALSE)))); list(x, attributes(x)) }");
+        assertEval("{ rbind(data.frame(a=1:2, b=c('x', 'y'), stringsAsFactors=FALSE), data.frame(a=3L, b='z', stringsAsFactors=FALSE)) }");
+        // factor columns with different levels
+        assertEval("{ x <- rbind(data.frame(f=factor(c('a', 'b'))), data.frame(f=factor(c('c', 'a')))); list(x, levels(x$f)) }");
+        assertEval("{ x <- rbind(data.frame(f=factor('b', levels=c('b', 'a'))), data.frame(f='c', stringsAsFactors=FALSE)); list(x, levels(x$f)) }");
+        assertEval("{ x <- cbind(data.frame(f=factor(c('a', 'b'))), g=factor(c('x', 'y'))); list(x, sapply(x, class)) }");
+        // mismatched column names or order
+        assertEval("{ rbind(data.frame(a=1, b=2), data.frame(b=3, a=4)) }");
+        assertEval(Output.IgnoreErrorContext, "{ rbind(data.frame(a=1, b=2), data.frame(a=3, c=4)) }");
+        assertEval(Output.IgnoreErrorContext, "{ rbind(data.frame(a=1, b=2), data.frame(a=3)) }");
+        assertEval("{ rbind(data.frame(a=1L, b=2), data.frame(a=3.5, b=4L)) }");
+        assertEval("{ cbind(data.frame(a=1:2), data.frame(a=3:4)) }");
+        // zero-row inputs
+        assertEval("{ x <- rbind(data.frame(a=integer(0), b=character(0)), data.frame(a=1L, b='x', stringsAsFactors=FALSE)); list(x, sapply(x, class)) }");
+        assertEval("{ x <- rbind(data.frame(a=1:2), data.frame(a=integer(0))); list(x, attributes(x)) }");
+        assertEval("{ x <- rbind(data.frame(a=integer(0)), data.frame(a=integer(0))); list(x, dim(x)) }");
+        assertEval("{ cbind(data.frame(a=integer(0)), data.frame(b=character(0))) }");
+        // row names
+        assertEval("{ x <- rbind(data.frame(a=1:2, row.names=c('r1', 'r2')), data.frame(a=3:4, row.names=c('r1', 'r3'))); rownames(x) }");
+        assertEval("{ x <- rbind(data.frame(a=1, row.names='r'), data.frame(a=2, row.names='r'), data.frame(a=3, row.names='r')); rownames(x) }");
+        assertEval("{ x <- rbind(data.frame(a=1:2), data.frame(a=3:4)); list(rownames(x), .row_names_info(x)) }");
+        assertEval("{ rownames(rbind(x=data.frame(a=1), y=data.frame(a=2))) }");
+        assertEval("{ rownames(cbind(data.frame(a=1:2, row.names=c('p', 'q')), data.frame(b=3:4))) }");
+    }
 }
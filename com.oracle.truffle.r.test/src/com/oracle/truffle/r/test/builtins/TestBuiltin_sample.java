@@ -137,4 +137,31 @@ public class TestBuiltin_sample extends TestBase {
         assertEval("set.seed(42); sample(4, prob=c(1,2))");
         assertEval("set.seed(42); sample(4, prob=c(-1,1,1,2))");
     }
+
+    @Test
+    public void testWeightedSampling() {
+        // Walker alias method, used for more than 200 probabilities
+        assertEval("set.seed(42); sample(250, 20, replace=TRUE, prob=(1:250)/250)");
+        assertEval("set.seed(1); x <- sample(300, 1000, replace=TRUE, prob=rep(c(1,3), 150)); table(x %% 2)");
+        assertEval("set.seed(2); p <- runif(500); list(sample(500, 10, TRUE, p), sample(500, 10, TRUE, p))");
+        assertEval("set.seed(3); sample(letters, 30, replace=TRUE, prob=c(rep(0, 13), rep(1, 13)))");
+        assertEval("set.seed(4); p <- c(rep(0, 300), 1:201); x <- sample(501, 50, TRUE, p); c(min(x) > 301, length(x))");
+        // cumulative distribution, used up to 200 probabilities
+        assertEval("set.seed(42); sample(10, 20, replace=TRUE, prob=c(1,2,3,4,5,5,4,3,2,1))");
+        assertEval("set.seed(42); sample(200, 15, replace=TRUE, prob=200:1)");
+        assertEval("set.seed(42); sample(5, 10, replace=TRUE, prob=c(0,1,0,2,0))");
+        assertEval("set.seed(42); p <- c(1,2,3); x <- sample(3, 5, TRUE, p); p[1] <- 100; y <- sample(3, 5, TRUE, p); list(x, y)");
+        // without replacement
+        assertEval("set.seed(42); sample(10, 5, prob=1:10)");
+        assertEval("set.seed(42); sample(300, 10, prob=rep(c(1,5), 150))");
+    }
+
+    @Test
+    public void testSparseSampling() {
+        assertEval("set.seed(42); sample(1e9, 5)");
+        assertEval("set.seed(42); sample(1e6, 10)");
+        assertEval("set.seed(42); .Internal(sample(1e7, 5, FALSE, NULL))");
+        assertEval("set.seed(42); x <- sample(1e5, 6000); c(length(unique(x)), range(x) >= 1 & range(x) <= 1e5)");
+        assertEval("set.seed(42); sample(100, 6)");
+    }
 }
@@ -36,6 +36,8 @@ public class TestBuiltin_sample2 extends TestBase {
         // test with n > MAX_INT
         assertEval("set.seed(42);  .Internal(sample2(4147483647, 10))");
         assertEval("set.seed(42);  .Internal(sample2(NULL,3))");
+        assertEval("set.seed(42);  .Internal(sample2(1e9, 5))");
+        assertEval("set.seed(42);  x <- .Internal(sample2(1e8, 1000)); c(length(unique(x)), min(x) >= 1, max(x) <= 1e8)");
     }
 
     @Test
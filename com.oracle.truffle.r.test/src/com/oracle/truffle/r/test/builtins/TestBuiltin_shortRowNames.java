@@ -137,6 +137,15 @@ public class TestBuiltin_shortRowNames extends TestBase {
         assertEval("argv <- list(structure(list(Df = c(NA, 1, 2), Deviance = c(12.2441566485997, 8.44399377410362, 11.9670615295804), AIC = c(73.9421143635373, 72.1419514890412, 77.665019244518)), .Names = c('Df', 'Deviance', 'AIC'), row.names = c('<none>', 'Temp', 'Soft'), class = c('anova', 'data.frame'), heading = c('Single term additions', '\\nModel:', 'cbind(X, M) ~ M.user')), 2L); .Internal(shortRowNames(argv[[1]], argv[[2]]))");
     }
 
+    @Test
+    public void testCompactRowNames() {
+        assertEval("x <- data.frame(a=1:5); y <- x[1:3, , drop=FALSE]; .Internal(shortRowNames(y, 0L)); .Internal(shortRowNames(y, 1L))");
+        assertEval("x <- data.frame(a=1:5); y <- x[2:4, , drop=FALSE]; .Internal(shortRowNames(y, 0L))");
+        assertEval("x <- 1:4; attr(x, 'row.names') <- 1:3; .Internal(shortRowNames(x, 0L)); attr(x, 'row.names')");
+        assertEval("x <- 1:4; attr(x, 'row.names') <- c(1L, 2L, 3L); .Internal(shortRowNames(x, 0L))");
+        assertEval("x <- 1:4; attr(x, 'row.names') <- 1:2; .Internal(shortRowNames(x, 0L))");
+    }
+
     @Test
     public void testArgCasts() {
         assertEval(".Internal(shortRowNames(42, -2))");
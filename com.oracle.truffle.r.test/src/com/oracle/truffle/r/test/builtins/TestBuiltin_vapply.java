@@ -74,4 +74,21 @@ public class TestBuiltin_vapply extends TestBase {
         assertEval("{ b <- list(a=structure(c(1:3), names=c('x','y')),b=structure(c(1:3), names=c('x2','y2','z2'))); a <- vapply(b, function (x) x, FUN.VALUE=1:3); attributes(a); a[1:5] }");
         assertEval("{ a<-structure(1:2, names=c('a1','a2')); b<-vapply(a, function(v) v + 3, 0); names(b)[1]<-'x'; a }");
     }
+
+    @Test
+    public void testVapplyLongInput() {
+        assertEval("{ x <- vapply(1:100000, function(i) i * 2L, 0L); c(length(x), x[100000], sum(as.numeric(x))) }");
+        assertEval("{ x <- vapply(1:100000, function(i) i / 2, 0); c(length(x), x[3], x[100000]) }");
+        assertEval("{ x <- vapply(1:50000, function(i) i %% 2 == 0, TRUE); c(length(x), sum(x)) }");
+        assertEval("{ x <- vapply(1:20000, function(i) c(i, -i), c(a=0, b=0)); c(dim(x), x[, 20000]) }");
+    }
+
+    @Test
+    public void testVapplyEarlyError() {
+        assertEval(Output.IgnoreErrorContext, "{ vapply(1:100000, function(i) if (i == 3) stop('boom') else i, 0L) }");
+        assertEval(Output.IgnoreErrorContext, "{ vapply(1:100000, function(i) if (i == 3) 'a' else 1, 0) }");
+        assertEval(Output.IgnoreErrorContext, "{ vapply(1:1000, function(i) if (i == 999) c(1, 2) else 1, 0) }");
+        assertEval("{ n <- 0; tryCatch(vapply(1:1000, function(i) { n <<- n + 1; if (i == 500) stop('x'); i }, 0L), error=function(e) NULL); n }");
+        assertEval("{ f <- function(k) tryCatch(sum(vapply(1:1000, function(i) if (i == k) stop('e') else i, 0L)), error=function(e) -1L); c(f(2), f(999), f(0)) }");
+    }
 }
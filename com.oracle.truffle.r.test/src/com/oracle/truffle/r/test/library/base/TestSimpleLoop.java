@@ -111,6 +111,16 @@ public class TestSimpleLoop extends TestBase {
         assertEval("{ l <- quote(for(i in s) { x <- i }) ; s <- 1:3 ; eval(l) ; s <- NULL ; eval(l) ; x }");
     }
 
+    @Test
+    public void testRangeKinds() {
+        assertEval("{ r <- NULL; for (x in c(a=1.5, b=2.5)) r <- c(r, x); r }");
+        assertEval("{ r <- NULL; for (x in c(TRUE, NA, FALSE)) r <- c(r, x); r }");
+        assertEval("{ r <- NULL; for (x in c('a', NA, 'c')) r <- c(r, x); r }");
+        assertEval("{ r <- NULL; for (x in 7L) r <- c(r, x); r }");
+        assertEval("{ r <- list(); for (x in list(1, 'a', NULL)) r <- c(r, list(x)); r }");
+        assertEval("{ f <- function(s) { r <- 0; for (x in s) r <- r + x; r }; f(1:3); f(c(1.5, 2)); f(structure(1:3, class='foo')) }");
+    }
+
     @Test
     public void testDynamic() {
         assertEval("{ l <- quote({x <- 0 ; for(i in 1:10) { x <- x + i } ; x}) ; f <- function() { eval(l) } ; x <<- 10 ; f() }");
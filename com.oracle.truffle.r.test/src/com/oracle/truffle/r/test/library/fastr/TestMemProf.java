@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestMemProf extends TestBase {
+
+    @Test
+    public void testProfmemRetained() {
+        assertEvalFastR("{ r <- .fastr.profmem.retained(); c(names(r), class(r$binding), class(r$bytes)) }", "c('binding', 'bytes', 'native', 'objects', 'character', 'numeric', 'numeric')");
+        assertEvalFastR("{ big <- rep(1, 1e5); r <- .fastr.profmem.retained(); r$bytes[r$binding == '.GlobalEnv$big'] >= 8e5 }", "TRUE");
+        assertEvalFastR("{ r <- .fastr.profmem.retained(); cache <- new.env(); cache$data <- runif(1e4); d <- .fastr.profmem.retained(r); d$bytes[d$binding == '.GlobalEnv$cache$data'] >= 8e4 }", "TRUE");
+        // the entries are ordered by the retained size including native memory
+        assertEvalFastR("{ r <- .fastr.profmem.retained(); all(diff(abs(r$bytes + r$native)) <= 0) }", "TRUE");
+        assertEvalFastR("{ r <- .fastr.profmem.retained(); all(r$native >= 0) && all(r$objects > 0) }", "TRUE");
+        // objects of other kinds, e.g. external pointers or Java objects, do not produce warnings
+        assertEvalFastR("{ n <- 0; e <- new.env(); e$f <- function() 42; e$l <- list(quote(x), as.name('y'), 1:3, e); withCallingHandlers(.fastr.profmem.retained(), warning = function(w) { n <<- n + 1; invokeRestart('muffleWarning') }); n }", "0");
+        assertEvalFastR("{ tryCatch(.fastr.profmem.retained(list(1, 2)), error = function(e) conditionMessage(e)) }", "\"'before' must be a result of .fastr.profmem.retained\"");
+    }
+
+    @Test
+    public void testProfmemRetainedBySite() {
+        assertEvalFastR("{ r <- .fastr.profmem.retained(by = 'site'); names(r) }", "c('site', 'bytes', 'native', 'objects')");
+        assertEvalFastR("{ .fastr.profmem(TRUE); f <- function() rep(1, 1e5); x <- f(); .fastr.profmem(FALSE); r <- .fastr.profmem.retained(by = 'site'); any(startsWith(r$site, 'f') & r$bytes >= 8e5) }", "TRUE");
+        // objects allocated before the recording started have an unknown site
+        assertEvalFastR("{ x <- rep(1, 1e5); .fastr.profmem(TRUE); r <- .fastr.profmem.retained(by = 'site'); .fastr.profmem(FALSE); any(r$site == '<unknown>' & r$bytes >= 8e5) }", "TRUE");
+        assertEvalFastR("{ .fastr.profmem(TRUE); grow <- function(e) e$data <- c(e$data, runif(1e4)); cache <- new.env(); r <- .fastr.profmem.retained(by = 'site'); grow(cache); grow(cache); d <- .fastr.profmem.retained(r, by = 'site'); .fastr.profmem(FALSE); any(startsWith(d$site, 'grow') & d$bytes >= 1.6e5) }", "TRUE");
+        assertEvalFastR("{ tryCatch(.fastr.profmem.retained(.fastr.profmem.retained(), by = 'site'), error = function(e) conditionMessage(e)) }", "\"'before' must be a result of .fastr.profmem.retained\"");
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestMetrics extends TestBase {
+
+    @Test
+    public void testMetrics() {
+        assertEvalFastR("{ m <- .fastr.metrics(); names(m) }", "c('counters', 'allocations', 'copies')");
+        assertEvalFastR("{ m <- .fastr.metrics(); c(is.double(m$counters), is.double(m$allocations), is.double(m$copies)) }", "c(TRUE, TRUE, TRUE)");
+        assertEvalFastR("{ names(.fastr.metrics()$counters) }",
+                        "c('contextsCreated', 'promisesForced', 's3DispatchCacheMisses', 's4DispatchCacheMisses', 'nativeDowncalls', 'nativeUpcalls', 'connectionBytesRead', 'connectionBytesWritten')");
+        // nothing is counted unless FASTR_METRICS is set
+        assertEvalFastR("{ before <- .fastr.metrics()$counters[['connectionBytesWritten']]; f <- tempfile(); writeLines('0123456789', f); unlink(f); d <- .fastr.metrics()$counters[['connectionBytesWritten']] - before; if (nzchar(Sys.getenv('FASTR_METRICS')) || nzchar(Sys.getenv('FASTR_METRICS_JMX'))) d >= 10 else d == 0 }", "TRUE");
+        assertEvalFastR("{ m <- .fastr.metrics(); x <- rep(1, 10); y <- x; y[1] <- 2; m2 <- .fastr.metrics(); if (nzchar(Sys.getenv('FASTR_METRICS')) || nzchar(Sys.getenv('FASTR_METRICS_JMX'))) all(m2$allocations[names(m$allocations)] >= m$allocations) else length(m2$allocations) == 0 && length(m2$copies) == 0 }", "TRUE");
+    }
+}
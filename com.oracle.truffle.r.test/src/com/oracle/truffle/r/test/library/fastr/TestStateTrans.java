@@ -40,5 +40,31 @@ public class TestStateTrans extends TestBase {
         // creating a copy
         assertEvalFastR("{ x<-rep(1, 100); xi1<-.fastr.identity(x); f<-function(x) { x }; f(x); x[1]<-7; xi2<-.fastr.identity(x); xi1 == xi2 }", "TRUE");
         assertEvalFastR("{ x<-rep(1, 100); xi1<-.fastr.identity(x); f<-function(x) { y<-x; y }; f(x); x[1]<-7; xi2<-.fastr.identity(x); xi1 == xi2 }", "TRUE");
+        // resizing a shared vector must leave the original intact
+        assertEvalFastR("{ x<-c(a=1,b=2); y<-x; y[4]<-4; identical(x, c(a=1,b=2)) && length(y) == 4 }", "TRUE");
+        assertEvalFastR("{ x<-list(1,2); y<-x; y[[3]]<-3; length(x) == 2 && length(y) == 3 }", "TRUE");
+    }
+
+    @Test
+    public void testCopyAudit() {
+        assertEvalFastR("{ x<-rep(1, 100); .fastr.copyaudit(TRUE); x[1]<-7; r<-.fastr.copyaudit(FALSE); length(r) }", "0");
+        assertEvalFastR("{ x<-rep(1, 100); y<-x; .fastr.copyaudit(TRUE); y[1]<-7; r<-.fastr.copyaudit(FALSE); length(r) }", "0");
+        assertEvalFastR("{ r<-.fastr.copyaudit(FALSE); is.integer(r) }", "TRUE");
+        // growing a vector needs a new vector even if it is not shared
+        assertEvalFastR("{ x<-rep(1, 100); .fastr.copyaudit(TRUE); x[101]<-7; r<-.fastr.copyaudit(FALSE); length(r) }", "0");
+        // stopping the audit must not stop tracemem
+        assertEvalFastR("{ v<-c(1,10,100); invisible(tracemem(v)); .fastr.copyaudit(TRUE); invisible(.fastr.copyaudit(FALSE)); x<-v; out<-capture.output(x[[1]]<-42); untracemem(v); length(grep('tracemem', out)) }",
+                        "1");
+        assertEvalFastR("{ v<-c(1,10,100); invisible(tracemem(v)); .fastr.copyaudit(TRUE); old<-tracingState(FALSE); tracingState(old); invisible(.fastr.copyaudit(FALSE)); x<-v; out<-capture.output(x[[1]]<-42); untracemem(v); length(grep('tracemem', out)) }",
+                        "1");
+    }
+
+    @Test
+    public void testNestedReplacement() {
+        // names(x)[i] <- v modifies the names in place once they are not shared
+        assertEvalFastR("{ x<-c(a=1,b=2,c=3); names(x)[1]<-'z'; n1<-.fastr.identity(attr(x, 'names')); names(x)[2]<-'y'; n2<-.fastr.identity(attr(x, 'names')); n1 == n2 && identical(names(x), c('z','y','c')) }", "TRUE");
+        // the other owners of the names must not see the change
+        assertEvalFastR("{ x<-c(a=1,b=2); y<-x; names(y)[1]<-'z'; identical(names(x), c('a','b')) && identical(names(y), c('z','b')) }", "TRUE");
+        assertEvalFastR("{ x<-c(a=1,b=2); n<-names(x); names(x)[1]<-'z'; names(x)[2]<-'y'; identical(n, c('a','b')) && identical(names(x), c('z','y')) }", "TRUE");
     }
 }
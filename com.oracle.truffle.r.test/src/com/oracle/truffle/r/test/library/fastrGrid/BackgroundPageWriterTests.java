@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastrGrid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.library.fastrGrid.device.BackgroundPageWriter;
+import com.oracle.truffle.r.library.fastrGrid.device.GridDevice.DeviceCloseException;
+import com.oracle.truffle.r.test.TestBase;
+
+public class BackgroundPageWriterTests extends TestBase {
+    private static final int PAGES = 10;
+
+    @Test
+    public void pagesAreWrittenInOrder() throws DeviceCloseException {
+        BackgroundPageWriter writer = new BackgroundPageWriter();
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < PAGES; i++) {
+            int page = i;
+            writer.submit(() -> {
+                // earlier pages take longer to write
+                sleep(PAGES - page);
+                written.add(page);
+            });
+        }
+        writer.waitForAll();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < PAGES; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, written);
+    }
+
+    @Test
+    public void pagesWithTheSameFileName() throws DeviceCloseException, IOException {
+        // e.g. png("out.png") without %d in the file name
+        Path file = Files.createTempFile("fastr-grid-page", ".txt");
+        try {
+            BackgroundPageWriter writer = new BackgroundPageWriter();
+            for (int i = 0; i < PAGES; i++) {
+                byte[] content = pageContent(i);
+                writer.submit(() -> {
+                    Files.write(file, content);
+                });
+            }
+            writer.waitForAll();
+            assertArrayEquals(pageContent(PAGES - 1), Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void errorIsReportedLater() throws DeviceCloseException {
+        BackgroundPageWriter writer = new BackgroundPageWriter();
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch secondSubmitted = new CountDownLatch(1);
+        writer.submit(() -> {
+            await(secondSubmitted);
+            throw new IOException("page 0 failed");
+        });
+        writer.submit(() -> written.add(1));
+        secondSubmitted.countDown();
+        try {
+            writer.waitForAll();
+            fail("the error of the first page should be reported");
+        } catch (DeviceCloseException e) {
+            assertTrue(e.getMessage().contains("page 0 failed"));
+        }
+        // the following pages are still written and the error is reported only once
+        assertEquals(Collections.singletonList(1), written);
+        writer.waitForAll();
+    }
+
+    private static byte[] pageContent(int page) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("page ").append(page).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
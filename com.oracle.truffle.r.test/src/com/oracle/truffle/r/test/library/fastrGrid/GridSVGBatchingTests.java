@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastrGrid;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+/**
+ * Checks that drawing vectorized grid primitives, which are passed to the device in batches and
+ * share cached drawing contexts, produces the same SVG as drawing the primitives one by one with
+ * scalar gpars.
+ */
+public class GridSVGBatchingTests extends TestBase {
+    private static final String HELPERS = "library(grid); " +
+                    "svgOf <- function(draw) { svg(tempfile()); draw(); svg.off() }; " +
+                    "elements <- function(s, tag) regmatches(s, gregexpr(paste0('<', tag, '[^>]*>'), s))[[1]]; " +
+                    "styleOf <- function(e, attr) toupper(sub(paste0('.*', attr, ':(#[0-9A-Fa-f]{6}).*'), '\\\\1', e)); " +
+                    "xOf <- function(e) as.numeric(sub(\".* x='([0-9]+)'.*\", '\\\\1', e)); ";
+
+    @Test
+    public void testRects() {
+        // col repeats with period 4 and fill with period 2, lwd changes in the middle
+        run("n <- 8; x <- (1:n) / 10; col <- rep(c('red', 'blue'), each = 2); fill <- c('green', 'yellow'); lwd <- rep(c(1, 3), each = 4); " +
+                        "b <- svgOf(function() grid.rect(x = x, y = .5, width = .05, height = .1, gp = gpar(col = col, fill = fill, lwd = lwd))); " +
+                        "l <- svgOf(function() for (i in 1:n) grid.rect(x = x[[i]], y = .5, width = .05, height = .1, gp = gpar(col = col[[(i - 1) %% 4 + 1]], fill = fill[[(i - 1) %% 2 + 1]], lwd = lwd[[i]]))); " +
+                        "e <- tail(elements(b, 'rect'), n); " +
+                        "c(identical(b, l), !is.unsorted(xOf(e)), identical(styleOf(e, 'stroke'), rep(c('#FF0000', '#FF0000', '#0000FF', '#0000FF'), 2)), " +
+                        "identical(styleOf(e, 'fill'), rep(c('#00FF00', '#FFFF00'), 4)))",
+                        "rep(TRUE, 4)");
+        // scalar gpar, more rectangles than fit into a single batch
+        run("n <- 1030; x <- (1:n) / (n + 1); " +
+                        "b <- svgOf(function() grid.rect(x = x, y = .5, width = .001, height = .1, gp = gpar(col = 'red'))); " +
+                        "l <- svgOf(function() for (i in 1:n) grid.rect(x = x[[i]], y = .5, width = .001, height = .1, gp = gpar(col = 'red'))); " +
+                        "e <- tail(elements(b, 'rect'), n); " +
+                        "c(identical(b, l), !is.unsorted(xOf(e)), all(styleOf(e, 'stroke') == '#FF0000'))",
+                        "rep(TRUE, 3)");
+        // the period of the gpar values is too long for the drawing contexts to be cached
+        run("n <- 300; x <- (1:n) / (n + 1); col <- rainbow(n); lwd <- c(1, 2); " +
+                        "b <- svgOf(function() grid.rect(x = x, y = .5, width = .001, height = .1, gp = gpar(col = col, lwd = lwd))); " +
+                        "l <- svgOf(function() for (i in 1:n) grid.rect(x = x[[i]], y = .5, width = .001, height = .1, gp = gpar(col = col[[i]], lwd = lwd[[(i - 1) %% 2 + 1]]))); " +
+                        "e <- tail(elements(b, 'rect'), n); " +
+                        "c(identical(b, l), !is.unsorted(xOf(e)), identical(styleOf(e, 'stroke'), toupper(substr(col, 1, 7))))",
+                        "rep(TRUE, 3)");
+    }
+
+    @Test
+    public void testPoints() {
+        // squares and circles are batched, the triangle (pch = 2) has to flush the batches
+        run("n <- 8; x <- (1:n) / 10; pch <- c(0, 1, 15, 19, 2, 16, 0, 1); col <- rep(c('red', 'blue'), each = 2); " +
+                        "b <- svgOf(function() grid.points(x = x, y = rep(.5, n), pch = pch, gp = gpar(col = col, fill = 'green'))); " +
+                        "l <- svgOf(function() for (i in 1:n) grid.points(x = x[[i]], y = .5, pch = pch[[i]], gp = gpar(col = col[[(i - 1) %% 4 + 1]], fill = 'green'))); " +
+                        "e <- tail(elements(b, '(rect|circle|polyline)'), n); " +
+                        "c(identical(b, l), identical(sub('<([a-z]+) .*', '\\\\1', e), c('rect', 'circle', 'rect', 'circle', 'polyline', 'circle', 'rect', 'circle')), " +
+                        "identical(styleOf(e, 'stroke'), rep(c('#FF0000', '#FF0000', '#0000FF', '#0000FF'), 2)))",
+                        "rep(TRUE, 3)");
+    }
+
+    @Test
+    public void testSegments() {
+        // lty changes the enclosing group, col changes only the element style
+        run("n <- 6; x <- (1:n) / 10; col <- c('red', 'blue', 'blue'); lty <- rep(c(1, 2), each = 3); " +
+                        "b <- svgOf(function() grid.segments(x0 = x, y0 = .2, x1 = x, y1 = .8, gp = gpar(col = col, lty = lty))); " +
+                        "l <- svgOf(function() for (i in 1:n) grid.segments(x0 = x[[i]], y0 = .2, x1 = x[[i]], y1 = .8, gp = gpar(col = col[[(i - 1) %% 3 + 1]], lty = lty[[i]]))); " +
+                        "e <- tail(elements(b, 'polyline'), n); " +
+                        "c(identical(b, l), !is.unsorted(as.numeric(sub(\".*points='([0-9]+),.*\", '\\\\1', e))), " +
+                        "identical(styleOf(e, 'stroke'), rep(c('#FF0000', '#0000FF', '#0000FF'), 2)), length(gregexpr('stroke-dasharray', b)[[1]]) == 1)",
+                        "rep(TRUE, 4)");
+    }
+
+    @Test
+    public void testText() {
+        // the rotation of the third label and the multi-line label flush the batch
+        run("txt <- c('a', 'bb', 'c', 'd\\ne', 'f', 'g'); n <- length(txt); x <- (1:n) / 10; rot <- c(0, 0, 90, 0, 0, 0); col <- c('red', 'blue'); fontsize <- rep(c(10, 12), each = 3); " +
+                        "b <- svgOf(function() grid.text(txt, x = x, y = .5, rot = rot, gp = gpar(col = col, fontsize = fontsize))); " +
+                        "l <- svgOf(function() for (i in 1:n) grid.text(txt[[i]], x = x[[i]], y = .5, rot = rot[[i]], gp = gpar(col = col[[(i - 1) %% 2 + 1]], fontsize = fontsize[[i]]))); " +
+                        "e <- regmatches(b, gregexpr('<text[^>]*>[^<]*</text>', b))[[1]]; " +
+                        "c(identical(b, l), identical(sub('.*>([^<]*)</text>', '\\\\1', e), c('a', 'bb', 'c', 'd', 'e', 'f', 'g')), " +
+                        "identical(styleOf(e, 'fill'), c('#FF0000', '#0000FF', '#FF0000', '#0000FF', '#0000FF', '#FF0000', '#0000FF')))",
+                        "rep(TRUE, 3)");
+    }
+
+    private void run(String testCode, String expected) {
+        assertEvalFastR(HELPERS + testCode, expected);
+    }
+}
@@ -53,4 +53,24 @@ public class TestBuiltin_mclapply extends TestBase {
         assertEval(Ignored.ImplementationError,
                         "parallel:::mclapply(1:3, function(i) { Sys.sleep(.1); parallel:::mclapply(1:3, function(i) { Sys.sleep(.1); parallel:::mclapply(1:3, function(i) {i}) }) })");
     }
+
+    @Test
+    public void testMCLapplyPool() {
+        // the worker contexts are reused, so the options they set survive until the next call
+        String counter = "count <- function(i) { n <- getOption('fastr.test.count', 0) + 1; options(fastr.test.count=n); n }; ";
+        assertEvalFastR("options(fastr.mc.pool=TRUE); " + counter + "r1 <- parallel::mclapply(1:2, count, mc.cores=2); r2 <- parallel::mclapply(1:2, count, mc.cores=2); options(fastr.mc.pool=NULL); c(unlist(r1), unlist(r2))",
+                        "c(1, 1, 2, 2)");
+        // the pool grows when more cores are requested, the old workers are not reused
+        assertEvalFastR("options(fastr.mc.pool=TRUE); " + counter +
+                        "r1 <- parallel::mclapply(1:2, count, mc.cores=2); r2 <- parallel::mclapply(1:3, count, mc.cores=3); r3 <- parallel::mclapply(1:2, count, mc.cores=2); options(fastr.mc.pool=NULL); c(unlist(r1), unlist(r2), unlist(r3))",
+                        "c(1, 1, 1, 1, 1, 2, 2)");
+        // the pool is dropped after a failed call
+        assertEvalFastR("options(fastr.mc.pool=TRUE); " + counter +
+                        "r1 <- parallel::mclapply(1:2, count, mc.cores=2); suppressWarnings(parallel::mclapply(1:2, function(i) if (i == 2) stop('failed') else i, mc.cores=2)); " +
+                        "r2 <- parallel::mclapply(1:2, count, mc.cores=2); options(fastr.mc.pool=NULL); c(unlist(r1), unlist(r2))",
+                        "c(1, 1, 1, 1)");
+        // the global environment of the workers is emptied between the calls
+        assertEval("{ options(fastr.mc.pool=TRUE); r1 <- parallel::mclapply(1:2, function(i) { assign('mc.pool.test.x', i, envir=globalenv()); i }, mc.cores=2); " +
+                        "r2 <- parallel::mclapply(1:2, function(i) exists('mc.pool.test.x', envir=globalenv(), inherits=FALSE), mc.cores=2); options(fastr.mc.pool=NULL); c(unlist(r1), unlist(r2)) }");
+    }
 }
@@ -102,6 +102,21 @@ public class TestRandGenerationFunctions extends TestBase {
         assertEval("for(gen in c(\"Buggy Kinderman-Ramage\", \"Ahrens-Dieter\", \"Box-Muller\", \"Inversion\", \"Kinderman-Ramage\", \"default\")) { print(paste0(gen, \":\")); RNGkind(NULL,gen); set.seed(42); print(rnorm(30)); }");
     }
 
+    @Test
+    public void testBulkGeneration() {
+        // generating a vector in bulk consumes the same random numbers as generating the values
+        // one by one, which is what happens with vector parameters (runif(1) is a bulk call too)
+        String[] kinds = {"'Mersenne-Twister'", "\"L'Ecuyer-CMRG\"", "'Marsaglia-Multicarry'"};
+        assertEval(template("{ RNGkind(%0); set.seed(7); x <- runif(1000); set.seed(7); y <- runif(1000, min=c(0, 0), max=1); RNGkind('default'); identical(x, y) }", kinds));
+        assertEval(template("{ RNGkind(%0); set.seed(7); x <- rnorm(1000); set.seed(7); y <- rnorm(1000, mean=c(0, 0), sd=1); RNGkind('default'); identical(x, y) }", kinds));
+        assertEval(template("{ RNGkind(%0); set.seed(7); runif(1000); s1 <- .Random.seed; set.seed(7); runif(1000, min=c(0, 0)); s2 <- .Random.seed; RNGkind('default'); identical(s1, s2) }", kinds));
+        assertEval(template("{ RNGkind(%0); set.seed(7); rnorm(1000); s1 <- .Random.seed; set.seed(7); rnorm(1000, sd=c(1, 1)); s2 <- .Random.seed; RNGkind('default'); identical(s1, s2) }", kinds));
+        // switching the kind back and forth in the middle of a stream
+        assertEval(template("{ RNGkind(%0); set.seed(7); x <- runif(500); s <- .Random.seed; RNGkind('Wichmann-Hill'); runif(10); RNGkind(%0); .Random.seed <- s; y <- runif(500, min=c(0, 0)); set.seed(7); z <- runif(1000); RNGkind('default'); identical(c(x, y), z) }", kinds));
+        assertEval("{ set.seed(3); x <- runif(1000, 2, 5); set.seed(3); y <- 2 + 3 * runif(1000); all.equal(x, y) }");
+        assertEval("{ set.seed(3); x <- runif(700); c(x[1:3], x[698:700]) }");
+    }
+
     @Test
     public void testDotRandomSeed() {
         assertEval(Output.IgnoreErrorContext, "{ .Random.seed }");
@@ -103,4 +103,40 @@ public class TestStatFunctions extends TestBase {
         assertEval(Output.MayIgnoreWarningContext,
                         template("set.seed(1); %0(%1)", FUNCTION3_2_NAMES, new String[]{"rep(c(1, 0, 0.1), 5), rep(c(1, 0, 0.1), 5), c(NA, 0, NaN, 1/0, -1/0)"}));
     }
+
+    private static final String[] SCALAR_PARAMETERS_NAMES = {"pnorm", "qnorm", "plnorm", "qlogis"};
+    private static final String[] SCALAR_PARAMETERS_PARAMS = {
+                    "0, 1",
+                    "-1, 2.5",
+                    "1e300, 1e-300",
+                    "1, 0",
+                    "1, -1",
+                    "1/0, 1",
+                    "0, 1/0",
+                    "NA, 1",
+                    "0, NaN"
+    };
+
+    @Test
+    public void testScalarParameters() {
+        // a vector of quantiles/probabilities with scalar parameters, which are checked once
+        assertEval(Output.MayIgnoreWarningContext, template("%0(c(NA, NaN, -1/0, 1/0, -2, 0, 0.3, 1, 5), %1)", SCALAR_PARAMETERS_NAMES, SCALAR_PARAMETERS_PARAMS));
+        assertEval(Output.MayIgnoreWarningContext, template("dnorm(c(NA, NaN, -1/0, 1/0, -2, 0, 0.3, 1, 5), %0, log=%1)", SCALAR_PARAMETERS_PARAMS, new String[]{"TRUE", "FALSE"}));
+        assertEval(Output.MayIgnoreWarningContext, template("pnorm(c(-1/0, -3, 0, 3, 1/0), 0, 1, lower.tail=%0, log.p=%1)", new String[]{"TRUE", "FALSE"}, new String[]{"TRUE", "FALSE"}));
+        assertEval(Output.MayIgnoreWarningContext, template("qnorm(c(-1/0, -2, 0, 0.5, 1), 0, 1, lower.tail=%0, log.p=%1)", new String[]{"TRUE", "FALSE"}, new String[]{"TRUE", "FALSE"}));
+        // NA and NaN in the fourth argument
+        assertEval("phyper(1, 5, 5, NA)");
+        assertEval("phyper(1, 5, 5, NaN)");
+        assertEval("phyper(0:4, 5, 5, NA)");
+        assertEval("pbeta(0.5, 2, 3, ncp=NA)");
+        assertEval("pbeta(c(0.1, 0.5, 0.9), 2, 3, ncp=NaN)");
+        assertEval("qbeta(c(0.1, 0.5, 0.9), 2, 3, ncp=NA)");
+        // scalar and vector parameters mixed
+        assertEval(Output.MayIgnoreWarningContext, "pnorm(c(-1, 0, 1, 2), c(0, 1), 1)");
+        assertEval(Output.MayIgnoreWarningContext, "pnorm(0.5, c(0, 1, NA, 2), c(1, -1))");
+        assertEval(Output.MayIgnoreWarningContext, "qnorm(c(0.1, 0.5, 0.9), 0, c(1, 2, -1))");
+        assertEval(Output.MayIgnoreWarningContext, "dnorm(1:6, c(0, NaN, 2), 1)");
+        assertEval(Output.MayIgnoreWarningContext, "phyper(0:5, 5, c(5, 3), c(4, NA, 2))");
+        assertEval(Output.MayIgnoreWarningContext, "pbeta(c(0.2, 0.8), 2, 3, ncp=c(0, 1, NA, 2))");
+    }
 }
@@ -52,6 +52,32 @@ public class TestStats extends TestBase {
         assertEval("{ fft(cbind(1:2,3:4)) }");
         assertEval("{ fft(c(0, 1, integer(6))) }");
         assertEval("{ fft(c(complex(real=1, imaginary=0), integer(7))) }");
+        // prime, composite and Bluestein (prime factors larger than 64) lengths
+        String dft = "dft <- function(z, inverse=FALSE) { n <- length(z); k <- 0:(n-1); s <- if (inverse) 1 else -1; sapply(k, function(j) sum(z * exp(s * 2i * pi * j * k / n))) }; ";
+        String[] lengths = {"7", "12", "97", "210", "360", "1009", "2*67"};
+        assertEval(template("{ " + dft + "set.seed(42); x <- runif(%0); all.equal(fft(x), dft(x)) }", lengths));
+        assertEval(template("{ " + dft + "set.seed(42); z <- complex(real=runif(%0), imaginary=rnorm(%0)); c(all.equal(fft(z), dft(z)), all.equal(fft(z, inverse=TRUE), dft(z, TRUE))) }", lengths));
+        assertEval(template("{ set.seed(1); z <- complex(real=rnorm(%0), imaginary=rnorm(%0)); all.equal(fft(fft(z), inverse=TRUE) / length(z), z) }", lengths));
+        assertEval("{ round(fft(1:7), 6) }");
+        assertEval("{ round(fft(1:97)[1:5], 6) }");
+        assertEval("{ round(fft(1:6, inverse=TRUE), 6) }");
+        assertEval("{ fft(complex()) }");
+    }
+
+    @Test
+    public void testMvfft() {
+        assertEval("{ round(mvfft(matrix(1:12, 4)), 6) }");
+        assertEval("{ round(mvfft(matrix(1:12, 4), inverse=TRUE), 6) }");
+        assertEval("{ mvfft(matrix(1:3, 1)) }");
+        assertEval("{ set.seed(2); m <- matrix(rnorm(97 * 5), 97); c(all.equal(mvfft(m), apply(m, 2, fft)), all.equal(mvfft(mvfft(m), inverse=TRUE) / 97, m + 0i)) }");
+        assertEval("{ set.seed(3); m <- matrix(complex(real=rnorm(360 * 3), imaginary=rnorm(360 * 3)), 360); all.equal(mvfft(m, inverse=TRUE), apply(m, 2, fft, inverse=TRUE)) }");
+        assertEval("{ mvfft(array(1:8, c(2, 2, 2))) }");
+        assertEval("{ mvfft(array(1:4)) }");
+        assertEval("{ mvfft(1:4) }");
+        // large enough to be split among several threads, with column counts that do not divide
+        // evenly into the chunks
+        assertEval("{ set.seed(4); m <- matrix(rnorm(256 * 301), 256); all.equal(mvfft(m), apply(m, 2, fft)) }");
+        assertEval("{ set.seed(5); m <- matrix(complex(real=rnorm(97 * 700), imaginary=rnorm(97 * 700)), 97); c(all.equal(mvfft(m, inverse=TRUE), apply(m, 2, fft, inverse=TRUE)), all.equal(mvfft(mvfft(m), inverse=TRUE) / 97, m)) }");
     }
 
     @Test
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.library.utils.FoldedStacks;
+import com.oracle.truffle.r.library.utils.ProfileTicks;
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestRprof extends TestBase {
+
+    private static final long INTERVAL = 1000;
+
+    @Test
+    public void testCPUTimeTicks() {
+        ProfileTicks ticks = new ProfileTicks(INTERVAL, 0, 0, 0);
+        // half an interval of CPU time is carried over to the next wake-up
+        assertEquals(0, ticks.advance(1000, 500, 0));
+        assertEquals(1, ticks.advance(2000, 1200, 0));
+        assertEquals(ProfileTicks.Kind.R, ticks.getKind(0));
+        // idle time is not sampled
+        assertEquals(0, ticks.advance(3000, 1200, 0));
+    }
+
+    @Test
+    public void testNoCatchUpTicks() {
+        ProfileTicks ticks = new ProfileTicks(INTERVAL, 0, 0, 0);
+        // the timer thread did not run for 50 intervals, only one tick is reported
+        assertEquals(1, ticks.advance(50000, 40000, 0));
+        assertEquals(51000, ticks.getNextWakeup());
+        assertEquals(0, ticks.advance(51000, 40500, 0));
+
+        ProfileTicks wallClock = new ProfileTicks(INTERVAL, 0, -1, 0);
+        assertEquals(1, wallClock.advance(100000, -1, 0));
+        assertEquals(101000, wallClock.getNextWakeup());
+        assertEquals(1, wallClock.advance(101000, -1, 0));
+        assertEquals(102000, wallClock.getNextWakeup());
+    }
+
+    @Test
+    public void testTickKinds() {
+        ProfileTicks ticks = new ProfileTicks(INTERVAL, 0, 0, 0);
+        assertEquals(1, ticks.advance(1000, 1000, 0));
+        assertEquals(ProfileTicks.Kind.R, ticks.getKind(0));
+        assertEquals(ProfileTicks.Kind.NATIVE, ticks.getKind(1));
+        // the profiled thread does not run during GC, but the tick is still reported
+        assertEquals(1, ticks.advance(2000, 1000, 7));
+        assertEquals(ProfileTicks.Kind.GC, ticks.getKind(1));
+        assertEquals(1, ticks.advance(3000, 2000, 7));
+        assertEquals(ProfileTicks.Kind.NATIVE, ticks.getKind(2));
+    }
+
+    @Test
+    public void testFoldedStacks() {
+        FoldedStacks stacks = new FoldedStacks();
+        stacks.add(Arrays.asList("g", "f"), ProfileTicks.Kind.R, 2);
+        stacks.add(Collections.emptyList(), ProfileTicks.Kind.R, 1);
+        stacks.add(Arrays.asList("g", "f"), ProfileTicks.Kind.NATIVE, 1);
+        stacks.add(Collections.emptyList(), ProfileTicks.Kind.GC, 4);
+        stacks.add(Arrays.asList("my fun", "a;b"), ProfileTicks.Kind.R, 1);
+        stacks.add(Arrays.asList("g", "f"), ProfileTicks.Kind.R, 3);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true);
+        stacks.write(out);
+        assertEquals("f;g 5\n<toplevel> 1\nf;g;[native] 1\n<toplevel>;[gc] 4\na:b;my_fun 1\n", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRprofOutput() {
+        assertEvalFastR("{ f <- tempfile(); Rprof(f, interval = 0.001); g <- function(n) { s <- 0; for (i in 1:n) s <- s + sqrt(i); s }; for (k in 1:20) g(1e5); Rprof(NULL); l <- readLines(f); unlink(f); l[[1]] == 'sample.interval=1000' && all(grepl('^(\"[^\"]+\" )*$', l[-1])) && any(l[-1] == '\"g\" ') }", "TRUE");
+        assertEvalFastR("{ f <- tempfile(fileext = '.folded'); Rprof(f, interval = 0.001); g <- function(n) { s <- 0; for (i in 1:n) s <- s + sqrt(i); s }; h <- function() g(1e5); for (k in 1:20) h(); Rprof(NULL); l <- readLines(f); unlink(f); all(grepl('^[^ ]+ [0-9]+$', l)) && any(grepl('^h;g [0-9]+$', l)) }", "TRUE");
+        // the profile ends with Rprof(NULL), the listener does not stay attached
+        assertEvalFastR("{ f <- tempfile(fileext = '.folded'); Rprof(f, interval = 0.001); Rprof(NULL); n <- length(readLines(f)); g <- function(n) { s <- 0; for (i in 1:n) s <- s + i; s }; g(1e5); n2 <- length(readLines(f)); unlink(f); n == n2 }", "TRUE");
+    }
+}
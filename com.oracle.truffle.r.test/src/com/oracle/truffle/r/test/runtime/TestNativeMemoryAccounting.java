@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.data.NativeMemoryAccounting;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestNativeMemoryAccounting extends TestBase {
+    @Test
+    public void testGCTrigger() {
+        NativeMemoryAccounting acc = new NativeMemoryAccounting(100);
+        Assert.assertFalse(acc.allocated(60));
+        Assert.assertEquals(100, acc.getGCTrigger());
+        Assert.assertTrue(acc.allocated(60));
+        Assert.assertEquals(220, acc.getGCTrigger());
+        Assert.assertFalse(acc.allocated(50));
+        // freeing lowers the trigger back to the usage plus the soft limit
+        acc.freed(150);
+        Assert.assertEquals(20, acc.getInUse());
+        Assert.assertEquals(120, acc.getGCTrigger());
+        Assert.assertTrue(acc.allocated(110));
+        Assert.assertEquals(230, acc.getGCTrigger());
+        Assert.assertEquals(2, acc.getTriggeredGCs());
+        // the trigger does not grow while the live memory stays bounded
+        for (int i = 0; i < 100; i++) {
+            acc.allocated(100);
+            acc.freed(100);
+        }
+        Assert.assertTrue(acc.getGCTrigger() <= 230);
+        Assert.assertEquals(230, acc.getMaxUsed());
+    }
+
+    @Test
+    public void testDisabled() {
+        NativeMemoryAccounting acc = new NativeMemoryAccounting(Long.MAX_VALUE);
+        Assert.assertFalse(acc.allocated(Long.MAX_VALUE / 2));
+        acc.freed(Long.MAX_VALUE / 4);
+        Assert.assertEquals(Long.MAX_VALUE, acc.getGCTrigger());
+        Assert.assertEquals(0, acc.getTriggeredGCs());
+    }
+
+    @Test
+    public void testMaxUsedConcurrent() throws InterruptedException {
+        NativeMemoryAccounting acc = new NativeMemoryAccounting(Long.MAX_VALUE);
+        int threadsCount = 8;
+        int allocations = 10000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadsCount; i++) {
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < allocations; j++) {
+                    acc.allocated(1);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        Assert.assertEquals(threadsCount * allocations, acc.getInUse());
+        Assert.assertEquals(threadsCount * allocations, acc.getMaxUsed());
+    }
+}
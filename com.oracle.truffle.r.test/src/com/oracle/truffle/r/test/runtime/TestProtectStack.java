@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.ffi.ProtectStack;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestProtectStack extends TestBase {
+
+    private static final BranchProfile PROFILE = BranchProfile.getUncached();
+
+    private static RBaseObject[] values(int n) {
+        RBaseObject[] result = new RBaseObject[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = RDataFactory.createIntVectorFromScalar(i);
+        }
+        return result;
+    }
+
+    private static void assertStack(ProtectStack stack, RBaseObject... expected) {
+        Assert.assertEquals(expected.length, stack.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertSame(expected[i], stack.get(i));
+        }
+    }
+
+    @Test
+    public void testPushPop() {
+        RBaseObject[] v = values(4);
+        ProtectStack stack = new ProtectStack(8);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(i, stack.push(v[i], PROFILE));
+        }
+        Assert.assertSame(v[3], stack.peek(0));
+        Assert.assertSame(v[1], stack.peek(2));
+        Assert.assertTrue(stack.pop(2));
+        assertStack(stack, v[0], v[1]);
+        // the slots of the unprotected, but retained, objects are reused
+        Assert.assertEquals(2, stack.push(v[3], PROFILE));
+        assertStack(stack, v[0], v[1], v[3]);
+        Assert.assertTrue(stack.pop(3));
+        assertStack(stack);
+        stack.releaseUnprotected();
+        Assert.assertEquals(0, stack.push(v[2], PROFILE));
+        assertStack(stack, v[2]);
+    }
+
+    @Test
+    public void testGrowth() {
+        RBaseObject[] v = values(100);
+        ProtectStack stack = new ProtectStack(4);
+        for (int i = 0; i < v.length; i++) {
+            stack.push(v[i], PROFILE);
+        }
+        assertStack(stack, v);
+        Assert.assertTrue(stack.pop(50));
+        for (int i = 0; i < 50; i++) {
+            stack.push(v[99 - i], PROFILE);
+        }
+        Assert.assertEquals(100, stack.size());
+        Assert.assertSame(v[49], stack.get(49));
+        Assert.assertSame(v[99], stack.get(50));
+        Assert.assertSame(v[50], stack.peek(0));
+    }
+
+    @Test
+    public void testUnbalancedPop() {
+        RBaseObject[] v = values(3);
+        ProtectStack stack = new ProtectStack(4);
+        stack.push(v[0], PROFILE);
+        stack.push(v[1], PROFILE);
+        Assert.assertFalse(stack.pop(3));
+        assertStack(stack);
+        Assert.assertFalse(stack.pop(1));
+        // the stack is still usable afterwards
+        stack.push(v[2], PROFILE);
+        assertStack(stack, v[2]);
+        Assert.assertTrue(stack.pop(1));
+        stack.releaseUnprotected();
+        assertStack(stack);
+    }
+
+    @Test
+    public void testRemove() {
+        RBaseObject[] v = values(5);
+        ProtectStack stack = new ProtectStack(4);
+        for (int i = 0; i < 4; i++) {
+            stack.push(v[i], PROFILE);
+        }
+        stack.push(v[1], PROFILE);
+        // the topmost occurrence is removed
+        Assert.assertTrue(stack.remove(v[1]));
+        assertStack(stack, v[0], v[1], v[2], v[3]);
+        Assert.assertTrue(stack.remove(v[1]));
+        assertStack(stack, v[0], v[2], v[3]);
+        Assert.assertFalse(stack.remove(v[4]));
+        Assert.assertTrue(stack.remove(v[3]));
+        assertStack(stack, v[0], v[2]);
+        stack.push(v[4], PROFILE);
+        assertStack(stack, v[0], v[2], v[4]);
+        stack.releaseUnprotected();
+        assertStack(stack, v[0], v[2], v[4]);
+    }
+}